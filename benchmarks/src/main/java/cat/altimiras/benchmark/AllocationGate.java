@@ -0,0 +1,102 @@
+package cat.altimiras.benchmark;
+
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+
+/**
+ * Fails when bytes allocated per parsed document (gc.alloc.rate.norm) of any parser benchmark is bigger than the
+ * stored baseline plus a tolerance.
+ * <p>
+ * Usage: AllocationGate baseline.properties
+ * <ul>
+ * <li>-Dallocation.tolerance=0.10 allowed growth over baseline, 10% by default</li>
+ * <li>-Dallocation.update=true writes current values as new baseline instead of checking them</li>
+ * </ul>
+ */
+public class AllocationGate {
+
+	private static final String INCLUDE = "cat\\.altimiras\\.benchmark\\.(ObjParser|MapParser|JSONMapParser)Benchmark\\.parse";
+
+	public static void main(String[] args) throws Exception {
+		Path baselinePath = Paths.get(args.length > 0 ? args[0] : "allocation-baseline.properties");
+		double tolerance = Double.parseDouble(System.getProperty("allocation.tolerance", "0.10"));
+		boolean update = Boolean.getBoolean("allocation.update");
+
+		Map<String, Double> current = measure();
+
+		if (update) {
+			//sorted and without timestamp, to get readable diffs
+			List<String> lines = new ArrayList<>();
+			lines.add("# Bytes allocated per parsed document. Updated with -Dallocation.update=true");
+			for (Map.Entry<String, Double> e : current.entrySet()) {
+				lines.add(e.getKey() + "=" + Math.round(e.getValue()));
+			}
+			Files.write(baselinePath, lines, StandardCharsets.ISO_8859_1);
+			System.out.println("Baseline updated: " + baselinePath);
+			return;
+		}
+
+		Properties baseline = new Properties();
+		try (InputStream in = Files.newInputStream(baselinePath)) {
+			baseline.load(in);
+		}
+
+		boolean regression = false;
+		for (Map.Entry<String, Double> e : current.entrySet()) {
+			String stored = baseline.getProperty(e.getKey());
+			if (stored == null) {
+				System.out.println(String.format("NEW        %-50s %12.0f B/doc", e.getKey(), e.getValue()));
+				continue;
+			}
+			double limit = Double.parseDouble(stored) * (1 + tolerance);
+			boolean failed = e.getValue() > limit;
+			regression |= failed;
+			System.out.println(String.format("%-10s %-50s %12.0f B/doc (baseline %s)", failed ? "REGRESSION" : "OK", e.getKey(), e.getValue(), stored));
+		}
+
+		if (regression) {
+			System.err.println("Allocation per document has regressed more than " + (tolerance * 100) + "% over " + baselinePath);
+			System.exit(1);
+		}
+	}
+
+	private static Map<String, Double> measure() throws Exception {
+		Options options = new OptionsBuilder()
+				.include(INCLUDE)
+				.mode(Mode.AverageTime)
+				.warmupIterations(3)
+				.warmupTime(TimeValue.seconds(1))
+				.measurementIterations(3)
+				.measurementTime(TimeValue.seconds(1))
+				.forks(1)
+				.addProfiler(GCProfiler.class)
+				.build();
+
+		Map<String, Double> allocations = new TreeMap<>();
+		for (RunResult result : new Runner(options).run()) {
+			String benchmark = result.getParams().getBenchmark();
+			String name = benchmark.substring(benchmark.lastIndexOf('.', benchmark.lastIndexOf('.') - 1) + 1);
+			String document = result.getParams().getParam("document");
+			Result allocation = result.getSecondaryResults().get("gc.alloc.rate.norm");
+			allocations.put(name + "." + document, allocation.getScore());
+		}
+		return allocations;
+	}
+}
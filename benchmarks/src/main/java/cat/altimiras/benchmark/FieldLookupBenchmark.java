@@ -0,0 +1,51 @@
+package cat.altimiras.benchmark;
+
+import cat.altimiras.xml.obj.ClassIntrospector;
+import cat.altimiras.xml.pojo.WideTestObj;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ClassIntrospector field lookup on a class with 62 fields, as done for every tag and attribute
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FieldLookupBenchmark {
+
+	private ClassIntrospector classIntrospector;
+
+	private String[] names = new String[64];
+
+	private int i;
+
+	@Setup
+	public void setUp() throws Exception {
+		classIntrospector = new ClassIntrospector(WideTestObj.class);
+		for (int i = 0; i < 60; i++) {
+			names[i] = ("field" + i).intern(); //as tag names coming from the reader
+		}
+		names[60] = "Aa";
+		names[61] = "BB";
+		names[62] = "notExist";
+		names[63] = "otherNotExist";
+	}
+
+	@Benchmark
+	public boolean lookup() {
+		return classIntrospector.hasField(WideTestObj.class, names[i++ & 63]);
+	}
+}
@@ -0,0 +1,59 @@
+package cat.altimiras.benchmark;
+
+import cat.altimiras.Parser;
+import cat.altimiras.json.JSONFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSONMapParserImpl parsing the JSON equivalents of xml documents, and JSONTapeParserImpl recording them on a tape
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JSONMapParserBenchmark {
+
+	@Param({"bigListTest", "bigListAttTest", "bigListIgnoreTest"})
+	private String document;
+
+	private byte[] json;
+
+	private Parser<Map> parser;
+
+	private Parser<Map> tapeParser;
+
+	@Setup
+	public void setUp() throws Exception {
+		json = Resources.read("/performance/" + document + ".json");
+		parser = JSONFactory.getParser();
+		tapeParser = JSONFactory.getTapeParser();
+	}
+
+	@Benchmark
+	public Map parse() throws Exception {
+		return parser.parse(json);
+	}
+
+	/**
+	 * Same content recorded on a tape
+	 */
+	@Benchmark
+	public Map parseTape() throws Exception {
+		return tapeParser.parse(json);
+	}
+}
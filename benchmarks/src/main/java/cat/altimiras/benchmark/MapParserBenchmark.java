@@ -0,0 +1,72 @@
+package cat.altimiras.benchmark;
+
+import cat.altimiras.Parser;
+import cat.altimiras.xml.XMLFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * WoodStoxMapParserImpl parsing documents to maps, as HashMaps (current output) and as compact maps, and
+ * WoodStoxTapeParserImpl recording them on a tape
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapParserBenchmark {
+
+	@Param({"bigListTest", "bigListAttTest", "bigListIgnoreTest"})
+	private String document;
+
+	private byte[] xml;
+
+	private Parser<Map> parser;
+
+	private Parser<Map> compactParser;
+
+	private Parser<Map> tapeParser;
+
+	@Setup
+	public void setUp() throws Exception {
+		xml = Resources.read("/performance/" + document + ".xml");
+		XMLFactory.configure(XMLFactory.MODE.PERFORMANCE, XMLFactory.MODE.CDATA_SUPPORT);
+		parser = XMLFactory.getParser();
+		compactParser = XMLFactory.getParser(XMLFactory.DEFAULT_INCOMPLETE_KEY_NAME, true);
+		tapeParser = XMLFactory.getTapeParser();
+	}
+
+	@Benchmark
+	public Map parse() throws Exception {
+		return parser.parse(xml);
+	}
+
+	/**
+	 * Same content as compact maps
+	 */
+	@Benchmark
+	public Map parseCompact() throws Exception {
+		return compactParser.parse(xml);
+	}
+
+	/**
+	 * Same content recorded on a tape
+	 */
+	@Benchmark
+	public Map parseTape() throws Exception {
+		return tapeParser.parse(xml);
+	}
+}
@@ -0,0 +1,49 @@
+package cat.altimiras.benchmark;
+
+import cat.altimiras.Parser;
+import cat.altimiras.xml.XMLFactory;
+import cat.altimiras.xml.pojo.ListTestObj;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * WoodStoxObjParserImpl parsing documents to ListTestObj
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ObjParserBenchmark {
+
+	@Param({"bigListTest", "bigListAttTest", "bigListIgnoreTest"})
+	private String document;
+
+	private byte[] xml;
+
+	private Parser<ListTestObj> parser;
+
+	@Setup
+	public void setUp() throws Exception {
+		xml = Resources.read("/performance/" + document + ".xml");
+		XMLFactory.init(ListTestObj.class);
+		parser = XMLFactory.getParser(ListTestObj.class);
+	}
+
+	@Benchmark
+	public ListTestObj parse() throws Exception {
+		return parser.parse(xml);
+	}
+}
@@ -0,0 +1,26 @@
+package cat.altimiras.benchmark;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Benchmark inputs are the test resources of sherlockXML, available on classpath from its test jar
+ */
+class Resources {
+
+	static byte[] read(String path) throws IOException {
+		try (InputStream in = Resources.class.getResourceAsStream(path)) {
+			if (in == null) {
+				throw new IOException("Resource not found:" + path);
+			}
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+			byte[] buffer = new byte[8192];
+			int read;
+			while ((read = in.read(buffer)) != -1) {
+				out.write(buffer, 0, read);
+			}
+			return out.toByteArray();
+		}
+	}
+}
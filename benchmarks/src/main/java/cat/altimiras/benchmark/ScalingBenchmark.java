@@ -0,0 +1,119 @@
+package cat.altimiras.benchmark;
+
+import cat.altimiras.ListIterable;
+import cat.altimiras.Parser;
+import cat.altimiras.json.JSONFactory;
+import cat.altimiras.performance.WorkloadGenerator;
+import cat.altimiras.xml.XMLFactory;
+import cat.altimiras.xml.pojo.ListTestObj2;
+import cat.altimiras.xml.pojo.Nested8TestObj;
+import cat.altimiras.xml.pojo.SimpleTestObj;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parsers over generated documents of growing size. Documents are written to temporary files and memory mapped by
+ * the parsers, so sizes bigger than the heap can be used with the streaming benchmark:
+ * -p size=4GB ScalingBenchmark.streamObj
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ScalingBenchmark {
+
+	@Param({"1KB", "1MB", "32MB"})
+	private String size;
+
+	@Param({"LIST", "NESTED"})
+	private WorkloadGenerator.Shape shape;
+
+	@Param({"0.2"})
+	private double ignored;
+
+	@Param({"0.2"})
+	private double attributes;
+
+	private Path xml;
+	private Path json;
+
+	private Parser objParser;
+	private Parser<Map> mapParser;
+	private Parser<Map> jsonParser;
+
+	@Setup
+	public void setUp() throws Exception {
+		WorkloadGenerator generator = new WorkloadGenerator(shape)
+				.size(WorkloadGenerator.parseSize(size))
+				.ignored(ignored)
+				.attributes(attributes)
+				.cdata(0.1);
+
+		xml = Files.createTempFile("workload", ".xml");
+		generator.write(WorkloadGenerator.Format.XML, xml);
+		json = Files.createTempFile("workload", ".json");
+		generator.write(WorkloadGenerator.Format.JSON, json);
+
+		Class root = shape == WorkloadGenerator.Shape.LIST ? ListTestObj2.class : Nested8TestObj.class;
+		XMLFactory.init(root);
+		objParser = XMLFactory.getParser(root);
+		mapParser = XMLFactory.getParser();
+		jsonParser = JSONFactory.getParser();
+	}
+
+	@TearDown
+	public void tearDown() throws Exception {
+		Files.deleteIfExists(xml);
+		Files.deleteIfExists(json);
+	}
+
+	@Benchmark
+	public Object obj() throws Exception {
+		return objParser.parse(xml);
+	}
+
+	@Benchmark
+	public Map map() throws Exception {
+		return mapParser.parse(xml);
+	}
+
+	@Benchmark
+	public Map json() throws Exception {
+		return jsonParser.parse(json);
+	}
+
+	/**
+	 * Only for LIST shape, elements are not kept in memory
+	 */
+	@Benchmark
+	public long streamObj() throws Exception {
+		long count = 0;
+		try (InputStream in = Files.newInputStream(xml)) {
+			Iterator<SimpleTestObj> it = ((ListIterable) objParser).iterate(in, SimpleTestObj.class);
+			while (it.hasNext()) {
+				it.next();
+				count++;
+			}
+		}
+		return count;
+	}
+}
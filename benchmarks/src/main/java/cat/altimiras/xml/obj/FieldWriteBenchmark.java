@@ -0,0 +1,76 @@
+package cat.altimiras.xml.obj;
+
+import cat.altimiras.xml.pojo.TypeTestObj;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.reflect.Field;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes of the fields of TypeTestObj, as done by the parser for every value: through FieldAccessor and through
+ * reflective Field.set. In same package than FieldAccessor, that is not public.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FieldWriteBenchmark {
+
+	private static final String[] NAMES = {"text", "integerNum", "longNum", "doubleNum", "floatNum", "booleanValue", "intPrimitiveNum", "longPrimitiveNum"};
+
+	private final TypeTestObj target = new TypeTestObj();
+
+	private FieldAccessor[] accessors = new FieldAccessor[8];
+
+	private Field[] fields = new Field[8];
+
+	private Object[] values = {"text", 1, 2L, 3.0, 4.0f, Boolean.TRUE, 5, 6L};
+
+	private int i;
+
+	@Setup
+	public void setUp() throws Exception {
+		ClassIntrospector classIntrospector = new ClassIntrospector(TypeTestObj.class);
+		for (int i = 0; i < NAMES.length; i++) {
+			accessors[i] = classIntrospector.getAccessor(TypeTestObj.class, NAMES[i]);
+			fields[i] = accessors[i].getField();
+		}
+	}
+
+	@Benchmark
+	public Object accessor() throws Exception {
+		int n = i++ & 7;
+		accessors[n].set(target, values[n]);
+		return target;
+	}
+
+	@Benchmark
+	public Object reflection() throws Exception {
+		int n = i++ & 7;
+		fields[n].set(target, values[n]);
+		return target;
+	}
+
+	@Benchmark
+	public Object accessorInt() throws Exception {
+		accessors[6].setInt(target, i++);
+		return target;
+	}
+
+	@Benchmark
+	public Object reflectionInt() throws Exception {
+		fields[6].setInt(target, i++);
+		return target;
+	}
+}
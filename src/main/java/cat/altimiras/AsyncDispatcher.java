@@ -0,0 +1,225 @@
+package cat.altimiras;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Notifies TagListeners on an executor instead of the parsing thread, so a slow listener does not stall parsing.
+ * <p>
+ * Notifications are queued on a bounded ring buffer and delivered in order, one at a time. When the buffer is full,
+ * Backpressure decides: wait for space, drop the notification or stop parsing. A listener returning true cancels
+ * the parse: notifications still queued are discarded and the parser stops as soon as it sees it.
+ * Parse does not return until all queued notifications are delivered.
+ * <p>
+ * Used by a single parser, set with Parser.setAsyncDispatcher.
+ */
+public final class AsyncDispatcher {
+
+	public enum Backpressure {
+		/**
+		 * Parsing waits until there is space in the buffer
+		 */
+		BLOCK,
+		/**
+		 * Notification is discarded, see getDropped
+		 */
+		DROP,
+		/**
+		 * Parsing stops, as if a listener had returned true
+		 */
+		STOP
+	}
+
+	private final Executor executor;
+	private final Backpressure backpressure;
+	private final ArrayBlockingQueue<Notification> buffer;
+
+	/**
+	 * Notifications accepted and not delivered yet
+	 */
+	private final AtomicInteger pending = new AtomicInteger();
+	private final AtomicBoolean draining = new AtomicBoolean();
+	private final AtomicLong dropped = new AtomicLong();
+
+	private volatile boolean cancelled = false;
+	private volatile RuntimeException error = null;
+
+	/**
+	 * @param executor     where listeners are called
+	 * @param capacity     of the buffer
+	 * @param backpressure what to do when buffer is full
+	 */
+	public AsyncDispatcher(Executor executor, int capacity, Backpressure backpressure) {
+		if (executor == null || backpressure == null) {
+			throw new NullPointerException();
+		}
+		this.executor = executor;
+		this.backpressure = backpressure;
+		this.buffer = new ArrayBlockingQueue<>(capacity);
+	}
+
+	/**
+	 * @return listener queuing its notifications on this dispatcher
+	 */
+	TagListener wrap(TagListener listener) {
+		return new AsyncListener(listener);
+	}
+
+	/**
+	 * @return true if a listener asked to stop, or the buffer was full with Backpressure.STOP
+	 */
+	public boolean isCancelled() {
+		return cancelled;
+	}
+
+	/**
+	 * @return notifications discarded on current (or last) parse because the buffer was full
+	 */
+	public long getDropped() {
+		return dropped.get();
+	}
+
+	/**
+	 * Called by the parser when a parse begins
+	 */
+	void reset() {
+		cancelled = false;
+		error = null;
+		dropped.set(0);
+	}
+
+	/**
+	 * Called by the parser when a parse ends. Waits until all queued notifications are delivered.
+	 *
+	 * @throws RuntimeException thrown by a listener
+	 */
+	void await() {
+		synchronized (this) {
+			while (pending.get() > 0) {
+				try {
+					wait();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					cancelled = true;
+					return;
+				}
+			}
+		}
+		RuntimeException e = error;
+		if (e != null) {
+			error = null;
+			throw e;
+		}
+	}
+
+	private boolean dispatch(TagListener listener, String tag, Object value) {
+		if (cancelled) {
+			return true;
+		}
+
+		Notification notification = new Notification(listener, tag, value);
+		pending.incrementAndGet();
+		boolean queued;
+		if (backpressure == Backpressure.BLOCK) {
+			try {
+				buffer.put(notification);
+				queued = true;
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				cancelled = true;
+				queued = false;
+			}
+		} else {
+			queued = buffer.offer(notification);
+			if (!queued) {
+				if (backpressure == Backpressure.DROP) {
+					dropped.incrementAndGet();
+				} else {
+					cancelled = true;
+				}
+			}
+		}
+
+		if (queued) {
+			schedule();
+		} else {
+			delivered();
+		}
+		return cancelled;
+	}
+
+	private void schedule() {
+		if (draining.compareAndSet(false, true)) {
+			try {
+				executor.execute(this::drain);
+			} catch (RejectedExecutionException e) {
+				//executor is not available, delivered by the parsing thread
+				drain();
+			}
+		}
+	}
+
+	private void drain() {
+		while (true) {
+			Notification notification = buffer.poll();
+			if (notification == null) {
+				draining.set(false);
+				//a notification could be queued after poll and before draining was released
+				if (buffer.isEmpty() || !draining.compareAndSet(false, true)) {
+					return;
+				}
+				continue;
+			}
+
+			if (!cancelled) {
+				try {
+					if (FlightRecorder.notify(notification.listener, notification.tag, notification.value)) {
+						cancelled = true;
+					}
+				} catch (RuntimeException e) {
+					error = e;
+					cancelled = true;
+				}
+			}
+			delivered();
+		}
+	}
+
+	private void delivered() {
+		if (pending.decrementAndGet() == 0) {
+			synchronized (this) {
+				notifyAll();
+			}
+		}
+	}
+
+	private static final class Notification {
+		private final TagListener listener;
+		private final String tag;
+		private final Object value;
+
+		private Notification(TagListener listener, String tag, Object value) {
+			this.listener = listener;
+			this.tag = tag;
+			this.value = value;
+		}
+	}
+
+	private final class AsyncListener implements TagListener {
+
+		private final TagListener listener;
+
+		private AsyncListener(TagListener listener) {
+			this.listener = listener;
+		}
+
+		@Override
+		public boolean notify(String tag, Object value) {
+			return dispatch(listener, tag, value);
+		}
+	}
+}
@@ -0,0 +1,17 @@
+package cat.altimiras;
+
+import java.util.List;
+
+public interface BatchListener {
+
+	/**
+	 * If listener is registered for specific tag. Called with values of closed tags, in chunks.
+	 * A chunk is delivered when it is full, when the parent of its tags is closed and when parsing ends.
+	 *
+	 * @param tag    called
+	 * @param values in document order, listener owns the list
+	 * @return true parsing must to stop otherwise continues
+	 */
+	boolean notify(String tag, List<Object> values);
+
+}
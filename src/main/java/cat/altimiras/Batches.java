@@ -0,0 +1,158 @@
+package cat.altimiras;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * BatchListeners registered by tag. Values of closed tags are buffered and delivered in chunks.
+ * <p>
+ * Parser tracks depth with open and close, so a chunk never mixes values of different parents: it is flushed when it
+ * is full or when the parent of its values is closed. Not thread safe, one per parser.
+ */
+public final class Batches {
+
+	private final Map<String, Batch> byTag = new HashMap<>();
+	private final List<Batch> batches = new ArrayList<>();
+
+	private int depth = 0;
+
+	/**
+	 * Batches with buffered values, so close does not check all of them
+	 */
+	private int pending = 0;
+
+	Batches() {
+	}
+
+	/**
+	 * @param tag
+	 * @param sink receives the chunks as a list, through the async dispatcher if any
+	 * @param size of every chunk
+	 */
+	void add(String tag, TagListener sink, int size) {
+		Batch batch = new Batch(tag, sink, size);
+		Batch previous = byTag.put(tag, batch);
+		if (previous != null) {
+			batches.remove(previous);
+		}
+		batches.add(batch);
+	}
+
+	/**
+	 * Must be called before every parse
+	 */
+	public void reset() {
+		depth = 0;
+		pending = 0;
+		for (Batch batch : batches) {
+			batch.values = null;
+		}
+	}
+
+	/**
+	 * @return true if a listener is registered for tag, so its values are needed on close
+	 */
+	public boolean isBatched(String tag) {
+		return byTag.containsKey(tag);
+	}
+
+	/**
+	 * An element (or key) is opened
+	 */
+	public void open() {
+		depth++;
+	}
+
+	/**
+	 * Value of current element, closed or about to be closed. Ignored if tag is not batched.
+	 *
+	 * @param tag
+	 * @param value
+	 * @return true if a listener asked to stop parsing
+	 */
+	public boolean add(String tag, Object value) {
+		Batch batch = byTag.get(tag);
+		if (batch == null) {
+			return false;
+		}
+		if (batch.values == null) {
+			batch.values = new ArrayList<>(batch.size);
+			pending++;
+		} else if (batch.depth != depth) {
+			//same tag at another depth, previous values belong to another parent
+			if (batch.flush()) {
+				return true;
+			}
+			batch.values = new ArrayList<>(batch.size);
+			pending++;
+		}
+		batch.depth = depth;
+		batch.values.add(value);
+		return batch.values.size() == batch.size && batch.flush();
+	}
+
+	/**
+	 * Current element is closed, chunks of its child elements are flushed
+	 *
+	 * @return true if a listener asked to stop parsing
+	 */
+	public boolean close() {
+		if (depth > 0) {
+			depth--;
+		}
+		boolean stop = false;
+		if (pending > 0) {
+			for (int i = 0; i < batches.size(); i++) {
+				Batch batch = batches.get(i);
+				if (batch.values != null && batch.depth > depth + 1) {
+					stop |= batch.flush();
+				}
+			}
+		}
+		return stop;
+	}
+
+	/**
+	 * Parsing ends, completed or not. All chunks are flushed.
+	 *
+	 * @return true if a listener asked to stop parsing
+	 */
+	public boolean flush() {
+		boolean stop = false;
+		for (int i = 0; i < batches.size() && pending > 0; i++) {
+			Batch batch = batches.get(i);
+			if (batch.values != null) {
+				stop |= batch.flush();
+			}
+		}
+		return stop;
+	}
+
+	private final class Batch {
+
+		private final String tag;
+		private final TagListener sink;
+		private final int size;
+
+		/**
+		 * Chunk being filled, null if there is none
+		 */
+		private List<Object> values;
+		private int depth;
+
+		private Batch(String tag, TagListener sink, int size) {
+			this.tag = tag;
+			this.sink = sink;
+			this.size = size;
+		}
+
+		private boolean flush() {
+			List<Object> chunk = values;
+			values = null;
+			pending--;
+			return FlightRecorder.notify(sink, tag, chunk);
+		}
+	}
+}
@@ -0,0 +1,15 @@
+package cat.altimiras;
+
+import java.util.Iterator;
+
+/**
+ * Iterator over content being parsed. Closing it before it is drained releases the content and ends the parse, so
+ * its metrics are recorded. Closing it several times has no effect.
+ *
+ * @param <E>
+ */
+public interface CloseableIterator<E> extends Iterator<E>, AutoCloseable {
+
+	@Override
+	void close();
+}
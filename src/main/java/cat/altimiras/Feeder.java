@@ -0,0 +1,35 @@
+package cat.altimiras;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Push style parsing: content is fed in chunks as it arrives (i.e. from a socket) and parsed as it is fed, so
+ * TagListeners are notified before the whole content is available.
+ * <p>
+ * A feeder is used for a single parse, and its parser must not be used until endOfInput returns.
+ *
+ * @param <T> result of the parse
+ */
+public interface Feeder<T> {
+
+	/**
+	 * Feeds next chunk of content. Chunk is consumed (position is moved to its limit) and it can be reused once it returns.
+	 * Feeders parsing on an executor block while the parser has too many chunks pending.
+	 *
+	 * @param chunk
+	 * @return true if more content is expected, false if parsing has ended (i.e. a TagListener stopped it) and the
+	 * rest of the content can be discarded
+	 * @throws IOException
+	 */
+	boolean feed(ByteBuffer chunk) throws IOException;
+
+	/**
+	 * No more content will be fed. Waits until parsing ends.
+	 *
+	 * @return result, incomplete if content ended before the document
+	 * @throws IOException
+	 */
+	T endOfInput() throws IOException;
+
+}
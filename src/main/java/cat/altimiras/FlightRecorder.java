@@ -0,0 +1,38 @@
+package cat.altimiras;
+
+/**
+ * Emits Java Flight Recorder events (category SherlockXML) when JFR is available and a recording enables them:
+ * cat.altimiras.Parse for every parse and cat.altimiras.Listener for every TagListener call.
+ * On runtimes without JFR (jdk.jfr) nothing is emitted and event classes are never loaded.
+ */
+public final class FlightRecorder {
+
+	static final boolean AVAILABLE = available();
+
+	private FlightRecorder() {
+	}
+
+	private static boolean available() {
+		try {
+			Class.forName("jdk.jfr.Event", false, FlightRecorder.class.getClassLoader());
+			return true;
+		} catch (ClassNotFoundException | LinkageError e) {
+			return false;
+		}
+	}
+
+	/**
+	 * Notifies listener, recording the call if JFR is enabled
+	 *
+	 * @param listener
+	 * @param tag
+	 * @param value
+	 * @return true parsing must to stop otherwise continues
+	 */
+	public static boolean notify(TagListener listener, String tag, Object value) {
+		if (AVAILABLE) {
+			return ListenerEvent.notify(listener, tag, value);
+		}
+		return listener.notify(tag, value);
+	}
+}
@@ -0,0 +1,45 @@
+package cat.altimiras;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Parsers that can return elements of a list one by one, without building the whole result. Elements are found by
+ * their class, so it is implemented by parsers of classes (WoodStoxObjParserImpl and WoodStoxBinderParserImpl).
+ */
+public interface ListIterable {
+
+	/**
+	 * Iterates over elements of a list contained in content. Every element is returned as soon as it is totally processed
+	 * (on close </..> tag) and it is not added to its list, so memory does not grow with the number of elements.
+	 * Content is consumed while iterating. If content is incomplete, iteration ends with the last available element.
+	 * Parse ends when iterator is drained or closed.
+	 *
+	 * @param content
+	 * @param itemClass class of list elements to iterate
+	 * @param <E>
+	 * @return
+	 * @throws IOException
+	 */
+	<E> CloseableIterator<E> iterate(InputStream content, Class<E> itemClass) throws IOException;
+
+	/**
+	 * Same as iterate, but as a sequential Stream. Closing the stream closes its iterator, so a partially consumed
+	 * stream should be closed (try-with-resources)
+	 *
+	 * @param content
+	 * @param itemClass class of list elements to stream
+	 * @param <E>
+	 * @return
+	 * @throws IOException
+	 */
+	default <E> Stream<E> stream(InputStream content, Class<E> itemClass) throws IOException {
+		CloseableIterator<E> iterator = iterate(content, itemClass);
+		return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED | Spliterator.NONNULL), false)
+				.onClose(iterator::close);
+	}
+}
@@ -0,0 +1,47 @@
+package cat.altimiras;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * JFR event of a TagListener call, only slow ones by default (threshold). Only loaded when JFR is available, see FlightRecorder.
+ */
+@Name("cat.altimiras.Listener")
+@Label("TagListener")
+@Category("SherlockXML")
+@Description("TagListener notified when its tag is closed")
+@StackTrace(false)
+@Threshold("1 ms")
+final class ListenerEvent extends jdk.jfr.Event {
+
+	@Label("Tag")
+	String tag;
+
+	@Label("Listener")
+	Class<?> listener;
+
+	@Label("Stop")
+	@Description("Listener asked to stop parsing")
+	boolean stop;
+
+	static boolean notify(TagListener listener, String tag, Object value) {
+		ListenerEvent event = new ListenerEvent();
+		if (!event.isEnabled()) {
+			return listener.notify(tag, value);
+		}
+		event.begin();
+		boolean stop = listener.notify(tag, value);
+		event.end();
+		if (event.shouldCommit()) {
+			event.tag = tag;
+			event.listener = listener.getClass();
+			event.stop = stop;
+			event.commit();
+		}
+		return stop;
+	}
+}
@@ -0,0 +1,82 @@
+package cat.altimiras;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * InputStream over a memory mapped file. File content is read from the mapped region, it is never copied fully to heap.
+ * Files bigger than a single mapping (2GB) are mapped region by region.
+ */
+class MappedFileInputStream extends InputStream {
+
+	private static final long REGION_SIZE = Integer.MAX_VALUE;
+
+	private final FileChannel channel;
+	private final long size;
+
+	/**
+	 * File offset where next region starts
+	 */
+	private long position = 0;
+	private MappedByteBuffer region;
+
+	MappedFileInputStream(Path path) throws IOException {
+		this.channel = FileChannel.open(path, StandardOpenOption.READ);
+		this.size = channel.size();
+	}
+
+	@Override
+	public int read() throws IOException {
+		if (!nextRegionIfNeeded()) {
+			return -1;
+		}
+		return region.get() & 0xff;
+	}
+
+	@Override
+	public int read(byte[] b, int off, int len) throws IOException {
+		if (len == 0) {
+			return 0;
+		}
+		if (!nextRegionIfNeeded()) {
+			return -1;
+		}
+		int n = Math.min(len, region.remaining());
+		region.get(b, off, n);
+		return n;
+	}
+
+	@Override
+	public int available() {
+		return region == null ? 0 : region.remaining();
+	}
+
+	@Override
+	public void close() throws IOException {
+		region = null;
+		channel.close();
+	}
+
+	/**
+	 * Maps next file region when the current one has been totally consumed
+	 *
+	 * @return false if there is no more content
+	 * @throws IOException
+	 */
+	private boolean nextRegionIfNeeded() throws IOException {
+		if (region != null && region.hasRemaining()) {
+			return true;
+		}
+		if (position >= size) {
+			return false;
+		}
+		long length = Math.min(REGION_SIZE, size - position);
+		region = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+		position += length;
+		return true;
+	}
+}
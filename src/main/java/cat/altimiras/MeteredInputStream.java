@@ -0,0 +1,48 @@
+package cat.altimiras;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Counts bytes read on the stats of the current parse
+ */
+class MeteredInputStream extends FilterInputStream {
+
+	private final ParseStats stats;
+
+	MeteredInputStream(InputStream in, ParseStats stats) {
+		super(in);
+		this.stats = stats;
+	}
+
+	@Override
+	public int read() throws IOException {
+		int b = super.read();
+		if (b != -1) {
+			stats.bytes++;
+		}
+		return b;
+	}
+
+	@Override
+	public int read(byte[] b, int off, int len) throws IOException {
+		int read = super.read(b, off, len);
+		if (read > 0) {
+			stats.bytes += read;
+		}
+		return read;
+	}
+
+	@Override
+	public long skip(long n) throws IOException {
+		long skipped = super.skip(n);
+		stats.bytes += skipped;
+		return skipped;
+	}
+
+	@Override
+	public boolean markSupported() {
+		return false;
+	}
+}
@@ -0,0 +1,48 @@
+package cat.altimiras;
+
+import java.io.FilterReader;
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Counts chars read on the stats of the current parse
+ */
+class MeteredReader extends FilterReader {
+
+	private final ParseStats stats;
+
+	MeteredReader(Reader in, ParseStats stats) {
+		super(in);
+		this.stats = stats;
+	}
+
+	@Override
+	public int read() throws IOException {
+		int c = super.read();
+		if (c != -1) {
+			stats.bytes++;
+		}
+		return c;
+	}
+
+	@Override
+	public int read(char[] cbuf, int off, int len) throws IOException {
+		int read = super.read(cbuf, off, len);
+		if (read > 0) {
+			stats.bytes += read;
+		}
+		return read;
+	}
+
+	@Override
+	public long skip(long n) throws IOException {
+		long skipped = super.skip(n);
+		stats.bytes += skipped;
+		return skipped;
+	}
+
+	@Override
+	public boolean markSupported() {
+		return false;
+	}
+}
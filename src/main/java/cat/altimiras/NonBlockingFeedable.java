@@ -0,0 +1,20 @@
+package cat.altimiras;
+
+import java.io.IOException;
+
+/**
+ * Parsers that can be advanced by the thread feeding the content, without blocking it while content arrives. It is
+ * implemented by JSONMapParserImpl. Any parser can be fed through Parser.feeder(executor), parsing on the executor.
+ *
+ * @param <T> result of the parse
+ */
+public interface NonBlockingFeedable<T> {
+
+	/**
+	 * Starts a push style parse advanced by the thread feeding the content
+	 *
+	 * @return feeder of a new parse
+	 * @throws IOException
+	 */
+	Feeder<T> feeder() throws IOException;
+}
@@ -0,0 +1,69 @@
+package cat.altimiras;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event of a whole parse, from content opened until result is returned (or iteration ends).
+ * Only loaded when JFR is available, see FlightRecorder.
+ */
+@Name("cat.altimiras.Parse")
+@Label("Parse")
+@Category("SherlockXML")
+@Description("Document parsed, with its size and outcome")
+@StackTrace(false)
+final class ParseEvent extends jdk.jfr.Event {
+
+	@Label("Parser")
+	String parser;
+
+	@Label("Size")
+	@Description("Bytes read. Chars when content is a Reader, or a String for json")
+	@DataAmount
+	long bytes;
+
+	@Label("Events")
+	long events;
+
+	@Label("Bound")
+	long bound;
+
+	@Label("Skipped")
+	long skipped;
+
+	@Label("Incomplete")
+	boolean incomplete;
+
+	@Label("Stopped")
+	boolean stopped;
+
+	/**
+	 * @return a began event, null if the event is not enabled in any recording
+	 */
+	static ParseEvent start() {
+		ParseEvent event = new ParseEvent();
+		if (!event.isEnabled()) {
+			return null;
+		}
+		event.begin();
+		return event;
+	}
+
+	void finish(String parser, ParseStats stats) {
+		end();
+		if (shouldCommit()) {
+			this.parser = parser;
+			this.bytes = stats.bytes;
+			this.events = stats.events;
+			this.bound = stats.bound;
+			this.skipped = stats.skipped;
+			this.incomplete = stats.incomplete;
+			this.stopped = stats.stopped;
+			commit();
+		}
+	}
+}
@@ -0,0 +1,14 @@
+package cat.altimiras;
+
+
+public interface ParseMetrics {
+
+	/**
+	 * Called when a parse finishes (or the iteration ends), even if it fails.
+	 * Stats instance is reused by the parser for next parse, copy values if they must be kept.
+	 *
+	 * @param stats of the finished parse
+	 */
+	void record(ParseStats stats);
+
+}
@@ -0,0 +1,83 @@
+package cat.altimiras;
+
+/**
+ * Statistics of a single parse, reported to ParseMetrics
+ */
+public final class ParseStats {
+
+	long bytes;
+	long events;
+	long bound;
+	long skipped;
+	long nanos;
+	boolean incomplete;
+	boolean stopped;
+
+	ParseStats() {
+	}
+
+	void reset() {
+		bytes = 0;
+		events = 0;
+		bound = 0;
+		skipped = 0;
+		nanos = 0;
+		incomplete = false;
+		stopped = false;
+	}
+
+	/**
+	 * @return bytes read. Chars when content is a Reader, or a String for json
+	 */
+	public long getBytes() {
+		return bytes;
+	}
+
+	/**
+	 * @return StAX or Jackson events processed by the parser
+	 */
+	public long getEvents() {
+		return events;
+	}
+
+	/**
+	 * @return elements and attributes set to the result
+	 */
+	public long getBound() {
+		return bound;
+	}
+
+	/**
+	 * @return elements skipped without processing their content because they are not mapped
+	 */
+	public long getSkipped() {
+		return skipped;
+	}
+
+	/**
+	 * @return wall time of the parse
+	 */
+	public long getNanos() {
+		return nanos;
+	}
+
+	/**
+	 * @return true if content was incomplete or corrupted and the result is partial
+	 */
+	public boolean isIncomplete() {
+		return incomplete;
+	}
+
+	/**
+	 * @return true if a TagListener stopped the parse before the end of the content
+	 */
+	public boolean isStopped() {
+		return stopped;
+	}
+
+	@Override
+	public String toString() {
+		return "ParseStats{bytes=" + bytes + ", events=" + events + ", bound=" + bound + ", skipped=" + skipped
+				+ ", nanos=" + nanos + ", incomplete=" + incomplete + ", stopped=" + stopped + '}';
+	}
+}
@@ -1,9 +1,16 @@
 package cat.altimiras;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
 import java.nio.charset.Charset;
+import java.nio.file.Path;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Executor;
 
 public abstract class Parser<T> {
 
@@ -14,6 +21,38 @@ public abstract class Parser<T> {
 	 */
 	protected Map<String, TagListener> listeners = null;
 
+	/**
+	 * Listeners registered by path. Null if there is none.
+	 */
+	protected PathListeners pathListeners = null;
+
+	/**
+	 * BatchListeners by tag. Null if there is none.
+	 */
+	protected Batches batches = null;
+
+	/**
+	 * Notifies listeners registered after it asynchronously. Null if listeners are notified by the parsing thread.
+	 */
+	protected AsyncDispatcher dispatcher = null;
+
+	/**
+	 * Receives stats of every parse. Null when metrics are disabled.
+	 */
+	private ParseMetrics metrics = null;
+
+	/**
+	 * JFR event of current parse. Null when JFR is not available or not recording.
+	 */
+	private ParseEvent event = null;
+
+	/**
+	 * True while a parse is measured, for metrics or JFR. Otherwise nothing is measured.
+	 */
+	private boolean measuring = false;
+	private ParseStats stats = null;
+	private long begin;
+
 	/**
 	 * Parses a unparsed to T
 	 *
@@ -28,7 +67,72 @@ public abstract class Parser<T> {
 	public abstract T parse(byte[] content) throws IOException;
 
 	/**
-	 * Register a TagListener to content tag
+	 * Parses content read from a stream. Stream is consumed as parsing goes, it is not loaded fully in memory.
+	 * Stream is not closed, caller owns it.
+	 *
+	 * @param content
+	 * @return
+	 * @throws IOException
+	 */
+	public abstract T parse(InputStream content) throws IOException;
+
+	/**
+	 * Parses content read from a reader. Reader is consumed as parsing goes, it is not loaded fully in memory.
+	 * Reader is not closed, caller owns it.
+	 *
+	 * @param content
+	 * @return
+	 * @throws IOException
+	 */
+	public abstract T parse(Reader content) throws IOException;
+
+	/**
+	 * Parses content read from a channel. Channel is not closed, caller owns it.
+	 *
+	 * @param content
+	 * @return
+	 * @throws IOException
+	 */
+	public T parse(ReadableByteChannel content) throws IOException {
+		if (content == null) {
+			throw new NullPointerException();
+		}
+		return parse(Channels.newInputStream(content));
+	}
+
+	/**
+	 * Parses a file. File is memory mapped and read from the mapped region, so it is not copied to heap before parsing.
+	 *
+	 * @param content path to the file
+	 * @return
+	 * @throws IOException
+	 */
+	public T parse(Path content) throws IOException {
+		if (content == null) {
+			throw new NullPointerException();
+		}
+		try (InputStream in = new MappedFileInputStream(content)) {
+			return parse(in);
+		}
+	}
+
+	/**
+	 * Starts a push style parse. Parsers that can not be advanced by the feeding thread (not NonBlockingFeedable) parse
+	 * on executor, reading content as it is fed, so TagListeners are notified on the executor. Feeding blocks while 16
+	 * chunks are waiting to be parsed.
+	 *
+	 * @param executor where parsing runs, it uses a thread until parsing ends. It must not run tasks on the calling
+	 *                 thread (i.e. Runnable::run or CallerRunsPolicy), IllegalArgumentException is thrown then
+	 * @return feeder of a new parse
+	 * @throws IOException
+	 */
+	public Feeder<T> feeder(Executor executor) throws IOException {
+		return new StreamFeeder<>(this, executor);
+	}
+
+	/**
+	 * Register a TagListener to content tag. Tag can be a path, absolute (/order/lines/line/id) or relative to any depth
+	 * (line/id), then listener is only notified for elements on that path.
 	 *
 	 * @param tag
 	 * @param listener
@@ -36,9 +140,212 @@ public abstract class Parser<T> {
 	//public abstract void register(String tag, TagListener listener);
 	//@Override
 	public void register(String tag, TagListener listener) {
+		listener = dispatched(listener);
+		if (PathListeners.isPath(tag)) {
+			if (this.pathListeners == null) {
+				this.pathListeners = new PathListeners();
+			}
+			pathListeners.add(tag, listener);
+			return;
+		}
 		if (this.listeners == null) {
 			this.listeners = new HashMap<>();
 		}
 		listeners.put(tag, listener);
 	}
+
+	/**
+	 * Register a BatchListener to content tag. Values of closed tags are delivered in chunks of batchSize, or smaller
+	 * when their parent is closed or parsing ends (completed, incomplete or stopped). Tag must be a name, not a path.
+	 *
+	 * @param tag
+	 * @param listener
+	 * @param batchSize values of every chunk
+	 */
+	public void register(String tag, BatchListener listener, int batchSize) {
+		if (listener == null) {
+			throw new NullPointerException();
+		}
+		if (batchSize < 1) {
+			throw new IllegalArgumentException("batchSize must be positive");
+		}
+		if (PathListeners.isPath(tag)) {
+			throw new IllegalArgumentException("BatchListeners are registered by tag name: " + tag);
+		}
+		if (this.batches == null) {
+			this.batches = new Batches();
+		}
+		batches.add(tag, dispatched((t, values) -> listener.notify(t, (List<Object>) values)), batchSize);
+	}
+
+	/**
+	 * Listeners registered after it are notified asynchronously by dispatcher. Null to notify them on the parsing thread.
+	 * A dispatcher must not be shared by several parsers.
+	 *
+	 * @param dispatcher
+	 */
+	public void setAsyncDispatcher(AsyncDispatcher dispatcher) {
+		this.dispatcher = dispatcher;
+	}
+
+	/**
+	 * Gives listeners, dispatcher and metrics of this parser to other, for parsers delegating their parses to another one
+	 *
+	 * @param other
+	 */
+	protected void copyTo(Parser<?> other) {
+		other.listeners = listeners;
+		other.pathListeners = pathListeners;
+		other.batches = batches;
+		other.dispatcher = dispatcher;
+		other.metrics = metrics;
+	}
+
+	/**
+	 * @return listener to register, wrapped if listeners are notified asynchronously
+	 */
+	protected TagListener dispatched(TagListener listener) {
+		return dispatcher == null ? listener : dispatcher.wrap(listener);
+	}
+
+	/**
+	 * @return true if an asynchronous listener asked to stop current parse
+	 */
+	protected boolean isCancelled() {
+		return dispatcher != null && dispatcher.isCancelled();
+	}
+
+	/**
+	 * Set a ParseMetrics to be called after every parse with its stats. Null disables metrics.
+	 *
+	 * @param metrics
+	 */
+	public void setMetrics(ParseMetrics metrics) {
+		this.metrics = metrics;
+	}
+
+	/**
+	 * Starts a parse: measuring, if metrics are enabled or JFR is recording, and asynchronous listeners.
+	 * Must be called before content is metered.
+	 */
+	protected void beginParse() {
+		if (dispatcher != null) {
+			dispatcher.reset();
+		}
+		if (batches != null) {
+			batches.reset();
+		}
+		event = FlightRecorder.AVAILABLE ? ParseEvent.start() : null;
+		measuring = metrics != null || event != null;
+		if (measuring) {
+			if (stats == null) {
+				stats = new ParseStats();
+			}
+			stats.reset();
+			begin = System.nanoTime();
+		}
+	}
+
+	/**
+	 * @return content counting bytes read if current parse is measured, same content otherwise
+	 */
+	protected InputStream meter(InputStream content) {
+		return measuring ? new MeteredInputStream(content, stats) : content;
+	}
+
+	/**
+	 * @return content counting chars read if current parse is measured, same content otherwise
+	 */
+	protected Reader meter(Reader content) {
+		return measuring ? new MeteredReader(content, stats) : content;
+	}
+
+	/**
+	 * Adds bytes read when content is not read through a metered stream
+	 *
+	 * @param bytes
+	 */
+	protected void meterBytes(long bytes) {
+		if (measuring) {
+			stats.bytes += bytes;
+		}
+	}
+
+	/**
+	 * Adds bytes of content given as text: the length of its UTF-8 encoding, computed without encoding it
+	 *
+	 * @param text
+	 */
+	protected void meterBytes(CharSequence text) {
+		if (measuring) {
+			long bytes = 0;
+			for (int i = 0, length = text.length(); i < length; i++) {
+				char c = text.charAt(i);
+				if (c < 0x80) {
+					bytes++;
+				} else if (c < 0x800) {
+					bytes += 2;
+				} else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(text.charAt(i + 1))) {
+					bytes += 4;
+					i++;
+				} else {
+					bytes += 3;
+				}
+			}
+			stats.bytes += bytes;
+		}
+	}
+
+	/**
+	 * Finishes a parse: flushes pending batches, waits for asynchronous listeners and reports measures
+	 *
+	 * @param events     StAX or Jackson events processed
+	 * @param bound      elements and attributes set to the result
+	 * @param skipped    elements skipped
+	 * @param incomplete result is partial
+	 * @param stopped    a TagListener stopped the parse
+	 */
+	protected void endParse(long events, long bound, long skipped, boolean incomplete, boolean stopped) {
+		RuntimeException listenerError = null;
+		if (batches != null) {
+			try {
+				stopped |= batches.flush();
+			} catch (RuntimeException e) {
+				listenerError = e;
+			}
+		}
+		if (dispatcher != null) {
+			try {
+				dispatcher.await();
+			} catch (RuntimeException e) {
+				if (listenerError == null) {
+					listenerError = e;
+				}
+			}
+			stopped |= dispatcher.isCancelled();
+		}
+		if (measuring) {
+			measuring = false;
+			stats.nanos = System.nanoTime() - begin;
+			stats.events = events;
+			stats.bound = bound;
+			stats.skipped = skipped;
+			stats.incomplete = incomplete;
+			stats.stopped = stopped;
+			if (event != null) {
+				event.finish(getClass().getSimpleName(), stats);
+				event = null;
+			}
+			if (metrics != null) {
+				try {
+					metrics.record(stats);
+				} catch (RuntimeException e) {
+					//metrics must never break parsing
+				}
+			}
+		}
+		if (listenerError != null) {
+			throw listenerError;
+		}
+	}
 }
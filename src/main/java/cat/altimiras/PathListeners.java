@@ -0,0 +1,125 @@
+package cat.altimiras;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * TagListeners registered by path: absolute (/order/lines/line/id) or relative (line/id, at any depth).
+ * <p>
+ * Paths are compiled to a PathQuery automaton and the parser keeps the state of every opened element, so only elements
+ * on a registered path are notified. Every element costs a name id lookup and an array read, no listener lookup.
+ * A relative path can begin at any element, so with relative paths no state is DEAD and all elements are followed.
+ * Not thread safe, one per parser.
+ */
+public final class PathListeners {
+
+	private final Map<String, TagListener> listeners = new LinkedHashMap<>();
+
+	private PathQuery query = null;
+	private TagListener[][] byState;
+	private String[][] pathsByState;
+
+	/**
+	 * States of the elements opened and still not closed
+	 */
+	private int[] states = new int[16];
+	private int depth = 0;
+
+	PathListeners() {
+	}
+
+	/**
+	 * @return true if tag is a path (contains '/'), not just a tag name
+	 */
+	public static boolean isPath(String tag) {
+		return tag.indexOf('/') >= 0;
+	}
+
+	void add(String path, TagListener listener) {
+		//fails fast if path is not valid
+		PathQuery.compileRelative(path);
+		listeners.put(path, listener);
+		query = null;
+	}
+
+	private void compile() {
+		String[] paths = listeners.keySet().toArray(new String[0]);
+		TagListener[] values = listeners.values().toArray(new TagListener[0]);
+		query = PathQuery.compileRelative(paths);
+
+		byState = new TagListener[query.states()][];
+		pathsByState = new String[query.states()][];
+		for (int s = 0; s < byState.length; s++) {
+			int[] ends = query.ends(s);
+			byState[s] = new TagListener[ends.length];
+			pathsByState[s] = new String[ends.length];
+			for (int i = 0; i < ends.length; i++) {
+				byState[s][i] = values[ends[i]];
+				pathsByState[s][i] = paths[ends[i]];
+			}
+		}
+	}
+
+	/**
+	 * Must be called before every parse
+	 */
+	public void reset() {
+		if (query == null) {
+			compile();
+		}
+		depth = 0;
+		states[0] = query.start();
+	}
+
+	/**
+	 * An element (or key) is opened
+	 *
+	 * @param name
+	 */
+	public void open(String name) {
+		int current = states[depth];
+		int next = current == PathQuery.DEAD ? PathQuery.DEAD : query.next(current, name);
+		depth++;
+		if (depth == states.length) {
+			int[] grown = new int[states.length * 2];
+			System.arraycopy(states, 0, grown, 0, states.length);
+			states = grown;
+		}
+		states[depth] = next;
+	}
+
+	/**
+	 * @return true if a listener is registered for the path of the current element, so its value is needed on close
+	 */
+	public boolean isListened() {
+		int current = states[depth];
+		return current != PathQuery.DEAD && byState[current].length > 0;
+	}
+
+	/**
+	 * Current element is closed without notifying listeners
+	 */
+	public void close() {
+		if (depth > 0) {
+			depth--;
+		}
+	}
+
+	/**
+	 * Current element is closed, listeners registered for its path are notified
+	 *
+	 * @param value of the element
+	 * @return true if a listener asked to stop parsing
+	 */
+	public boolean close(Object value) {
+		boolean stop = false;
+		if (isListened()) {
+			int current = states[depth];
+			for (int i = 0; i < byState[current].length; i++) {
+				stop |= FlightRecorder.notify(byState[current][i], pathsByState[current][i], value);
+			}
+		}
+		close();
+		return stop;
+	}
+}
@@ -0,0 +1,491 @@
+package cat.altimiras;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Set of simple paths compiled to a deterministic automaton evaluated on the event stream of a parser.
+ * <p>
+ * Paths are absolute, segments separated by '/': /root/object/value. A segment can be '*' to match any element,
+ * and the last one can be an attribute: /root/object/@id (only XML). Every path gets its first match, so the parser
+ * can skip subtrees that do not lead to a pending path, and stop reading as soon as all paths are matched.
+ * <p>
+ * Immutable and thread safe, compile it once and reuse it.
+ */
+public final class PathQuery {
+
+	/**
+	 * State without any path ahead
+	 */
+	public static final int DEAD = -1;
+
+	private final String[] paths;
+
+	/**
+	 * Names found in paths, shared by all states
+	 */
+	private final NameTable names;
+
+	//per state, transitions are indexed by name id
+	private final int[][] transitions;
+	private final int[] others;
+	private final int[][] matches;
+	private final String[][] attributeNames;
+	private final int[][] attributePaths;
+	private final BitSet[] reachable;
+
+	private final boolean attributes;
+
+	private PathQuery(String[] paths, Node root, Node anywhere) {
+		this.paths = paths;
+
+		//subset construction, every state is a set of trie nodes
+		Map<Set<Node>, Integer> ids = new HashMap<>();
+		List<Set<Node>> states = new ArrayList<>();
+		List<Map<String, Integer>> transitions = new ArrayList<>();
+		List<Integer> others = new ArrayList<>();
+
+		Set<Node> start = new LinkedHashSet<>(Collections.singleton(root));
+		if (anywhere != null) {
+			start.add(anywhere);
+		}
+		ids.put(start, 0);
+		states.add(start);
+		for (int s = 0; s < states.size(); s++) {
+			Set<Node> current = states.get(s);
+
+			Set<String> names = new LinkedHashSet<>();
+			Set<Node> wildcard = new LinkedHashSet<>();
+			if (anywhere != null) {
+				//relative paths can begin at any element
+				wildcard.add(anywhere);
+			}
+			for (Node node : current) {
+				names.addAll(node.children.keySet());
+				if (node.wildcard != null) {
+					wildcard.add(node.wildcard);
+				}
+			}
+
+			Map<String, Integer> byName = new HashMap<>();
+			for (String name : names) {
+				Set<Node> next = new LinkedHashSet<>(wildcard);
+				for (Node node : current) {
+					Node child = node.children.get(name);
+					if (child != null) {
+						next.add(child);
+					}
+				}
+				byName.put(name, id(next, ids, states));
+			}
+			transitions.add(byName);
+			others.add(wildcard.isEmpty() ? DEAD : id(wildcard, ids, states));
+		}
+
+		Set<String> allNames = new LinkedHashSet<>();
+		for (Map<String, Integer> byName : transitions) {
+			allNames.addAll(byName.keySet());
+		}
+		this.names = new NameTable(allNames.toArray(new String[0]));
+
+		int size = states.size();
+		this.transitions = new int[size][];
+		this.others = new int[size];
+		this.matches = new int[size][];
+		this.attributeNames = new String[size][];
+		this.attributePaths = new int[size][];
+		this.reachable = new BitSet[size];
+
+		boolean withAttributes = false;
+		for (int s = 0; s < size; s++) {
+			this.others[s] = others.get(s);
+			this.transitions[s] = new int[names.size()];
+			Arrays.fill(this.transitions[s], this.others[s]);
+			for (Map.Entry<String, Integer> transition : transitions.get(s).entrySet()) {
+				this.transitions[s][names.id(transition.getKey())] = transition.getValue();
+			}
+
+			List<Integer> ends = new ArrayList<>();
+			List<String> attNames = new ArrayList<>();
+			List<Integer> attPaths = new ArrayList<>();
+			reachable[s] = new BitSet(paths.length);
+			for (Node node : states.get(s)) {
+				ends.addAll(node.ends);
+				attNames.addAll(node.attributeNames);
+				attPaths.addAll(node.attributePaths);
+			}
+			matches[s] = toArray(ends);
+			attributeNames[s] = attNames.toArray(new String[0]);
+			attributePaths[s] = toArray(attPaths);
+			for (int path : matches[s]) {
+				reachable[s].set(path);
+			}
+			for (int path : attributePaths[s]) {
+				reachable[s].set(path);
+			}
+			withAttributes |= !attNames.isEmpty();
+		}
+		this.attributes = withAttributes;
+
+		//paths reachable from every state, until nothing changes
+		boolean changed = true;
+		while (changed) {
+			changed = false;
+			for (int s = 0; s < size; s++) {
+				int before = reachable[s].cardinality();
+				for (int next : this.transitions[s]) {
+					if (next != DEAD) {
+						reachable[s].or(reachable[next]);
+					}
+				}
+				if (this.others[s] != DEAD) {
+					reachable[s].or(reachable[this.others[s]]);
+				}
+				changed |= reachable[s].cardinality() != before;
+			}
+		}
+	}
+
+	private static int id(Set<Node> state, Map<Set<Node>, Integer> ids, List<Set<Node>> states) {
+		Integer id = ids.get(state);
+		if (id == null) {
+			id = states.size();
+			ids.put(state, id);
+			states.add(state);
+		}
+		return id;
+	}
+
+	private static int[] toArray(List<Integer> list) {
+		int[] array = new int[list.size()];
+		for (int i = 0; i < array.length; i++) {
+			array[i] = list.get(i);
+		}
+		return array;
+	}
+
+	/**
+	 * @param paths to query
+	 * @return compiled query
+	 * @throws IllegalArgumentException if a path is not supported
+	 */
+	public static PathQuery compile(String... paths) {
+		return compile(paths, false);
+	}
+
+	/**
+	 * Paths without a leading '/' are relative, they match at any depth (suffix of the path of an element).
+	 * Attributes are not allowed.
+	 */
+	static PathQuery compileRelative(String... paths) {
+		return compile(paths, true);
+	}
+
+	private static PathQuery compile(String[] paths, boolean relative) {
+		if (paths == null || paths.length == 0) {
+			throw new IllegalArgumentException("At least one path is needed");
+		}
+
+		Node root = new Node();
+		Node anywhere = relative ? new Node() : null;
+		for (int i = 0; i < paths.length; i++) {
+			String path = paths[i];
+			boolean absolute = path != null && path.startsWith("/");
+			if (path == null || (!absolute && !relative) || path.length() == 1) {
+				throw new IllegalArgumentException("Path must be absolute: " + path);
+			}
+			String[] segments = (absolute ? path.substring(1) : path).split("/", -1);
+			Node node = absolute ? root : anywhere;
+			for (int j = 0; j < segments.length; j++) {
+				String segment = segments[j];
+				if (segment.isEmpty()) {
+					throw new IllegalArgumentException("Empty segment, descendant axis is not supported: " + path);
+				}
+				if (segment.startsWith("@") && relative) {
+					throw new IllegalArgumentException("Attributes are not supported: " + path);
+				} else if (segment.startsWith("@")) {
+					if (j != segments.length - 1 || j == 0 || segment.length() == 1 || segment.equals("@*")) {
+						throw new IllegalArgumentException("Attribute must be the last segment of a path: " + path);
+					}
+					node.attributeNames.add(segment.substring(1).intern());
+					node.attributePaths.add(i);
+				} else if (segment.equals("*")) {
+					if (node.wildcard == null) {
+						node.wildcard = new Node();
+					}
+					node = node.wildcard;
+				} else {
+					node = node.children.computeIfAbsent(segment.intern(), k -> new Node());
+				}
+			}
+			if (!segments[segments.length - 1].startsWith("@")) {
+				node.ends.add(i);
+			}
+		}
+		return new PathQuery(paths.clone(), root, anywhere);
+	}
+
+	/**
+	 * @return number of paths
+	 */
+	public int size() {
+		return paths.length;
+	}
+
+	public String path(int index) {
+		return paths[index];
+	}
+
+	/**
+	 * @return true if any path ends in an attribute
+	 */
+	public boolean hasAttributes() {
+		return attributes;
+	}
+
+	/**
+	 * @return state before the root element
+	 */
+	public int start() {
+		return 0;
+	}
+
+	/**
+	 * @param state current state
+	 * @param name  of the element (or key) opened
+	 * @return state inside the element, DEAD if no path goes through it
+	 */
+	public int next(int state, String name) {
+		int id = names.id(name);
+		return id < 0 ? others[state] : transitions[state][id];
+	}
+
+	/**
+	 * @return number of states of the automaton
+	 */
+	int states() {
+		return matches.length;
+	}
+
+	/**
+	 * @return paths ending at this state, do not modify it
+	 */
+	int[] ends(int state) {
+		return matches[state];
+	}
+
+	/**
+	 * @return number of attribute paths ending at this state
+	 */
+	public int attributes(int state) {
+		return attributeNames[state].length;
+	}
+
+	public String attributeName(int state, int index) {
+		return attributeNames[state][index];
+	}
+
+	/**
+	 * @return new evaluation of this query, for a single parse
+	 */
+	public Matches newMatches(Map<String, TagListener> listeners) {
+		return new Matches(listeners);
+	}
+
+	/**
+	 * Open addressing table from name to id, names of paths are few and interned, so a lookup is usually a single
+	 * reference comparison without allocations
+	 */
+	private static final class NameTable {
+
+		private final String[] keys;
+		private final int[] ids;
+		private final int mask;
+		private final int size;
+
+		private NameTable(String[] names) {
+			int capacity = Integer.highestOneBit(names.length * 2 + 1) << 1;
+			keys = new String[capacity];
+			ids = new int[capacity];
+			mask = capacity - 1;
+			size = names.length;
+			for (int id = 0; id < names.length; id++) {
+				int i = slot(names[id]);
+				while (keys[i] != null) {
+					i = (i + 1) & mask;
+				}
+				keys[i] = names[id];
+				ids[i] = id;
+			}
+		}
+
+		private int slot(String name) {
+			int h = name.hashCode();
+			return (h ^ (h >>> 16)) & mask;
+		}
+
+		/**
+		 * @return id of name, -1 if no path contains it
+		 */
+		private int id(String name) {
+			for (int i = slot(name); ; i = (i + 1) & mask) {
+				String key = keys[i];
+				if (key == null) {
+					return -1;
+				}
+				if (key == name || key.equals(name)) {
+					return ids[i];
+				}
+			}
+		}
+
+		private int size() {
+			return size;
+		}
+	}
+
+	private static final class Node {
+		private final Map<String, Node> children = new LinkedHashMap<>();
+		private Node wildcard;
+		private final List<Integer> ends = new ArrayList<>();
+		private final List<String> attributeNames = new ArrayList<>();
+		private final List<Integer> attributePaths = new ArrayList<>();
+	}
+
+	/**
+	 * Values matched during a parse. TagListeners registered to a path are notified when it is matched.
+	 */
+	public final class Matches {
+
+		private final Object[] values = new Object[paths.length];
+		private final BitSet pending = new BitSet(paths.length);
+		private final Map<String, TagListener> listeners;
+		private boolean stop = false;
+
+		private Matches(Map<String, TagListener> listeners) {
+			this.listeners = listeners;
+			pending.set(0, paths.length);
+		}
+
+		/**
+		 * @return true if the element at state must be read, false if it can be skipped
+		 */
+		public boolean wants(int state) {
+			return state != DEAD && reachable[state].intersects(pending);
+		}
+
+		/**
+		 * @return true if a path ends at state still not matched, then its value must be materialized
+		 */
+		public boolean matches(int state) {
+			for (int path : matches[state]) {
+				if (pending.get(path)) {
+					return true;
+				}
+			}
+			return false;
+		}
+
+		/**
+		 * Sets value to pending paths ending at state and to pending paths below it found inside value
+		 *
+		 * @param state of the materialized element
+		 * @param value materialized: String, Map, List or json scalar
+		 */
+		public void match(int state, Object value) {
+			for (int path : matches[state]) {
+				set(path, value);
+			}
+			if (value instanceof Map) {
+				Map map = (Map) value;
+				for (int i = 0; i < attributeNames[state].length; i++) {
+					Object attribute = map.get(attributeNames[state][i]);
+					if (attribute != null) {
+						set(attributePaths[state][i], attribute);
+					}
+				}
+				for (Object e : map.entrySet()) {
+					Map.Entry entry = (Map.Entry) e;
+					int next = next(state, String.valueOf(entry.getKey()));
+					if (wants(next)) {
+						matchAll(next, entry.getValue());
+					}
+				}
+			} else if (value instanceof List) {
+				//list elements are values of the same element (or key)
+				for (Object item : (List) value) {
+					match(state, item);
+				}
+			}
+		}
+
+		private void matchAll(int state, Object value) {
+			if (value instanceof List) {
+				for (Object item : (List) value) {
+					match(state, item);
+				}
+			} else {
+				match(state, value);
+			}
+		}
+
+		/**
+		 * Sets value of attribute index of state, if it is pending
+		 */
+		public void matchAttribute(int state, int index, String value) {
+			set(attributePaths[state][index], value);
+		}
+
+		private void set(int path, Object value) {
+			if (pending.get(path)) {
+				pending.clear(path);
+				values[path] = value;
+				if (listeners != null) {
+					TagListener listener = listeners.get(paths[path]);
+					if (listener != null && FlightRecorder.notify(listener, paths[path], value)) {
+						stop = true;
+					}
+				}
+			}
+		}
+
+		/**
+		 * @return true if all paths are matched or a listener stopped the parse
+		 */
+		public boolean isDone() {
+			return stop || pending.isEmpty();
+		}
+
+		public boolean isStopped() {
+			return stop;
+		}
+
+		/**
+		 * @return number of paths matched
+		 */
+		public int matched() {
+			return paths.length - pending.cardinality();
+		}
+
+		/**
+		 * @return matched paths and their values, in query order
+		 */
+		public Map<String, Object> toMap() {
+			Map<String, Object> map = new LinkedHashMap<>();
+			for (int i = 0; i < paths.length; i++) {
+				if (!pending.get(i)) {
+					map.put(paths[i], values[i]);
+				}
+			}
+			return map;
+		}
+	}
+}
@@ -0,0 +1,164 @@
+package cat.altimiras;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+
+/**
+ * Feeder for parsers reading blocking streams: parse runs on an executor, reading the chunks as they are fed, so it
+ * keeps a thread of the executor until parsing ends.
+ * Chunks are copied and queued until the parser reads them. When MAX_CHUNKS are queued, feeding blocks until the
+ * parser reads one, so memory is bounded when content arrives faster than it is parsed.
+ */
+class StreamFeeder<T> implements Feeder<T> {
+
+	/**
+	 * Chunks queued before feeding blocks
+	 */
+	static final int MAX_CHUNKS = 16;
+
+	private static final ByteBuffer END = ByteBuffer.allocate(0);
+
+	private final ArrayBlockingQueue<ByteBuffer> chunks = new ArrayBlockingQueue<>(MAX_CHUNKS);
+	private final CompletableFuture<T> result = new CompletableFuture<>();
+	private boolean ended = false;
+
+	/**
+	 * @param parser
+	 * @param executor must run the parse on another thread
+	 * @throws IllegalArgumentException if executor runs the parse on the calling thread, it would wait forever for
+	 *                                  content that can not be fed
+	 */
+	StreamFeeder(Parser<T> parser, Executor executor) {
+		if (executor == null) {
+			throw new NullPointerException();
+		}
+		Thread caller = Thread.currentThread();
+		executor.execute(() -> {
+			if (Thread.currentThread() == caller) {
+				//thrown by execute, parse would wait forever for content not fed yet
+				IllegalArgumentException e = new IllegalArgumentException("Executor must run the parse on another thread");
+				result.completeExceptionally(e);
+				throw e;
+			}
+			try {
+				result.complete(parser.parse(new ChunksInputStream()));
+			} catch (Throwable e) {
+				result.completeExceptionally(e);
+			} finally {
+				//parse has ended, unblocks feeding, queued chunks will never be read
+				chunks.clear();
+			}
+		});
+	}
+
+	@Override
+	public boolean feed(ByteBuffer chunk) throws IOException {
+		if (ended) {
+			throw new IllegalStateException("Input has already ended");
+		}
+		if (result.isDone()) {
+			chunk.position(chunk.limit());
+			return false;
+		}
+		if (chunk.hasRemaining()) {
+			ByteBuffer copy = ByteBuffer.allocate(chunk.remaining());
+			copy.put(chunk);
+			copy.flip();
+			put(copy);
+		}
+		return !result.isDone();
+	}
+
+	/**
+	 * Queues chunk, waiting while queue is full
+	 */
+	private void put(ByteBuffer chunk) throws InterruptedIOException {
+		try {
+			chunks.put(chunk);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException();
+		}
+		if (result.isDone()) {
+			//parse ended while waiting, nobody will read it
+			chunks.clear();
+		}
+	}
+
+	@Override
+	public T endOfInput() throws IOException {
+		if (!ended) {
+			ended = true;
+			if (!result.isDone()) {
+				put(END);
+			}
+		}
+		try {
+			return result.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException();
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof IOException) {
+				throw (IOException) cause;
+			}
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			}
+			if (cause instanceof Error) {
+				throw (Error) cause;
+			}
+			throw new IOException(cause);
+		}
+	}
+
+	/**
+	 * Reads fed chunks, waiting for the next one when all are read
+	 */
+	private class ChunksInputStream extends InputStream {
+
+		private ByteBuffer current = null;
+
+		@Override
+		public int read() throws IOException {
+			byte[] b = new byte[1];
+			return read(b, 0, 1) == -1 ? -1 : b[0] & 0xff;
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) throws IOException {
+			if (len == 0) {
+				return 0;
+			}
+			if (current == END) {
+				return -1;
+			}
+			if (current == null || !current.hasRemaining()) {
+				try {
+					current = chunks.take();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					throw new InterruptedIOException();
+				}
+				if (current == END) {
+					return -1;
+				}
+			}
+			int read = Math.min(len, current.remaining());
+			current.get(b, off, read);
+			return read;
+		}
+
+		@Override
+		public int available() {
+			return current == null || current == END ? 0 : current.remaining();
+		}
+	}
+}
@@ -1,7 +1,11 @@
 package cat.altimiras.json;
 
+import cat.altimiras.ParseMetrics;
 import cat.altimiras.Parser;
+import cat.altimiras.PathQuery;
 import cat.altimiras.json.map.JSONMapParserImpl;
+import cat.altimiras.json.query.JSONQueryParserImpl;
+import cat.altimiras.json.tape.JSONTapeParserImpl;
 
 import java.util.Map;
 
@@ -9,16 +13,64 @@ public class JSONFactory {
 
 	final static public String DEFAULT_INCOMPLETE_KEY_NAME = "_is_incomplete";
 
+	/**
+	 * Set to parsers created after it. Null when metrics are disabled.
+	 */
+	private static volatile ParseMetrics metrics = null;
+
 	public static void init(Class... classes) throws Exception {
 		throw new UnsupportedOperationException("Still not implemented");
 	}
 
+	/**
+	 * Parsers got after it report stats of every parse to metrics. Metrics is shared by all those parsers, so it must be
+	 * thread safe. Null disables metrics.
+	 *
+	 * @param metrics
+	 */
+	public static void setMetrics(ParseMetrics metrics) {
+		JSONFactory.metrics = metrics;
+	}
+
 	public static Parser<Map> getParser(String incompleteKeyName) {
-		return new JSONMapParserImpl(incompleteKeyName);
+		return withMetrics(new JSONMapParserImpl(incompleteKeyName));
 	}
 
 	public static Parser<Map> getParser() {
-		return new JSONMapParserImpl(DEFAULT_INCOMPLETE_KEY_NAME);
+		return withMetrics(new JSONMapParserImpl(DEFAULT_INCOMPLETE_KEY_NAME));
+	}
+
+	/**
+	 * Get a parser returning only values of paths, as a map path -> value. It stops reading as soon as all paths are found.
+	 *
+	 * @param paths absolute paths of keys, i.e. /object/value
+	 * @return
+	 */
+	public static Parser<Map> getQueryParser(String... paths) {
+		return getQueryParser(PathQuery.compile(paths));
+	}
+
+	public static Parser<Map> getQueryParser(PathQuery query) {
+		return withMetrics(new JSONQueryParserImpl(query, DEFAULT_INCOMPLETE_KEY_NAME));
+	}
+
+	/**
+	 * Get a parser recording documents on a Tape: flat arrays instead of an object per value. It returns a read-only
+	 * view of the document, Tape.of(map) gets the tape. Content is the same getParser() returns but for arrays that are
+	 * not values of the root object: the tape keeps them as they are in the document, getParser() does not.
+	 *
+	 * @return
+	 */
+	public static Parser<Map> getTapeParser() {
+		return withMetrics(new JSONTapeParserImpl(DEFAULT_INCOMPLETE_KEY_NAME));
+	}
+
+	private static Parser<Map> withMetrics(Parser<Map> parser) {
+		ParseMetrics current = metrics;
+		if (current != null) {
+			parser.setMetrics(current);
+		}
+		return parser;
 	}
 
 	public static Parser getParser(Class clazz) {
@@ -1,19 +1,32 @@
 package cat.altimiras.json.map;
 
+import cat.altimiras.Feeder;
+import cat.altimiras.NonBlockingFeedable;
 import cat.altimiras.Parser;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteArrayFeeder;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.ByteBuffer;
 import java.nio.charset.Charset;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.Executor;
 
-public class JSONMapParserImpl extends Parser<Map> {
+public class JSONMapParserImpl extends Parser<Map> implements NonBlockingFeedable<Map> {
+
+	/**
+	 * Shared by all parsers, it is thread safe. Parsers drive MapDeserializer with JsonParsers created by it, databind
+	 * is not used.
+	 */
+	private static final JsonFactory JSON_FACTORY = new JsonFactory().disable(JsonParser.Feature.AUTO_CLOSE_SOURCE);
 
 	private final String incompleteKeyName;
-	private ObjectMapper objectMapper = new ObjectMapper();
-	private boolean init = false;
 
 	public JSONMapParserImpl(String incompleteKeyName) {
 		Objects.nonNull(incompleteKeyName);
@@ -22,37 +35,163 @@ public class JSONMapParserImpl extends Parser<Map> {
 
 	@Override
 	public Map parse(String json) throws IOException {
-		if (!init) {
-			configure();
+		if (json == null) {
+			throw new NullPointerException("json can not be null");
 		}
-		return objectMapper.readValue(json, Map.class);
+		beginParse();
+		meterBytes(json);
+		return parse(JSON_FACTORY.createParser(json));
 	}
 
 	@Override
 	public Map parse(String json, Charset charset) throws IOException {
-		if (!init) {
-			configure();
-		}
-		return objectMapper.readValue(json.getBytes(charset), Map.class);
+		return parse(json.getBytes(charset));
 	}
 
 	@Override
 	public Map parse(byte[] json) throws IOException {
-		if (!init) {
-			configure();
+		beginParse();
+		meterBytes(json.length);
+		return parse(JSON_FACTORY.createParser(json));
+	}
+
+	@Override
+	public Map parse(InputStream json) throws IOException {
+		beginParse();
+		JsonParser jsonParser;
+		try {
+			//encoding is detected reading first bytes
+			jsonParser = JSON_FACTORY.createParser(meter(json));
+		} catch (IOException e) {
+			endParse(0, 0, 0, true, false);
+			throw e;
 		}
-		return objectMapper.readValue(json, Map.class);
+		return parse(jsonParser);
+	}
+
+	@Override
+	public Map parse(Reader json) throws IOException {
+		beginParse();
+		return parse(JSON_FACTORY.createParser(meter(json)));
 	}
 
-	private void configure() {
-		if (!init) {
-			SimpleModule module = new SimpleModule();
-			module.addDeserializer(Map.class, new MapDeserializerWrapper(listeners, incompleteKeyName));
-			objectMapper.registerModule(module);
-			init = true;
-		} else {
-			throw new IllegalArgumentException("Not allowed to configure after use");
+	/**
+	 * Content is parsed by the feeding thread as it is fed, with a non-blocking jackson parser
+	 */
+	@Override
+	public Feeder<Map> feeder() throws IOException {
+		return new NonBlockingFeeder();
+	}
+
+	/**
+	 * Same as feeder(), executor is not needed
+	 */
+	@Override
+	public Feeder<Map> feeder(Executor executor) throws IOException {
+		return feeder();
+	}
+
+	private Map parse(JsonParser jsonParser) throws IOException {
+
+		MapDeserializer deserializer = newDeserializer();
+		try {
+			JsonToken token = jsonParser.nextToken();
+			if (token == null) {
+				throw new JsonParseException(jsonParser, "No content to map due to end-of-input");
+			}
+			if (token == JsonToken.VALUE_NULL) {
+				return null;
+			}
+			deserializer.start(jsonParser);
+			deserializer.read(jsonParser);
+			return deserializer.result();
+		} finally {
+			jsonParser.close();
+			endParse(deserializer.getEvents(), deserializer.getBound(), 0, deserializer.isIncomplete(), deserializer.isStopped());
 		}
 	}
 
+	private MapDeserializer newDeserializer() {
+		return new MapDeserializer(listeners, pathListeners, batches, dispatcher, incompleteKeyName);
+	}
+
+	private class NonBlockingFeeder implements Feeder<Map> {
+
+		private final JsonParser jsonParser;
+		private final ByteArrayFeeder input;
+		private final MapDeserializer deserializer;
+
+		private boolean started = false;
+		private boolean more = true;
+		private boolean ended = false;
+
+		private NonBlockingFeeder() throws IOException {
+			jsonParser = JSON_FACTORY.createNonBlockingByteArrayParser();
+			input = (ByteArrayFeeder) jsonParser.getNonBlockingInputFeeder();
+			deserializer = newDeserializer();
+			beginParse();
+		}
+
+		@Override
+		public boolean feed(ByteBuffer chunk) throws IOException {
+			if (ended) {
+				throw new IllegalStateException("Input has already ended");
+			}
+			int length = chunk.remaining();
+			if (!more || length == 0) {
+				chunk.position(chunk.limit());
+				return more;
+			}
+
+			meterBytes(length);
+			if (chunk.hasArray()) {
+				int offset = chunk.arrayOffset() + chunk.position();
+				input.feedInput(chunk.array(), offset, offset + length);
+				chunk.position(chunk.limit());
+			} else {
+				byte[] bytes = new byte[length];
+				chunk.get(bytes);
+				input.feedInput(bytes, 0, length);
+			}
+			//everything fed is parsed before returning, so chunk can be reused
+			advance();
+			return more;
+		}
+
+		private void advance() throws IOException {
+			if (!started) {
+				//until root object starts, content that is not json fails as parse does
+				more = false;
+				JsonToken token = jsonParser.nextToken();
+				if (token == JsonToken.NOT_AVAILABLE) {
+					more = true;
+					return;
+				}
+				if (token == null) {
+					return;
+				}
+				deserializer.start(jsonParser);
+				started = true;
+			}
+			more = deserializer.read(jsonParser);
+		}
+
+		@Override
+		public Map endOfInput() throws IOException {
+			if (ended) {
+				throw new IllegalStateException("Input has already ended");
+			}
+			ended = true;
+			try {
+				input.endOfInput();
+				if (more) {
+					advance();
+				}
+				return started ? deserializer.result() : null;
+			} finally {
+				jsonParser.close();
+				endParse(deserializer.getEvents(), deserializer.getBound(), 0, deserializer.isIncomplete(), deserializer.isStopped());
+			}
+		}
+	}
 }
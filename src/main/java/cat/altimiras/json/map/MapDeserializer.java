@@ -1,20 +1,26 @@
 package cat.altimiras.json.map;
 
+import cat.altimiras.AsyncDispatcher;
+import cat.altimiras.Batches;
+import cat.altimiras.FlightRecorder;
+import cat.altimiras.PathListeners;
 import cat.altimiras.TagListener;
 import com.fasterxml.jackson.core.JsonParser;
-import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.JsonToken;
-import com.fasterxml.jackson.databind.DeserializationContext;
-import com.fasterxml.jackson.databind.JsonDeserializer;
 
 import java.io.IOException;
 import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
-class MapDeserializer extends JsonDeserializer<Map> {
+/**
+ * Builds a map driving a JsonParser: start, read until the end of the content (or until a non-blocking parser needs
+ * more content) and result. It has the state of a single parse.
+ */
+class MapDeserializer {
 
 	final private String incompleteKeyName;
 
@@ -23,6 +29,25 @@ class MapDeserializer extends JsonDeserializer<Map> {
 	 * Listeners for element. Notified every time a tag is totally processed (on close } element)
 	 */
 	private Map<String, TagListener> listeners = null;
+	/**
+	 * Listeners by path, null if there is none. Keys are opened on field name and closed when its value ends.
+	 */
+	private final PathListeners pathListeners;
+	/**
+	 * BatchListeners, null if there is none. Every object and array is an element, scalars are elements opened and
+	 * closed at once. Values of an array are batched one by one with the key of the array.
+	 */
+	private final Batches batches;
+	/**
+	 * Null if listeners are notified synchronously
+	 */
+	private final AsyncDispatcher dispatcher;
+	private boolean pendingKey = false;
+	private int containers = 0;
+	/**
+	 * Objects and arrays opened that are the value of a key (not an element of an array)
+	 */
+	private final BitSet keyed = new BitSet();
 	private Context currentContext;
 	private String currentKey;
 	/**
@@ -30,48 +55,105 @@ class MapDeserializer extends JsonDeserializer<Map> {
 	 */
 
 	private boolean stop = false;
+	/**
+	 * Root object is closed
+	 */
+	private boolean ended = false;
+
+	/**
+	 * Metrics
+	 */
+	private long events = 0;
+	private long bound = 0;
+	private boolean incomplete = false;
 
 
-	public MapDeserializer(Map<String, TagListener> listeners, String incompleteKeyName) {
+	public MapDeserializer(Map<String, TagListener> listeners, PathListeners pathListeners, Batches batches, AsyncDispatcher dispatcher, String incompleteKeyName) {
 		this.listeners = listeners;
+		this.pathListeners = pathListeners;
+		this.batches = batches;
+		this.dispatcher = dispatcher;
 		this.incompleteKeyName = incompleteKeyName;
 	}
 
-	public Map deserialize(JsonParser jsonParser, DeserializationContext deserializationContext) throws IOException, JsonProcessingException {
+	/**
+	 * Starts deserialization, parser must be at the root object
+	 *
+	 * @param jsonParser
+	 */
+	void start(JsonParser jsonParser) {
 
 		if (jsonParser.currentTokenId() != 1) {
 			throw new IllegalArgumentException("Not a json");
 		}
 
+		if (pathListeners != null) {
+			pathListeners.reset();
+			openContainer();
+		}
+		if (batches != null) {
+			//root object
+			batches.open();
+		}
+	}
+
+	/**
+	 * Reads tokens until the end of the content, or until more content is needed if parser is non-blocking
+	 *
+	 * @param jsonParser
+	 * @return true if a non-blocking parser needs more content to go on
+	 */
+	boolean read(JsonParser jsonParser) {
 		try {
 			Context parent = null;
+			Object closed;
 			JsonToken token = jsonParser.nextToken();
-			while (token != null && !stop) {
+			while (token != null && token != JsonToken.NOT_AVAILABLE && !stop && (dispatcher == null || !dispatcher.isCancelled())) {
+				events++;
 				int eventType = token.id();
 				switch (eventType) {
 					case 1: // {
+						openContainer();
+						if (batches != null) {
+							batches.open();
+						}
 						if (currentContext != null) {
 							contexts.push(currentContext);
 							currentContext = null;
 						}
 						break;
 					case 2: // }
+						closed = currentContext == null ? null : currentContext.data;
 						parent = contexts.pollFirst();
 						if (parent != null) {
-							parent.add(parent.lastKey, currentContext.data);
+							Map<String, Object> data = data();
+							parent.add(parent.lastKey, data);
+							bound++;
 
 							if (!parent.isList) {
-								stop = notify(parent.lastKey, currentContext.data);
+								stop = notify(parent.lastKey, data);
+							}
+							if (batches != null) {
+								stop |= batches.add(parent.lastKey, data);
 							}
 
 							currentContext = parent;
+						} else {
+							ended = true;
 						}
+						closeContainer(closed);
+						closeBatches();
 						break;
 					case 3: // [
+						openContainer();
+						if (batches != null) {
+							batches.open();
+						}
 						currentContext.isList = true;
 						currentContext.list = new ArrayList<>();
 						break;
 					case 4: // ]
+						closed = currentContext.list;
 						parent = contexts.pollFirst();
 						if (parent != null) {
 							stop = notify(parent.lastKey, currentContext.list);
@@ -83,6 +165,8 @@ class MapDeserializer extends JsonDeserializer<Map> {
 							currentContext.add(currentContext.lastKey, currentContext.list);
 
 						}
+						closeContainer(closed);
+						closeBatches();
 						break;
 					case 5: //field name, the key
 						currentKey = jsonParser.currentName();
@@ -91,12 +175,16 @@ class MapDeserializer extends JsonDeserializer<Map> {
 						} else {
 							currentContext.lastKey = currentKey;
 						}
+						if (pathListeners != null) {
+							pathListeners.open(currentKey);
+							pendingKey = true;
+						}
 						break;
 					case 6: //String value
 						addValue(jsonParser.getValueAsString());
 						break;
-					case 7: //int value
-						addValue(jsonParser.getIntValue());
+					case 7: //int value, Long or BigInteger if it does not fit
+						addValue(jsonParser.getNumberValue());
 						break;
 					case 8: // float value
 						addValue(jsonParser.getFloatValue());
@@ -108,18 +196,53 @@ class MapDeserializer extends JsonDeserializer<Map> {
 						addValue(false);
 						break;
 					default:
-						//do nothing
+						//null, nothing is added but a key could be waiting for its value
+						if (token.isScalarValue()) {
+							closeKey(null);
+						}
 						break;
 				}
 
 				token = jsonParser.nextToken();
 			}
-			return createMap(false);
+			return token == JsonToken.NOT_AVAILABLE && !ended && !stop && (dispatcher == null || !dispatcher.isCancelled());
 		} catch (Exception e) {
+			incomplete = true;
+			return false;
+		}
+	}
+
+	/**
+	 * @return map read, null if it is empty
+	 */
+	Map result() {
+		try {
+			return createMap(incomplete);
+		} catch (RuntimeException e) {
+			if (incomplete) {
+				throw e;
+			}
+			incomplete = true;
 			return createMap(true);
 		}
 	}
 
+	long getEvents() {
+		return events;
+	}
+
+	long getBound() {
+		return bound;
+	}
+
+	boolean isIncomplete() {
+		return incomplete;
+	}
+
+	boolean isStopped() {
+		return stop;
+	}
+
 	private boolean notify(String tag, Object value) {
 
 		if (listeners == null) {
@@ -128,7 +251,7 @@ class MapDeserializer extends JsonDeserializer<Map> {
 
 		TagListener listener = listeners.get(tag);
 		if (listener != null) {
-			return listener.notify(tag, value);
+			return FlightRecorder.notify(listener, tag, value);
 		}
 		return false; //to continue
 	}
@@ -139,16 +262,56 @@ class MapDeserializer extends JsonDeserializer<Map> {
 			currentContext = new Context(currentKey);
 		}
 		currentContext.add(currentKey, value);
+		bound++;
 		stop = notify(currentKey, value);
+		closeKey(value);
+		if (batches != null) {
+			batches.open();
+			stop |= batches.add(currentContext.isList ? currentContext.lastKey : currentKey, value);
+			closeBatches();
+		}
 
 		currentKey = null;
 	}
 
+	private void openContainer() {
+		if (pathListeners != null) {
+			containers++;
+			keyed.set(containers, pendingKey);
+			pendingKey = false;
+		}
+	}
+
+	private void closeContainer(Object value) {
+		if (pathListeners != null) {
+			if (keyed.get(containers)) {
+				stop |= pathListeners.close(value);
+			}
+			containers--;
+		}
+	}
+
+	private void closeBatches() {
+		if (batches != null) {
+			stop |= batches.close();
+		}
+	}
+
+	/**
+	 * Closes the key waiting for a scalar value, if any
+	 */
+	private void closeKey(Object value) {
+		if (pendingKey) {
+			pendingKey = false;
+			stop |= pathListeners.close(value);
+		}
+	}
+
 	private Map createMap(boolean incomplete) {
 
 		flush();
 
-		if (currentContext.data == null || currentContext.data.isEmpty()) {
+		if (currentContext == null || currentContext.data == null || currentContext.data.isEmpty()) {
 			return null;
 		} else {
 			if (incomplete) {
@@ -163,16 +326,23 @@ class MapDeserializer extends JsonDeserializer<Map> {
 		while (!contexts.isEmpty()) {
 			Context parent = contexts.removeFirst();
 
-			parent.add(parent.lastKey, currentContext.data);
+			parent.add(parent.lastKey, data());
 			currentContext = parent;
 		}
 
-		if (currentContext.isList) {
+		if (currentContext != null && currentContext.isList) {
 			currentContext.isList = false;
 			currentContext.add(currentContext.lastKey, currentContext.list);
 		}
 	}
 
+	/**
+	 * @return content of current object, an empty object has no context until its first key
+	 */
+	private Map<String, Object> data() {
+		return currentContext == null ? new HashMap<>() : currentContext.data;
+	}
+
 	private class Context {
 
 		protected String lastKey;
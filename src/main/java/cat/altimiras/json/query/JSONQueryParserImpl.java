@@ -0,0 +1,197 @@
+package cat.altimiras.json.query;
+
+import cat.altimiras.BatchListener;
+import cat.altimiras.Parser;
+import cat.altimiras.PathQuery;
+import cat.altimiras.TagListener;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.charset.Charset;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Returns only values of the paths of a PathQuery, as a map path -> value. Keys that do not lead to a pending path
+ * are skipped without being deserialized and parsing stops as soon as all paths are matched.
+ * <p>
+ * Path segments are keys, elements of an array are matched by the key of the array. Attribute paths are not supported.
+ */
+public class JSONQueryParserImpl extends Parser<Map> {
+
+	/**
+	 * Shared by all parsers, it is thread safe
+	 */
+	private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper().disable(JsonParser.Feature.AUTO_CLOSE_SOURCE);
+	private final PathQuery query;
+	private final String incompleteKeyName;
+
+	/**
+	 * States of the objects and arrays opened and still not closed
+	 */
+	private int[] states = new int[16];
+	private int depth = 0;
+
+	/**
+	 * Metrics of current parse
+	 */
+	private long events = 0;
+	private long skipped = 0;
+
+	public JSONQueryParserImpl(PathQuery query, String incompleteKeyName) {
+		if (query == null) {
+			throw new NullPointerException("query can not be null");
+		}
+		if (query.hasAttributes()) {
+			throw new IllegalArgumentException("Attribute paths are not supported for json");
+		}
+		this.query = query;
+		this.incompleteKeyName = incompleteKeyName;
+	}
+
+	/**
+	 * Listeners are registered by path of the query, notified when it is matched
+	 *
+	 * @param path
+	 * @param listener
+	 */
+	@Override
+	public void register(String path, TagListener listener) {
+		if (this.listeners == null) {
+			this.listeners = new HashMap<>();
+		}
+		listeners.put(path, dispatched(listener));
+	}
+
+	@Override
+	public void register(String tag, BatchListener listener, int batchSize) {
+		throw new UnsupportedOperationException("BatchListeners are not supported by this parser");
+	}
+
+	@Override
+	public Map parse(String json) throws IOException {
+		if (json == null) {
+			throw new NullPointerException("json can not be null");
+		}
+		beginParse();
+		meterBytes(json);
+		return parse(OBJECT_MAPPER.getFactory().createParser(json));
+	}
+
+	@Override
+	public Map parse(String json, Charset charset) throws IOException {
+		return parse(json.getBytes(charset));
+	}
+
+	@Override
+	public Map parse(byte[] json) throws IOException {
+		beginParse();
+		meterBytes(json.length);
+		return parse(OBJECT_MAPPER.getFactory().createParser(json));
+	}
+
+	@Override
+	public Map parse(InputStream json) throws IOException {
+		beginParse();
+		JsonParser jsonParser;
+		try {
+			//encoding is detected reading first bytes
+			jsonParser = OBJECT_MAPPER.getFactory().createParser(meter(json));
+		} catch (IOException e) {
+			endParse(0, 0, 0, true, false);
+			throw e;
+		}
+		return parse(jsonParser);
+	}
+
+	@Override
+	public Map parse(Reader json) throws IOException {
+		beginParse();
+		return parse(OBJECT_MAPPER.getFactory().createParser(meter(json)));
+	}
+
+	private Map parse(JsonParser jsonParser) throws IOException {
+
+		PathQuery.Matches matches = query.newMatches(listeners);
+		boolean incomplete = false;
+		depth = 0;
+		states[0] = query.start();
+		events = 0;
+		skipped = 0;
+
+		try {
+			JsonToken token = jsonParser.nextToken();
+			while (token != null && !matches.isDone() && !isCancelled()) {
+				events++;
+				switch (token) {
+					case FIELD_NAME:
+						onField(jsonParser, matches);
+						break;
+					case START_OBJECT:
+					case START_ARRAY:
+						//root or element of an array, same state than its parent
+						push(states[depth]);
+						break;
+					case END_OBJECT:
+					case END_ARRAY:
+						depth--;
+						break;
+					default:
+						//scalar inside an array
+						break;
+				}
+				token = jsonParser.nextToken();
+			}
+		} catch (IOException e) {
+			incomplete = true;
+		} finally {
+			jsonParser.close();
+			endParse(events, matches.matched(), skipped, incomplete, matches.isStopped());
+		}
+
+		Map result = matches.toMap();
+		if (incomplete) {
+			result.put(incompleteKeyName, true);
+		}
+		return result;
+	}
+
+	private void onField(JsonParser jsonParser, PathQuery.Matches matches) throws IOException {
+
+		int state = query.next(states[depth], jsonParser.getCurrentName());
+		JsonToken token = jsonParser.nextToken();
+		events++;
+
+		if (!matches.wants(state)) {
+			if (token.isStructStart()) {
+				jsonParser.skipChildren();
+				skipped++;
+			}
+			return;
+		}
+
+		if (matches.matches(state)) {
+			//whole value, parser ends on its last token
+			matches.match(state, jsonParser.readValueAs(Object.class));
+			return;
+		}
+
+		if (token.isStructStart()) {
+			push(state);
+		}
+	}
+
+	private void push(int state) {
+		depth++;
+		if (depth == states.length) {
+			int[] grown = new int[states.length * 2];
+			System.arraycopy(states, 0, grown, 0, states.length);
+			states = grown;
+		}
+		states[depth] = state;
+	}
+}
@@ -0,0 +1,172 @@
+package cat.altimiras.json.tape;
+
+import cat.altimiras.BatchListener;
+import cat.altimiras.Parser;
+import cat.altimiras.TagListener;
+import cat.altimiras.tape.Tape;
+import cat.altimiras.tape.TapeBuilder;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.charset.Charset;
+import java.util.Map;
+
+/**
+ * Records the document on a Tape, read with the streaming jackson parser. Returns a read-only view of the tape with the
+ * same content JSONMapParserImpl returns, get the tape with Tape.of(map).
+ * <p>
+ * Null values are not recorded. Listeners are not supported: values are not created while parsing.
+ */
+public class JSONTapeParserImpl extends Parser<Map> {
+
+	/**
+	 * Shared by all parsers, it is thread safe
+	 */
+	private static final JsonFactory JSON_FACTORY = new JsonFactory().disable(JsonParser.Feature.AUTO_CLOSE_SOURCE);
+	private final TapeBuilder builder = new TapeBuilder(false);
+	private final String incompleteKeyName;
+
+	public JSONTapeParserImpl(String incompleteKeyName) {
+		this.incompleteKeyName = incompleteKeyName;
+	}
+
+	@Override
+	public void register(String tag, TagListener listener) {
+		throw new UnsupportedOperationException("Listeners are not supported by this parser");
+	}
+
+	@Override
+	public void register(String tag, BatchListener listener, int batchSize) {
+		throw new UnsupportedOperationException("BatchListeners are not supported by this parser");
+	}
+
+	@Override
+	public Map parse(String json) throws IOException {
+		if (json == null) {
+			throw new NullPointerException("json can not be null");
+		}
+		beginParse();
+		meterBytes(json);
+		return parse(JSON_FACTORY.createParser(json));
+	}
+
+	@Override
+	public Map parse(String json, Charset charset) throws IOException {
+		return parse(json.getBytes(charset));
+	}
+
+	@Override
+	public Map parse(byte[] json) throws IOException {
+		beginParse();
+		meterBytes(json.length);
+		return parse(JSON_FACTORY.createParser(json));
+	}
+
+	@Override
+	public Map parse(InputStream json) throws IOException {
+		beginParse();
+		JsonParser jsonParser;
+		try {
+			//encoding is detected reading first bytes
+			jsonParser = JSON_FACTORY.createParser(meter(json));
+		} catch (IOException e) {
+			endParse(0, 0, 0, true, false);
+			throw e;
+		}
+		return parse(jsonParser);
+	}
+
+	@Override
+	public Map parse(Reader json) throws IOException {
+		beginParse();
+		return parse(JSON_FACTORY.createParser(meter(json)));
+	}
+
+	private Map parse(JsonParser jsonParser) throws IOException {
+
+		long events = 0;
+		boolean incomplete = false;
+		builder.begin();
+
+		try {
+			JsonToken token = jsonParser.nextToken();
+			if (token == JsonToken.VALUE_NULL) {
+				//as map parser
+				return null;
+			}
+			if (token != null && token != JsonToken.START_OBJECT) {
+				throw new IllegalArgumentException("Not a json");
+			}
+			String name = null;
+			while (token != null) {
+				events++;
+				switch (token) {
+					case START_OBJECT:
+						builder.open(Tape.OBJECT, name);
+						break;
+					case START_ARRAY:
+						builder.open(Tape.ARRAY, name);
+						break;
+					case END_OBJECT:
+					case END_ARRAY:
+						builder.close();
+						break;
+					case FIELD_NAME:
+						name = jsonParser.getCurrentName();
+						break;
+					case VALUE_STRING:
+						builder.string(name, jsonParser.getTextCharacters(), jsonParser.getTextOffset(), jsonParser.getTextLength());
+						break;
+					case VALUE_NUMBER_INT:
+						onInt(jsonParser, name);
+						break;
+					case VALUE_NUMBER_FLOAT:
+						builder.number(name, Tape.FLOAT, Float.floatToIntBits(jsonParser.getFloatValue()));
+						break;
+					case VALUE_TRUE:
+						builder.bool(name, true);
+						break;
+					case VALUE_FALSE:
+						builder.bool(name, false);
+						break;
+					default:
+						//null, not recorded
+						break;
+				}
+				if (builder.depth() == 0) {
+					//root object is closed
+					break;
+				}
+				//elements of an array have no name
+				name = jsonParser.getParsingContext().inArray() ? null : name;
+				token = jsonParser.nextToken();
+			}
+		} catch (IOException e) {
+			incomplete = true;
+		} finally {
+			jsonParser.close();
+			endParse(events, builder.size(), 0, incomplete, false);
+		}
+
+		Map result = builder.build(incomplete ? incompleteKeyName : null).asMap();
+		return result == null || result.isEmpty() ? null : result;
+	}
+
+	private void onInt(JsonParser jsonParser, String name) throws IOException {
+		switch (jsonParser.getNumberType()) {
+			case INT:
+				builder.number(name, Tape.INT, jsonParser.getIntValue());
+				break;
+			case LONG:
+				builder.number(name, Tape.LONG, jsonParser.getLongValue());
+				break;
+			default:
+				builder.bigInteger(name, jsonParser.getText());
+				break;
+		}
+	}
+}
@@ -0,0 +1,479 @@
+package cat.altimiras.tape;
+
+import java.math.BigInteger;
+import java.util.AbstractList;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Document recorded as flat arrays, one position per node in document order: kind, name, parent, end of its subtree
+ * and value. Text of all nodes is stored in a single char buffer. A parse allocates a handful of arrays instead of an
+ * object per node, so it is cheap to keep and to scan.
+ * <p>
+ * Nodes are navigated by position with firstChild, nextSibling and parent. asMap returns a read-only Map view with
+ * the same content a map parser returns, values are created when they are read.
+ * <p>
+ * Immutable, it can be shared between threads once parsed. Views too: a value created by two threads at once is
+ * created twice, and any of them is kept.
+ */
+public final class Tape {
+
+	/**
+	 * JSON object, XML element or the XML document. Children are its keys, or its attributes and elements.
+	 */
+	public static final byte OBJECT = 1;
+	public static final byte ARRAY = 2;
+	/**
+	 * JSON string or XML attribute
+	 */
+	public static final byte STRING = 3;
+	public static final byte INT = 4;
+	public static final byte LONG = 5;
+	public static final byte BIG_INTEGER = 6;
+	public static final byte FLOAT = 7;
+	public static final byte TRUE = 8;
+	public static final byte FALSE = 9;
+
+	/**
+	 * Value without text
+	 */
+	static final long NO_TEXT = -1L;
+
+	/**
+	 * Value of a view not created yet
+	 */
+	private static final Object UNSET = new Object();
+
+	private final boolean xml;
+	private final int size;
+	private final byte[] kinds;
+	private final int[] names;
+	private final int[] parents;
+	/**
+	 * Position after the last node of the subtree, the next sibling if there is one
+	 */
+	private final int[] ends;
+	/**
+	 * Offset and length in chars (offset << 32 | length) for text, bits for numbers
+	 */
+	private final long[] values;
+	private final char[] chars;
+	private final String[] nameTable;
+
+	Tape(boolean xml, int size, byte[] kinds, int[] names, int[] parents, int[] ends, long[] values, char[] chars, String[] nameTable) {
+		this.xml = xml;
+		this.size = size;
+		this.kinds = kinds;
+		this.names = names;
+		this.parents = parents;
+		this.ends = ends;
+		this.values = values;
+		this.chars = chars;
+		this.nameTable = nameTable;
+	}
+
+	/**
+	 * @param map returned by a tape parser
+	 * @return tape of map, null if map is not a tape view
+	 */
+	public static Tape of(Map map) {
+		return map instanceof NodeMap ? ((NodeMap) map).tape() : null;
+	}
+
+	/**
+	 * @return number of nodes
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * @return root node: XML document (its child is the root element) or JSON root object. -1 if tape is empty.
+	 */
+	public int root() {
+		return size == 0 ? -1 : 0;
+	}
+
+	public byte kind(int node) {
+		return kinds[node];
+	}
+
+	/**
+	 * @return key, element or attribute name. Null for array elements and the document.
+	 */
+	public String name(int node) {
+		int name = names[node];
+		return name < 0 ? null : nameTable[name];
+	}
+
+	/**
+	 * @return parent node, -1 for the root
+	 */
+	public int parent(int node) {
+		return parents[node];
+	}
+
+	/**
+	 * @return first child node, -1 if it has none
+	 */
+	public int firstChild(int node) {
+		return node + 1 < ends[node] ? node + 1 : -1;
+	}
+
+	/**
+	 * @return next node with the same parent, -1 if it is the last one
+	 */
+	public int nextSibling(int node) {
+		int parent = parents[node];
+		return parent >= 0 && ends[node] < ends[parent] ? ends[node] : -1;
+	}
+
+	/**
+	 * @return text of strings, attributes and XML elements with text. Null otherwise.
+	 */
+	public String text(int node) {
+		byte kind = kinds[node];
+		if ((kind != STRING && kind != OBJECT && kind != BIG_INTEGER) || values[node] == NO_TEXT) {
+			return null;
+		}
+		long value = values[node];
+		return new String(chars, (int) (value >>> 32), (int) value);
+	}
+
+	/**
+	 * @return value of node as a map parser returns it: String, Integer, Long, BigInteger, Float, Boolean, or a
+	 * read-only Map or List view
+	 */
+	public Object value(int node) {
+		switch (kinds[node]) {
+			case STRING:
+				return text(node);
+			case INT:
+				return (int) values[node];
+			case LONG:
+				return values[node];
+			case BIG_INTEGER:
+				return new BigInteger(text(node));
+			case FLOAT:
+				return Float.intBitsToFloat((int) values[node]);
+			case TRUE:
+				return Boolean.TRUE;
+			case FALSE:
+				return Boolean.FALSE;
+			case ARRAY:
+				return new NodeList(node);
+			default:
+				return xml ? content(node) : new NodeMap(node);
+		}
+	}
+
+	/**
+	 * @return root node as a map, as the map parser returns it. Null if tape is empty.
+	 */
+	public Map<String, Object> asMap() {
+		return size == 0 ? null : new NodeMap(0);
+	}
+
+	/**
+	 * XML element as WoodStoxMapParserImpl builds it: its text, null if it is empty, a list if all its children are
+	 * repeated elements, otherwise a map where repeated elements are lists of maps with a single key.
+	 */
+	private Object content(int node) {
+		if (values[node] != NO_TEXT) {
+			return text(node);
+		}
+		if (firstChild(node) < 0) {
+			return null;
+		}
+		NodeMap map = new NodeMap(node);
+		if (node != 0 && map.size() == 1 && map.isList(0)) {
+			return map.list(0);
+		}
+		return map;
+	}
+
+	private boolean isNull(int node) {
+		return xml && kinds[node] == OBJECT && values[node] == NO_TEXT && firstChild(node) < 0;
+	}
+
+	/**
+	 * Children of an object by name. In XML a name repeated is a list, in JSON last value of a name is kept.
+	 * Values are created on first access and kept.
+	 */
+	private final class NodeMap extends AbstractMap<String, Object> {
+
+		private final int node;
+
+		/**
+		 * Null until first access. Holders have final fields, so views can be read by several threads.
+		 */
+		private Groups groups;
+
+		private NodeMap(int node) {
+			this.node = node;
+		}
+
+		private Tape tape() {
+			return Tape.this;
+		}
+
+		private Groups groups() {
+			Groups current = groups;
+			if (current == null) {
+				current = new Groups(node);
+				groups = current;
+			}
+			return current;
+		}
+
+		/**
+		 * @return first child of the list of group, -1 if group is not a list. A value followed by another one with
+		 * the same name makes a list, unless it is null: then it is replaced.
+		 */
+		private int listStart(int group) {
+			Groups current = groups();
+			if (!xml || current.counts[group] == 1) {
+				return -1;
+			}
+			int name = names[current.firsts[group]];
+			for (int child = current.firsts[group]; child != current.lasts[group]; child = nextSibling(child)) {
+				if (names[child] == name && !isNull(child)) {
+					return child;
+				}
+			}
+			return -1;
+		}
+
+		private boolean isList(int group) {
+			return listStart(group) >= 0;
+		}
+
+		private List<Object> list(int group) {
+			return new NodeList(listStart(group), names[groups().firsts[group]]);
+		}
+
+		private Object valueOf(int group) {
+			Object[] values = groups().values;
+			Object value = values[group];
+			if (value == UNSET) {
+				value = isList(group) ? list(group) : value(groups().lasts[group]);
+				values[group] = value;
+			}
+			return value;
+		}
+
+		private String keyOf(int group) {
+			return nameTable[names[groups().firsts[group]]];
+		}
+
+		private int find(Object key) {
+			if (!(key instanceof String)) {
+				return -1;
+			}
+			int count = groups().count;
+			for (int g = 0; g < count; g++) {
+				String name = keyOf(g);
+				if (name == key || name.equals(key)) {
+					return g;
+				}
+			}
+			return -1;
+		}
+
+		@Override
+		public int size() {
+			return groups().count;
+		}
+
+		@Override
+		public boolean containsKey(Object key) {
+			return find(key) >= 0;
+		}
+
+		@Override
+		public Object get(Object key) {
+			int group = find(key);
+			return group < 0 ? null : valueOf(group);
+		}
+
+		@Override
+		public Set<Entry<String, Object>> entrySet() {
+			return new AbstractSet<Entry<String, Object>>() {
+				@Override
+				public Iterator<Entry<String, Object>> iterator() {
+					return new Iterator<Entry<String, Object>>() {
+						private int next = 0;
+
+						@Override
+						public boolean hasNext() {
+							return next < groups().count;
+						}
+
+						@Override
+						public Entry<String, Object> next() {
+							if (!hasNext()) {
+								throw new NoSuchElementException();
+							}
+							int group = next++;
+							return new SimpleImmutableEntry<>(keyOf(group), valueOf(group));
+						}
+					};
+				}
+
+				@Override
+				public int size() {
+					return groups().count;
+				}
+			};
+		}
+	}
+
+	/**
+	 * Children of a node by name: first and last child with every name and how many have it
+	 */
+	private final class Groups {
+
+		private final int count;
+		private final int[] firsts;
+		private final int[] lasts;
+		private final int[] counts;
+		private final Object[] values;
+
+		private Groups(int node) {
+			int capacity = 4;
+			int[] firsts = new int[capacity];
+			int[] lasts = new int[capacity];
+			int[] counts = new int[capacity];
+			int count = 0;
+			Map<Integer, Integer> byName = null;
+			for (int child = firstChild(node); child >= 0; child = nextSibling(child)) {
+				int name = names[child];
+				int group = -1;
+				if (byName != null) {
+					Integer found = byName.get(name);
+					group = found == null ? -1 : found;
+				} else {
+					for (int g = 0; g < count; g++) {
+						if (names[firsts[g]] == name) {
+							group = g;
+							break;
+						}
+					}
+				}
+				if (group < 0) {
+					if (count == capacity) {
+						capacity *= 2;
+						firsts = Arrays.copyOf(firsts, capacity);
+						lasts = Arrays.copyOf(lasts, capacity);
+						counts = Arrays.copyOf(counts, capacity);
+					}
+					group = count++;
+					firsts[group] = child;
+					if (byName == null && count > 16) {
+						//wide object, linear search is too slow
+						byName = new HashMap<>();
+						for (int g = 0; g < count; g++) {
+							byName.put(names[firsts[g]], g);
+						}
+					} else if (byName != null) {
+						byName.put(name, group);
+					}
+				}
+				lasts[group] = child;
+				counts[group]++;
+			}
+			this.count = count;
+			this.firsts = firsts;
+			this.lasts = lasts;
+			this.counts = counts;
+			this.values = new Object[count];
+			Arrays.fill(values, UNSET);
+		}
+	}
+
+	/**
+	 * Elements of a JSON array, or XML elements of a repeated name as maps with a single key. Elements are created on
+	 * first access and kept.
+	 */
+	private final class NodeList extends AbstractList<Object> {
+
+		private final int first;
+		/**
+		 * Name of the XML elements, -1 for a JSON array
+		 */
+		private final int name;
+
+		/**
+		 * Null until first access
+		 */
+		private Elements elements;
+
+		private NodeList(int array) {
+			this(firstChild(array), -1);
+		}
+
+		private NodeList(int first, int name) {
+			this.first = first;
+			this.name = name;
+		}
+
+		private Elements elements() {
+			Elements current = elements;
+			if (current == null) {
+				current = new Elements(first, name);
+				elements = current;
+			}
+			return current;
+		}
+
+		@Override
+		public Object get(int index) {
+			Elements current = elements();
+			Object value = current.values[index];
+			if (value == UNSET) {
+				int node = current.nodes[index];
+				value = name < 0 ? value(node) : Collections.singletonMap(nameTable[name], value(node));
+				current.values[index] = value;
+			}
+			return value;
+		}
+
+		@Override
+		public int size() {
+			return elements().nodes.length;
+		}
+	}
+
+	/**
+	 * Nodes of the elements of a list
+	 */
+	private final class Elements {
+
+		private final int[] nodes;
+		private final Object[] values;
+
+		private Elements(int first, int name) {
+			int count = 0;
+			int[] found = new int[8];
+			for (int child = first; child >= 0; child = nextSibling(child)) {
+				if (name < 0 || names[child] == name) {
+					if (count == found.length) {
+						found = Arrays.copyOf(found, count * 2);
+					}
+					found[count++] = child;
+				}
+			}
+			this.nodes = Arrays.copyOf(found, count);
+			this.values = new Object[count];
+			Arrays.fill(values, UNSET);
+		}
+	}
+}
@@ -0,0 +1,237 @@
+package cat.altimiras.tape;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Records a document on a Tape while it is parsed: nodes are opened and closed in document order and scalars are
+ * added to the node currently open.
+ * <p>
+ * Document is recorded on working arrays, reused by the next parse, and a tape gets copies trimmed to its content, so
+ * it holds no spare capacity. Working arrays follow the size of the last document: they grow while it is recorded and
+ * shrink after it if it used less than a quarter of them. Not thread safe: one per parser.
+ */
+public final class TapeBuilder {
+
+	private static final int MIN_NODES = 64;
+	private static final int MIN_CHARS = 1024;
+
+	/**
+	 * Names kept between parses, cleared if documents have too many different ones
+	 */
+	private static final int MAX_NAMES = 1 << 16;
+
+	private final boolean xml;
+	private final Map<String, Integer> nameIndex = new HashMap<>();
+	private String[] nameTable = new String[64];
+
+	private int size;
+	private byte[] kinds;
+	private int[] names;
+	private int[] parents;
+	private int[] ends;
+	private long[] values;
+	private char[] chars;
+	private int length;
+
+	/**
+	 * Nodes opened and not closed yet
+	 */
+	private int[] opened = new int[16];
+	private int depth;
+
+	/**
+	 * @param xml true to record XML: document node is the root, elements can have text and a name repeated is a list
+	 */
+	public TapeBuilder(boolean xml) {
+		this.xml = xml;
+	}
+
+	/**
+	 * Starts a new tape. For XML document node is opened.
+	 */
+	public void begin() {
+		if (nameIndex.size() > MAX_NAMES) {
+			nameIndex.clear();
+		}
+		size = 0;
+		length = 0;
+		depth = 0;
+		if (kinds == null) {
+			nodes(MIN_NODES);
+		}
+		if (chars == null) {
+			chars = new char[MIN_CHARS];
+		}
+		if (xml) {
+			open(Tape.OBJECT, null);
+		}
+	}
+
+	/**
+	 * Opens an object or an array, child of the node currently open
+	 *
+	 * @param kind Tape.OBJECT or Tape.ARRAY
+	 * @param name null for array elements
+	 */
+	public void open(byte kind, String name) {
+		int node = add(kind, name);
+		values[node] = Tape.NO_TEXT;
+		if (depth == opened.length) {
+			opened = Arrays.copyOf(opened, depth * 2);
+		}
+		opened[depth++] = node;
+	}
+
+	/**
+	 * Closes the node currently open
+	 */
+	public void close() {
+		ends[opened[--depth]] = size;
+	}
+
+	/**
+	 * @return nodes opened and not closed yet
+	 */
+	public int depth() {
+		return depth;
+	}
+
+	/**
+	 * @return nodes recorded on current tape
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Sets text of the XML element currently open, trimmed. Ignored if it is blank, replaced if it was already set.
+	 */
+	public void text(char[] buffer, int start, int length) {
+		int end = start + length;
+		while (start < end && buffer[start] <= ' ') {
+			start++;
+		}
+		while (end > start && buffer[end - 1] <= ' ') {
+			end--;
+		}
+		if (start < end) {
+			values[opened[depth - 1]] = append(buffer, start, end - start);
+		}
+	}
+
+	public void string(String name, String value) {
+		int node = add(Tape.STRING, name);
+		int offset = reserve(value.length());
+		value.getChars(0, value.length(), chars, offset);
+		values[node] = (long) offset << 32 | value.length();
+	}
+
+	public void string(String name, char[] buffer, int start, int length) {
+		int node = add(Tape.STRING, name);
+		values[node] = append(buffer, start, length);
+	}
+
+	/**
+	 * @param kind Tape.INT, Tape.LONG or Tape.FLOAT (as Float.floatToIntBits)
+	 */
+	public void number(String name, byte kind, long bits) {
+		int node = add(kind, name);
+		values[node] = bits;
+	}
+
+	public void bigInteger(String name, String value) {
+		string(name, value);
+		kinds[size - 1] = Tape.BIG_INTEGER;
+	}
+
+	public void bool(String name, boolean value) {
+		add(value ? Tape.TRUE : Tape.FALSE, name);
+	}
+
+	/**
+	 * Closes nodes still open and returns the tape. Builder can begin another one after it.
+	 *
+	 * @param incompleteKeyName if not null, added to the root (if it is not empty) as true
+	 * @return
+	 */
+	public Tape build(String incompleteKeyName) {
+		while (depth > 0) {
+			close();
+		}
+		if (incompleteKeyName != null && size > 1) {
+			int node = add(Tape.TRUE, incompleteKeyName);
+			parents[node] = 0;
+			ends[0] = size;
+		}
+		Tape tape = new Tape(xml, size, Arrays.copyOf(kinds, size), Arrays.copyOf(names, size), Arrays.copyOf(parents, size),
+				Arrays.copyOf(ends, size), Arrays.copyOf(values, size), Arrays.copyOf(chars, length), Arrays.copyOf(nameTable, nameIndex.size()));
+
+		//released if they are much bigger than the last document, next parse allocates them again
+		if (kinds.length > MIN_NODES && size < kinds.length / 4) {
+			kinds = null;
+			names = null;
+			parents = null;
+			ends = null;
+			values = null;
+		}
+		if (chars.length > MIN_CHARS && length < chars.length / 4) {
+			chars = null;
+		}
+		return tape;
+	}
+
+	private void nodes(int capacity) {
+		kinds = new byte[capacity];
+		names = new int[capacity];
+		parents = new int[capacity];
+		ends = new int[capacity];
+		values = new long[capacity];
+	}
+
+	private int add(byte kind, String name) {
+		if (size == kinds.length) {
+			int capacity = size * 2;
+			kinds = Arrays.copyOf(kinds, capacity);
+			names = Arrays.copyOf(names, capacity);
+			parents = Arrays.copyOf(parents, capacity);
+			ends = Arrays.copyOf(ends, capacity);
+			values = Arrays.copyOf(values, capacity);
+		}
+		int node = size++;
+		kinds[node] = kind;
+		names[node] = name == null ? -1 : name(name);
+		parents[node] = depth == 0 ? -1 : opened[depth - 1];
+		ends[node] = size;
+		return node;
+	}
+
+	private int name(String name) {
+		Integer index = nameIndex.get(name);
+		if (index == null) {
+			index = nameIndex.size();
+			if (index == nameTable.length) {
+				nameTable = Arrays.copyOf(nameTable, index * 2);
+			}
+			nameTable[index] = name;
+			nameIndex.put(name, index);
+		}
+		return index;
+	}
+
+	private long append(char[] buffer, int start, int length) {
+		int offset = reserve(length);
+		System.arraycopy(buffer, start, chars, offset, length);
+		return (long) offset << 32 | length;
+	}
+
+	private int reserve(int length) {
+		int offset = this.length;
+		if (offset + length > chars.length) {
+			chars = Arrays.copyOf(chars, Math.max(chars.length * 2, offset + length));
+		}
+		this.length += length;
+		return offset;
+	}
+}
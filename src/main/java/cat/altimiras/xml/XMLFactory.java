@@ -1,22 +1,54 @@
 package cat.altimiras.xml;
 
+import cat.altimiras.ParseMetrics;
 import cat.altimiras.Parser;
+import cat.altimiras.PathQuery;
+import cat.altimiras.xml.bind.WoodStoxBinderParserImpl;
+import cat.altimiras.xml.bind.XMLBinder;
 import cat.altimiras.xml.map.WoodStoxMapParserImpl;
 import cat.altimiras.xml.obj.ClassIntrospector;
 import cat.altimiras.xml.obj.WoodStoxObjParserImpl;
+import cat.altimiras.xml.query.WoodStoxQueryParserImpl;
+import cat.altimiras.xml.tape.WoodStoxTapeParserImpl;
 import org.codehaus.stax2.XMLInputFactory2;
 
 import javax.xml.stream.XMLInputFactory;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.ServiceLoader;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
 
 public class XMLFactory {
 
 	final static public String DEFAULT_INCOMPLETE_KEY_NAME = "_is_incomplete";
 
-	private static Map<String, ClassIntrospector> classesIntrospector = new HashMap<>();
+	/**
+	 * Registry can be updated from any thread while parsers are being created and used
+	 */
+	private static Map<String, ClassIntrospector> classesIntrospector = new ConcurrentHashMap<>();
+
+	/**
+	 * Binders generated at compile time by XMLBindingProcessor, available on classpath
+	 */
+	private static Map<String, XMLBinder> availableBinders = loadBinders();
+	/**
+	 * Binders of initialized classes
+	 */
+	private static Map<String, XMLBinder> binders = new ConcurrentHashMap<>();
+
+	/**
+	 * Current factory configuration. Every configure creates a new snapshot, parsers keep the one they were created with.
+	 */
+	private static AtomicReference<Configuration> configuration = new AtomicReference<>(new Configuration(Collections.emptyList()));
 
-	private static XMLInputFactory2 xmlInputFactory = (XMLInputFactory2) XMLInputFactory.newInstance();
+	/**
+	 * Set to parsers created after it. Null when metrics are disabled.
+	 */
+	private static volatile ParseMetrics metrics = null;
 
 	public static void init(Class... classes) throws Exception {
 
@@ -25,9 +57,12 @@ public class XMLFactory {
 		}
 
 		for (Class c : classes) {
-			if (classesIntrospector.get(c.getCanonicalName()) == null) {
-				ClassIntrospector classIntrospector = new ClassIntrospector(c);
-				classesIntrospector.put(c.getCanonicalName(), classIntrospector);
+			XMLBinder binder = availableBinders.get(c.getCanonicalName());
+			if (binder != null) {
+				//generated binder, no introspection needed
+				binders.put(c.getCanonicalName(), binder);
+			} else if (classesIntrospector.get(c.getCanonicalName()) == null) {
+				introspect(c);
 			}
 		}
 
@@ -35,12 +70,48 @@ public class XMLFactory {
 
 	}
 
-	public static void configure(MODE... modes) {
-		for (MODE mode : modes) {
-			mode.apply(xmlInputFactory);
+	/**
+	 * Introspects class only once even if it is initialized concurrently. Readers are never blocked.
+	 */
+	private static void introspect(Class c) throws Exception {
+		try {
+			classesIntrospector.computeIfAbsent(c.getCanonicalName(), name -> {
+				try {
+					return new ClassIntrospector(c);
+				} catch (Exception e) {
+					throw new IntrospectionException(e);
+				}
+			});
+		} catch (IntrospectionException e) {
+			throw (Exception) e.getCause();
 		}
 	}
 
+	/**
+	 * Modes are applied on top of the current ones. Parsers already created are not affected, they keep the configuration
+	 * they were created with.
+	 *
+	 * @param modes
+	 */
+	public static void configure(MODE... modes) {
+		Configuration current;
+		Configuration next;
+		do {
+			current = configuration.get();
+			next = current.with(modes);
+		} while (next != current && !configuration.compareAndSet(current, next));
+	}
+
+	/**
+	 * Parsers got after it report stats of every parse to metrics. Metrics is shared by all those parsers, so it must be
+	 * thread safe. Null disables metrics.
+	 *
+	 * @param metrics
+	 */
+	public static void setMetrics(ParseMetrics metrics) {
+		XMLFactory.metrics = metrics;
+	}
+
 	/**
 	 * Get a parser for class c, with user defined buffer size
 	 *
@@ -54,25 +125,135 @@ public class XMLFactory {
 			throw new IllegalArgumentException("Class can not be null");
 		}
 
+		XMLInputFactory2 xmlInputFactory = configuration.get().xmlInputFactory;
+
+		XMLBinder binder = binders.get(c.getCanonicalName());
+		if (binder != null) {
+			//parser introspecting the class is only created if features binders do not support are used
+			return withMetrics(new WoodStoxBinderParserImpl(xmlInputFactory, binder, () -> {
+				try {
+					introspect(c);
+					return new WoodStoxObjParserImpl(xmlInputFactory, c, classesIntrospector.get(c.getCanonicalName()));
+				} catch (Exception e) {
+					throw new IllegalArgumentException("Class can not be introspected: " + c.getCanonicalName(), e);
+				}
+			}));
+		}
+
 		ClassIntrospector classIntrospector = classesIntrospector.get(c.getCanonicalName());
 		if (classIntrospector == null) {
 			throw new IllegalArgumentException("XMLFactory has not been properly initialzed. Class:" + c.getCanonicalName() + ". Check init method");
 		}
-		return new WoodStoxObjParserImpl(xmlInputFactory, c, classIntrospector);
+		return withMetrics(new WoodStoxObjParserImpl(xmlInputFactory, c, classIntrospector));
 	}
 
 	public static Parser<Map> getParser(String incompleteKeyName) {
-		return new WoodStoxMapParserImpl(xmlInputFactory, incompleteKeyName);
+		return getParser(incompleteKeyName, false);
+	}
+
+	/**
+	 * Get a map parser, optionally building compact maps: same content and Map contract, but elements are small arrays
+	 * of names and values instead of HashMaps, a fraction of the memory for big documents.
+	 *
+	 * @param incompleteKeyName
+	 * @param compact           elements are built as compact maps
+	 * @return
+	 */
+	public static Parser<Map> getParser(String incompleteKeyName, boolean compact) {
+		return withMetrics(new WoodStoxMapParserImpl(configuration.get().xmlInputFactory, incompleteKeyName, compact));
 	}
 
 	public static Parser<Map> getParser() {
-		return new WoodStoxMapParserImpl(xmlInputFactory, DEFAULT_INCOMPLETE_KEY_NAME);
+		return getParser(DEFAULT_INCOMPLETE_KEY_NAME);
+	}
+
+	/**
+	 * Get a parser returning only values of paths, as a map path -> value. It stops reading as soon as all paths are found.
+	 *
+	 * @param paths absolute paths, i.e. /root/object/value or /root/object/@attribute
+	 * @return
+	 */
+	public static Parser<Map> getQueryParser(String... paths) {
+		return getQueryParser(PathQuery.compile(paths));
+	}
+
+	public static Parser<Map> getQueryParser(PathQuery query) {
+		return withMetrics(new WoodStoxQueryParserImpl(configuration.get().xmlInputFactory, query, DEFAULT_INCOMPLETE_KEY_NAME));
+	}
+
+	/**
+	 * Get a parser recording documents on a Tape: flat arrays instead of an object per element. It returns a read-only
+	 * view with the same content getParser() returns, Tape.of(map) gets the tape. Maps, lists and strings of the view
+	 * are created the first time they are read. Listeners are not supported, getParser() is never affected by it.
+	 *
+	 * @return
+	 */
+	public static Parser<Map> getTapeParser() {
+		return withMetrics(new WoodStoxTapeParserImpl(configuration.get().xmlInputFactory, DEFAULT_INCOMPLETE_KEY_NAME));
+	}
+
+	private static <T extends Parser> T withMetrics(T parser) {
+		ParseMetrics current = metrics;
+		if (current != null) {
+			parser.setMetrics(current);
+		}
+		return parser;
 	}
 
 	static void reset() {
 		classesIntrospector.clear();
+		binders.clear();
+		configuration.set(new Configuration(Collections.emptyList()));
+		metrics = null;
 	}
 
+	private static Map<String, XMLBinder> loadBinders() {
+		Map<String, XMLBinder> loaded = new HashMap<>();
+		for (XMLBinder binder : ServiceLoader.load(XMLBinder.class)) {
+			loaded.put(binder.type().getCanonicalName(), binder);
+		}
+		return loaded;
+	}
+
+	/**
+	 * Immutable snapshot of the applied modes and the factory built with them. Factory is never modified once the
+	 * snapshot is published.
+	 */
+	private static final class Configuration {
+
+		private final List<MODE> modes;
+		private final XMLInputFactory2 xmlInputFactory;
+
+		private Configuration(List<MODE> modes) {
+			this.modes = modes;
+			this.xmlInputFactory = (XMLInputFactory2) XMLInputFactory.newInstance();
+			for (MODE mode : modes) {
+				mode.apply(xmlInputFactory);
+			}
+		}
+
+		/**
+		 * @return this if modes do not change the configuration
+		 */
+		private Configuration with(MODE... added) {
+			List<MODE> next = new ArrayList<>(modes);
+			for (MODE mode : added) {
+				//a mode applied again overrides all its properties, so the previous application has no effect
+				next.remove(mode);
+				next.add(mode);
+			}
+			if (next.equals(modes)) {
+				return this;
+			}
+			return new Configuration(Collections.unmodifiableList(next));
+		}
+	}
+
+	private static final class IntrospectionException extends RuntimeException {
+		private IntrospectionException(Exception cause) {
+			super(cause);
+		}
+	}
 
 	public enum MODE {
 		PERFORMANCE {
@@ -0,0 +1,136 @@
+package cat.altimiras.xml.bind;
+
+import cat.altimiras.AsyncDispatcher;
+import cat.altimiras.FlightRecorder;
+import cat.altimiras.TagListener;
+import org.codehaus.stax2.XMLStreamReader2;
+
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.events.XMLEvent;
+import java.util.Map;
+
+/**
+ * State shared by generated binders during a parse: listeners, stop flag and counters reported as metrics. Plus helpers used by generated code.
+ */
+public final class BindingContext {
+
+	private final Map<String, TagListener> listeners;
+	private final AsyncDispatcher dispatcher;
+	private boolean stop = false;
+	private long events = 0;
+	private long bound = 0;
+	private long skipped = 0;
+
+	public BindingContext(Map<String, TagListener> listeners) {
+		this(listeners, null);
+	}
+
+	/**
+	 * @param listeners
+	 * @param dispatcher of asynchronous listeners, null if there is none. Binding stops when it is cancelled
+	 */
+	public BindingContext(Map<String, TagListener> listeners, AsyncDispatcher dispatcher) {
+		this.listeners = listeners;
+		this.dispatcher = dispatcher;
+	}
+
+	public boolean isStopped() {
+		return stop || (dispatcher != null && dispatcher.isCancelled());
+	}
+
+	public long getEvents() {
+		return events;
+	}
+
+	public long getBound() {
+		return bound;
+	}
+
+	public long getSkipped() {
+		return skipped;
+	}
+
+	/**
+	 * Counts a value bound that is not notified: attributes and items of lists of simple values
+	 */
+	public void bound() {
+		bound++;
+	}
+
+	/**
+	 * Notify to a TagListener(if registered) when tag is closed. Value is counted as bound
+	 *
+	 * @param tag
+	 * @param value
+	 */
+	public void notify(String tag, Object value) {
+		bound++;
+		if (listeners == null) {
+			return;
+		}
+
+		TagListener listener = listeners.get(tag);
+		if (listener != null && FlightRecorder.notify(listener, tag, value)) {
+			stop = true;
+		}
+	}
+
+	/**
+	 * Moves reader to next event, counting it
+	 *
+	 * @param reader
+	 * @return event
+	 * @throws XMLStreamException
+	 */
+	public int next(XMLStreamReader2 reader) throws XMLStreamException {
+		events++;
+		return reader.next();
+	}
+
+	/**
+	 * Reads text content of the element where reader is positioned (START_ELEMENT) until it is closed. Nested elements are skipped
+	 *
+	 * @param reader
+	 * @return null if element has no text
+	 * @throws XMLStreamException
+	 */
+	public String text(XMLStreamReader2 reader) throws XMLStreamException {
+		String text = null;
+		StringBuilder sb = null;
+		while (true) {
+			switch (next(reader)) {
+				case XMLEvent.CHARACTERS:
+				case XMLEvent.CDATA:
+				case XMLEvent.SPACE:
+					if (text == null) {
+						text = reader.getText();
+					} else {
+						if (sb == null) {
+							sb = new StringBuilder(text);
+						}
+						sb.append(reader.getText());
+					}
+					break;
+				case XMLEvent.START_ELEMENT:
+					skip(reader);
+					break;
+				case XMLEvent.END_ELEMENT:
+					return sb == null ? text : sb.toString();
+				default:
+					//do nothing
+					break;
+			}
+		}
+	}
+
+	/**
+	 * Skips the element where reader is positioned (START_ELEMENT) and all its content
+	 *
+	 * @param reader
+	 * @throws XMLStreamException
+	 */
+	public void skip(XMLStreamReader2 reader) throws XMLStreamException {
+		skipped++;
+		reader.skipElement();
+	}
+}
@@ -0,0 +1,244 @@
+package cat.altimiras.xml.bind;
+
+import cat.altimiras.AsyncDispatcher;
+import cat.altimiras.BatchListener;
+import cat.altimiras.CloseableIterator;
+import cat.altimiras.ListIterable;
+import cat.altimiras.ParseMetrics;
+import cat.altimiras.Parser;
+import cat.altimiras.PathListeners;
+import cat.altimiras.TagListener;
+import cat.altimiras.xml.XMLElement;
+import cat.altimiras.xml.exceptions.InvalidXMLFormatException;
+import cat.altimiras.xml.obj.ClassIntrospector;
+import cat.altimiras.xml.obj.WoodStoxObjParserImpl;
+import org.codehaus.stax2.XMLInputFactory2;
+import org.codehaus.stax2.XMLStreamReader2;
+
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.events.XMLEvent;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.Charset;
+import java.util.function.Supplier;
+
+/**
+ * Parser that populates objects using a XMLBinder generated at compile time, no reflection is involved.
+ * Parser can be reused, it is not thread safe.
+ * <p>
+ * Generated binders only notify TagListeners by tag name. When listeners by path or BatchListeners are registered, or
+ * a list is iterated, parses are delegated to a parser introspecting the class, so adding @XMLBinding to a class never
+ * breaks code using them.
+ *
+ * @param <T>
+ */
+public class WoodStoxBinderParserImpl<T extends XMLElement> extends Parser<T> implements ListIterable {
+
+	final private XMLInputFactory2 xmlInputFactory;
+	final private XMLBinder<T> binder;
+
+	/**
+	 * Creates the parser parses are delegated to
+	 */
+	final private Supplier<? extends Parser<T>> fallbackFactory;
+	/**
+	 * Null while parses are done by the binder
+	 */
+	private Parser<T> fallback;
+
+	/**
+	 * Parses delegated, if any, are done by a parser introspecting the class of binder when it is needed
+	 *
+	 * @param xmlInputFactory
+	 * @param binder
+	 */
+	public WoodStoxBinderParserImpl(XMLInputFactory2 xmlInputFactory, XMLBinder<T> binder) {
+		this(xmlInputFactory, binder, () -> {
+			try {
+				return new WoodStoxObjParserImpl<>(xmlInputFactory, binder.type(), new ClassIntrospector<>(binder.type()));
+			} catch (Exception e) {
+				throw new IllegalArgumentException("Class can not be introspected: " + binder.type().getCanonicalName(), e);
+			}
+		});
+	}
+
+	/**
+	 * @param xmlInputFactory
+	 * @param binder
+	 * @param fallbackFactory creates a parser introspecting the class of binder, it must implement ListIterable
+	 */
+	public WoodStoxBinderParserImpl(XMLInputFactory2 xmlInputFactory, XMLBinder<T> binder, Supplier<? extends Parser<T>> fallbackFactory) {
+		this.xmlInputFactory = xmlInputFactory;
+		this.binder = binder;
+		this.fallbackFactory = fallbackFactory;
+	}
+
+	@Override
+	public void register(String tag, TagListener listener) {
+		if (fallback == null && PathListeners.isPath(tag)) {
+			fallback();
+		}
+		if (fallback != null) {
+			fallback.register(tag, listener);
+		} else {
+			super.register(tag, listener);
+		}
+	}
+
+	@Override
+	public void register(String tag, BatchListener listener, int batchSize) {
+		fallback().register(tag, listener, batchSize);
+	}
+
+	@Override
+	public void setAsyncDispatcher(AsyncDispatcher dispatcher) {
+		super.setAsyncDispatcher(dispatcher);
+		if (fallback != null) {
+			fallback.setAsyncDispatcher(dispatcher);
+		}
+	}
+
+	@Override
+	public void setMetrics(ParseMetrics metrics) {
+		super.setMetrics(metrics);
+		if (fallback != null) {
+			fallback.setMetrics(metrics);
+		}
+	}
+
+	@Override
+	public <E> CloseableIterator<E> iterate(InputStream xml, Class<E> itemClass) throws IOException {
+		return ((ListIterable) fallback()).iterate(xml, itemClass);
+	}
+
+	/**
+	 * @return parser parses are delegated to, created with listeners registered until now
+	 */
+	private Parser<T> fallback() {
+		if (fallback == null) {
+			Parser<T> created = fallbackFactory.get();
+			copyTo(created);
+			fallback = created;
+		}
+		return fallback;
+	}
+
+	@Override
+	public T parse(String xml) throws InvalidXMLFormatException, CharacterCodingException {
+
+		if (xml == null) {
+			throw new NullPointerException();
+		}
+		return parse(xml, Charset.forName("UTF-8"));
+	}
+
+	@Override
+	public T parse(String xml, Charset charset) throws InvalidXMLFormatException, CharacterCodingException {
+
+		if (xml == null) {
+			throw new NullPointerException();
+		}
+		return parse(xml.getBytes(charset));
+	}
+
+	@Override
+	public T parse(byte[] xml) throws InvalidXMLFormatException, CharacterCodingException {
+
+		if (xml == null) {
+			throw new NullPointerException();
+		}
+		return parse(new ByteArrayInputStream(xml));
+	}
+
+	@Override
+	public T parse(InputStream xml) throws InvalidXMLFormatException, CharacterCodingException {
+
+		if (xml == null) {
+			throw new NullPointerException();
+		}
+		if (fallback != null) {
+			return delegate(() -> fallback.parse(xml));
+		}
+
+		beginParse();
+		XMLStreamReader2 xmlStreamReader;
+		try {
+			xmlStreamReader = (XMLStreamReader2) xmlInputFactory.createXMLStreamReader(meter(xml));
+		} catch (XMLStreamException e) {
+			//parse has begun, it must end even if content can not be read
+			endParse(0, 0, 0, true, false);
+			throw new CharacterCodingException();
+		}
+		return parse(xmlStreamReader);
+	}
+
+	@Override
+	public T parse(Reader xml) throws InvalidXMLFormatException, CharacterCodingException {
+
+		if (xml == null) {
+			throw new NullPointerException();
+		}
+		if (fallback != null) {
+			return delegate(() -> fallback.parse(xml));
+		}
+
+		beginParse();
+		XMLStreamReader2 xmlStreamReader;
+		try {
+			xmlStreamReader = (XMLStreamReader2) xmlInputFactory.createXMLStreamReader(meter(xml));
+		} catch (XMLStreamException e) {
+			//parse has begun, it must end even if content can not be read
+			endParse(0, 0, 0, true, false);
+			throw new CharacterCodingException();
+		}
+		return parse(xmlStreamReader);
+	}
+
+	private T delegate(Parse<T> parse) throws InvalidXMLFormatException, CharacterCodingException {
+		try {
+			return parse.run();
+		} catch (InvalidXMLFormatException | CharacterCodingException e) {
+			throw e;
+		} catch (IOException e) {
+			throw new InvalidXMLFormatException("Impossible to parse XML. Msg:" + e.getMessage());
+		}
+	}
+
+	private T parse(XMLStreamReader2 xmlStreamReader) throws InvalidXMLFormatException {
+
+		T obj = binder.newInstance();
+		BindingContext context = new BindingContext(listeners, dispatcher);
+		String rootTag = binder.rootTag();
+
+		try {
+			//Object to parse could not be the most outer element
+			while (xmlStreamReader.hasNext()) {
+				if (context.next(xmlStreamReader) == XMLEvent.START_ELEMENT && rootTag.equals(xmlStreamReader.getLocalName())) {
+					binder.read(xmlStreamReader, obj, context);
+					break;
+				}
+			}
+		} catch (XMLStreamException e) {
+			obj.markAsIncomplete();
+		} catch (NullPointerException e) {
+			throw e;
+		} catch (RuntimeException e) {
+			throw new InvalidXMLFormatException("Impossible to parse XML. Msg:" + e.getMessage());
+		} finally {
+			try {
+				xmlStreamReader.close();
+			} catch (Exception e) {
+				//nothing to do
+			}
+			endParse(context.getEvents(), context.getBound(), context.getSkipped(), obj.isIncomplete(), context.isStopped());
+		}
+		return obj;
+	}
+
+	private interface Parse<T> {
+		T run() throws IOException;
+	}
+}
@@ -0,0 +1,38 @@
+package cat.altimiras.xml.bind;
+
+import cat.altimiras.xml.XMLElement;
+import org.codehaus.stax2.XMLStreamReader2;
+
+import javax.xml.stream.XMLStreamException;
+
+/**
+ * Reads xml to a specific class without reflection. Implementations are generated at compile time by
+ * XMLBindingProcessor and discovered with ServiceLoader.
+ *
+ * @param <T>
+ */
+public interface XMLBinder<T extends XMLElement> {
+
+	/**
+	 * @return class this binder populates
+	 */
+	Class<T> type();
+
+	/**
+	 * @return tag of the xml element that contains the class
+	 */
+	String rootTag();
+
+	T newInstance();
+
+	/**
+	 * Populates o with the xml element where reader is positioned (START_ELEMENT). Returns when element is closed,
+	 * or before if a listener has stopped the parsing.
+	 *
+	 * @param reader
+	 * @param o
+	 * @param context
+	 * @throws XMLStreamException if xml is not valid or incomplete
+	 */
+	void read(XMLStreamReader2 reader, T o, BindingContext context) throws XMLStreamException;
+}
@@ -0,0 +1,17 @@
+package cat.altimiras.xml.bind;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a XMLElement class to get its XMLBinder generated at compile time by XMLBindingProcessor.
+ * Classes reachable from its fields are generated too.
+ * <p>
+ * Bound fields must be non private or have a setter (and a getter for lists).
+ */
+@Retention(RetentionPolicy.CLASS)
+@Target(ElementType.TYPE)
+public @interface XMLBinding {
+}
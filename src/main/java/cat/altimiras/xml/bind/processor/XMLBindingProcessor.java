@@ -0,0 +1,543 @@
+package cat.altimiras.xml.bind.processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardLocation;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Generates a XMLBinder for every class annotated with XMLBinding and for every class reachable from its fields.
+ * Generated binders are registered as services (META-INF/services) to be discovered by XMLFactory.
+ * <p>
+ * Generated code follows same rules as ClassIntrospector: tags and attributes map to fields by name (or XmlElement name),
+ * a list is not wrapped when its tag is the tag of its elements class, and unknown tags are skipped.
+ */
+@SupportedAnnotationTypes("cat.altimiras.xml.bind.XMLBinding")
+public class XMLBindingProcessor extends AbstractProcessor {
+
+	private static final String XML_ELEMENT_CLASS = "cat.altimiras.xml.XMLElement";
+	private static final String XML_ELEMENT_ANNOTATION = "javax.xml.bind.annotation.XmlElement";
+	private static final String XML_ROOT_ELEMENT_ANNOTATION = "javax.xml.bind.annotation.XmlRootElement";
+	private static final String JAXB_DEFAULT_NAME = "##default";
+	private static final String BINDER_SUFFIX = "XMLBinder";
+
+	/**
+	 * Simple types supported: class name -> expression converting String v (%s) to it
+	 */
+	private static final Map<String, String> CONVERSIONS = new HashMap<>();
+
+	static {
+		CONVERSIONS.put("java.lang.String", "%s");
+		CONVERSIONS.put("java.lang.Integer", "Integer.valueOf(%s.trim())");
+		CONVERSIONS.put("int", "Integer.parseInt(%s.trim())");
+		CONVERSIONS.put("java.lang.Long", "Long.valueOf(%s.trim())");
+		CONVERSIONS.put("long", "Long.parseLong(%s.trim())");
+		CONVERSIONS.put("java.lang.Double", "Double.valueOf(%s.trim())");
+		CONVERSIONS.put("double", "Double.parseDouble(%s.trim())");
+		CONVERSIONS.put("java.lang.Float", "Float.valueOf(%s.trim())");
+		CONVERSIONS.put("float", "Float.parseFloat(%s.trim())");
+		CONVERSIONS.put("java.lang.Boolean", "Boolean.valueOf(%s.trim())");
+		CONVERSIONS.put("boolean", "Boolean.parseBoolean(%s.trim())");
+	}
+
+	/**
+	 * Binders generated in any round, fully qualified names
+	 */
+	private final Set<String> binders = new LinkedHashSet<>();
+
+	@Override
+	public SourceVersion getSupportedSourceVersion() {
+		return SourceVersion.latestSupported();
+	}
+
+	@Override
+	public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+
+		for (TypeElement annotation : annotations) {
+			for (Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+				if (element.getKind() != ElementKind.CLASS) {
+					error(element, "XMLBinding is only supported on classes");
+				} else {
+					generate((TypeElement) element);
+				}
+			}
+		}
+
+		if (roundEnv.processingOver() && !binders.isEmpty()) {
+			writeServices();
+		}
+		return true;
+	}
+
+	private void generate(TypeElement type) {
+
+		String binder = binderName(type);
+		if (!binders.add(binder)) {
+			return;
+		}
+
+		if (!isXMLElement(type.asType())) {
+			error(type, "All classes MUST extend XMLElement. " + type.getQualifiedName() + " do not.");
+			return;
+		}
+		if (!hasDefaultConstructor(type)) {
+			error(type, type.getQualifiedName() + " needs a non private constructor without arguments");
+			return;
+		}
+
+		List<Binding> bindings = new ArrayList<>();
+		Set<String> names = new LinkedHashSet<>();
+		for (VariableElement field : ElementFilter.fieldsIn(type.getEnclosedElements())) {
+			if (field.getModifiers().contains(Modifier.STATIC) || field.getModifiers().contains(Modifier.TRANSIENT)) {
+				continue;
+			}
+			Binding binding = bind(type, field);
+			if (binding == null) {
+				continue;
+			}
+			if (!names.add(binding.name)) {
+				error(field, "Tag " + binding.name + " is mapped to more than one field");
+				continue;
+			}
+			bindings.add(binding);
+		}
+
+		for (Binding binding : bindings) {
+			if (binding.nested != null) {
+				generate(binding.nested);
+			}
+		}
+
+		write(type, binder, bindings);
+	}
+
+	/**
+	 * Resolves how a field is bound
+	 *
+	 * @return null if field is not bindable
+	 */
+	private Binding bind(TypeElement owner, VariableElement field) {
+
+		Binding binding = new Binding();
+		binding.field = field.getSimpleName().toString();
+		binding.name = xmlName(field);
+
+		TypeMirror type = field.asType();
+		if (isSimple(type)) {
+			binding.kind = Kind.SIMPLE;
+			binding.type = type.toString();
+		} else if (isList(type)) {
+			List<? extends TypeMirror> args = ((DeclaredType) type).getTypeArguments();
+			if (args.size() != 1) {
+				warning(field, "Raw lists are not supported, field ignored");
+				return null;
+			}
+			TypeMirror element = args.get(0);
+			binding.type = element.toString();
+			if (isSimple(element)) {
+				binding.kind = Kind.SIMPLE_LIST;
+			} else if (isXMLElement(element)) {
+				binding.nested = (TypeElement) ((DeclaredType) element).asElement();
+				binding.kind = binding.name.equals(rootTag(binding.nested)) ? Kind.UNWRAPPED_LIST : Kind.LIST;
+			} else {
+				warning(field, "Type of list elements is not supported, field ignored");
+				return null;
+			}
+		} else if (isXMLElement(type)) {
+			binding.kind = Kind.OBJECT;
+			binding.nested = (TypeElement) ((DeclaredType) type).asElement();
+			binding.type = binding.nested.getQualifiedName().toString();
+		} else {
+			warning(field, "Type is not supported, field ignored");
+			return null;
+		}
+
+		String capitalized = Character.toUpperCase(binding.field.charAt(0)) + binding.field.substring(1);
+		if (field.getModifiers().contains(Modifier.PRIVATE)) {
+			if (!hasMethod(owner, "set" + capitalized, 1)) {
+				error(field, "Private field " + binding.field + " needs a setter set" + capitalized + " or to be non private");
+				return null;
+			}
+			binding.setter = "set" + capitalized;
+			if (binding.kind == Kind.LIST || binding.kind == Kind.UNWRAPPED_LIST || binding.kind == Kind.SIMPLE_LIST) {
+				if (!hasMethod(owner, "get" + capitalized, 0)) {
+					error(field, "Private list " + binding.field + " needs a getter get" + capitalized + " or to be non private");
+					return null;
+				}
+				binding.getter = "get" + capitalized;
+			}
+		}
+		return binding;
+	}
+
+	private void write(TypeElement type, String binder, List<Binding> bindings) {
+
+		String pkg = packageOf(type);
+		String simpleBinder = binder.substring(pkg.isEmpty() ? 0 : pkg.length() + 1);
+		String clazz = type.getQualifiedName().toString();
+
+		Source src = new Source();
+		if (!pkg.isEmpty()) {
+			src.line(0, "package " + pkg + ";").line(0, "");
+		}
+		src.line(0, "import cat.altimiras.xml.bind.BindingContext;")
+				.line(0, "import cat.altimiras.xml.bind.XMLBinder;")
+				.line(0, "import org.codehaus.stax2.XMLStreamReader2;")
+				.line(0, "")
+				.line(0, "import javax.xml.stream.XMLStreamException;")
+				.line(0, "import javax.xml.stream.events.XMLEvent;")
+				.line(0, "")
+				.line(0, "/**")
+				.line(0, " * Generated by XMLBindingProcessor for " + clazz + ". Do not edit.")
+				.line(0, " */")
+				.line(0, "public final class " + simpleBinder + " implements XMLBinder<" + clazz + "> {")
+				.line(0, "")
+				.line(1, "@Override")
+				.line(1, "public Class<" + clazz + "> type() {")
+				.line(2, "return " + clazz + ".class;")
+				.line(1, "}")
+				.line(0, "")
+				.line(1, "@Override")
+				.line(1, "public String rootTag() {")
+				.line(2, "return \"" + rootTag(type) + "\";")
+				.line(1, "}")
+				.line(0, "")
+				.line(1, "@Override")
+				.line(1, "public " + clazz + " newInstance() {")
+				.line(2, "return new " + clazz + "();")
+				.line(1, "}")
+				.line(0, "")
+				.line(1, "@Override")
+				.line(1, "public void read(XMLStreamReader2 reader, " + clazz + " o, BindingContext context) throws XMLStreamException {")
+				.line(2, "bind(reader, o, context);")
+				.line(1, "}")
+				.line(0, "")
+				.line(1, "public static void bind(XMLStreamReader2 reader, " + clazz + " o, BindingContext context) throws XMLStreamException {");
+
+		//attributes, only simple fields can be attributes
+		boolean hasSimple = false;
+		for (Binding binding : bindings) {
+			hasSimple |= binding.kind == Kind.SIMPLE;
+		}
+		if (hasSimple) {
+			src.line(2, "for (int i = 0; i < reader.getAttributeCount(); i++) {")
+					.line(3, "String v = reader.getAttributeValue(i);")
+					.line(3, "switch (reader.getAttributeLocalName(i)) {");
+			for (Binding binding : bindings) {
+				if (binding.kind == Kind.SIMPLE) {
+					src.line(4, "case \"" + binding.name + "\":");
+					assign(src, 5, binding, "v");
+					src.line(5, "context.bound();")
+							.line(5, "break;");
+				}
+			}
+			src.line(4, "default:")
+					.line(5, "break;")
+					.line(3, "}")
+					.line(2, "}");
+		}
+
+		//elements
+		src.line(2, "while (!context.isStopped()) {")
+				.line(3, "int event = context.next(reader);")
+				.line(3, "if (event == XMLEvent.END_ELEMENT) {")
+				.line(4, "return;")
+				.line(3, "}")
+				.line(3, "if (event != XMLEvent.START_ELEMENT) {")
+				.line(4, "continue;")
+				.line(3, "}")
+				.line(3, "switch (reader.getLocalName()) {");
+		for (Binding binding : bindings) {
+			src.line(4, "case \"" + binding.name + "\": {");
+			switch (binding.kind) {
+				case SIMPLE:
+					src.line(5, "String v = context.text(reader);")
+							.line(5, "if (v != null) {");
+					assign(src, 6, binding, "v");
+					src.line(6, "context.notify(\"" + binding.name + "\", v);")
+							.line(5, "}");
+					break;
+				case OBJECT:
+					src.line(5, binding.type + " v = new " + binding.type + "();");
+					src.line(5, set(binding, "v") + ";");
+					src.line(5, binderName(binding.nested) + ".bind(reader, v, context);")
+							.line(5, "context.notify(\"" + binding.name + "\", v);");
+					break;
+				case UNWRAPPED_LIST:
+					list(src, binding);
+					src.line(5, binding.type + " v = new " + binding.type + "();")
+							.line(5, "list.add(v);")
+							.line(5, binderName(binding.nested) + ".bind(reader, v, context);")
+							.line(5, "context.notify(\"" + binding.name + "\", v);");
+					break;
+				case LIST:
+					list(src, binding);
+					src.line(5, "while (!context.isStopped()) {")
+							.line(6, "int itemEvent = context.next(reader);")
+							.line(6, "if (itemEvent == XMLEvent.END_ELEMENT) {")
+							.line(7, "break;")
+							.line(6, "}")
+							.line(6, "if (itemEvent != XMLEvent.START_ELEMENT) {")
+							.line(7, "continue;")
+							.line(6, "}")
+							.line(6, "String itemTag = reader.getLocalName();")
+							.line(6, binding.type + " v = new " + binding.type + "();")
+							.line(6, "list.add(v);")
+							.line(6, binderName(binding.nested) + ".bind(reader, v, context);")
+							.line(6, "context.notify(itemTag, v);")
+							.line(5, "}")
+							.line(5, "context.notify(\"" + binding.name + "\", list);");
+					break;
+				case SIMPLE_LIST:
+					//wrapped (<values><value>1</value></values>) or unwrapped (<values>1</values><values>2</values>), known by its content
+					list(src, binding);
+					src.line(5, "String text = null;")
+							.line(5, "boolean wrapped = false;")
+							.line(5, "while (!context.isStopped()) {")
+							.line(6, "int itemEvent = context.next(reader);")
+							.line(6, "if (itemEvent == XMLEvent.END_ELEMENT) {")
+							.line(7, "break;")
+							.line(6, "}")
+							.line(6, "if (itemEvent == XMLEvent.CHARACTERS || itemEvent == XMLEvent.CDATA) {")
+							.line(7, "text = text == null ? reader.getText() : text + reader.getText();")
+							.line(7, "continue;")
+							.line(6, "}")
+							.line(6, "if (itemEvent != XMLEvent.START_ELEMENT) {")
+							.line(7, "continue;")
+							.line(6, "}")
+							.line(6, "wrapped = true;")
+							.line(6, "String v = context.text(reader);")
+							.line(6, "if (v != null) {");
+					convert(src, 7, binding.type, "v", "list.add(%s);");
+					src.line(7, "context.bound();")
+							.line(6, "}")
+							.line(5, "}")
+							.line(5, "if (!wrapped && text != null && !text.trim().isEmpty()) {");
+					convert(src, 6, binding.type, "text", "list.add(%s);");
+					src.line(6, "context.bound();")
+							.line(5, "}")
+							.line(5, "context.notify(\"" + binding.name + "\", list);");
+					break;
+				default:
+					break;
+			}
+			src.line(5, "break;")
+					.line(4, "}");
+		}
+		src.line(4, "default:")
+				.line(5, "context.skip(reader);")
+				.line(5, "break;")
+				.line(3, "}")
+				.line(2, "}")
+				.line(1, "}")
+				.line(0, "}");
+
+		try {
+			JavaFileObject file = processingEnv.getFiler().createSourceFile(binder, type);
+			try (Writer writer = file.openWriter()) {
+				writer.write(src.toString());
+			}
+		} catch (IOException e) {
+			error(type, "Impossible to generate " + binder + ". Msg:" + e.getMessage());
+		}
+	}
+
+	/**
+	 * Gets (or creates if null) list of the field in a local variable called list
+	 */
+	private void list(Source src, Binding binding) {
+		src.line(5, "java.util.List<" + binding.type + "> list = " + get(binding) + ";")
+				.line(5, "if (list == null) {")
+				.line(6, "list = new java.util.ArrayList<>();")
+				.line(6, set(binding, "list") + ";")
+				.line(5, "}");
+	}
+
+	private void assign(Source src, int indent, Binding binding, String value) {
+		convert(src, indent, binding.type, value, binding.setter == null ? "o." + binding.field + " = %s;" : "o." + binding.setter + "(%s);");
+	}
+
+	/**
+	 * Writes statement with the value converted to type. Values that can not be converted are ignored
+	 */
+	private void convert(Source src, int indent, String type, String value, String statement) {
+		String conversion = String.format(CONVERSIONS.get(type), value);
+		if ("java.lang.String".equals(type)) {
+			src.line(indent, String.format(statement, conversion));
+		} else {
+			src.line(indent, "try {")
+					.line(indent + 1, String.format(statement, conversion))
+					.line(indent, "} catch (NumberFormatException nfe) {")
+					.line(indent + 1, "//ignore. Not a valid value")
+					.line(indent, "}");
+		}
+	}
+
+	private String set(Binding binding, String value) {
+		return binding.setter == null ? "o." + binding.field + " = " + value : "o." + binding.setter + "(" + value + ")";
+	}
+
+	private String get(Binding binding) {
+		return binding.getter == null ? "o." + binding.field : "o." + binding.getter + "()";
+	}
+
+	private void writeServices() {
+		try {
+			FileObject file = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", "META-INF/services/cat.altimiras.xml.bind.XMLBinder");
+			try (Writer writer = file.openWriter()) {
+				for (String binder : binders) {
+					writer.write(binder);
+					writer.write("\n");
+				}
+			}
+		} catch (IOException e) {
+			processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Impossible to register XMLBinders. Msg:" + e.getMessage());
+		}
+	}
+
+	private boolean isSimple(TypeMirror type) {
+		return CONVERSIONS.containsKey(type.toString());
+	}
+
+	private boolean isList(TypeMirror type) {
+		if (type.getKind() != TypeKind.DECLARED) {
+			return false;
+		}
+		String name = ((TypeElement) ((DeclaredType) type).asElement()).getQualifiedName().toString();
+		return "java.util.List".equals(name) || "java.util.ArrayList".equals(name);
+	}
+
+	private boolean isXMLElement(TypeMirror type) {
+		TypeElement xmlElement = processingEnv.getElementUtils().getTypeElement(XML_ELEMENT_CLASS);
+		return type.getKind() == TypeKind.DECLARED
+				&& xmlElement != null
+				&& processingEnv.getTypeUtils().isSubtype(processingEnv.getTypeUtils().erasure(type), xmlElement.asType());
+	}
+
+	private boolean hasDefaultConstructor(TypeElement type) {
+		for (ExecutableElement constructor : ElementFilter.constructorsIn(type.getEnclosedElements())) {
+			if (constructor.getParameters().isEmpty() && !constructor.getModifiers().contains(Modifier.PRIVATE)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private boolean hasMethod(TypeElement type, String name, int parameters) {
+		for (ExecutableElement method : ElementFilter.methodsIn(type.getEnclosedElements())) {
+			if (method.getSimpleName().contentEquals(name)
+					&& method.getParameters().size() == parameters
+					&& !method.getModifiers().contains(Modifier.PRIVATE)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private String xmlName(VariableElement field) {
+		String name = annotationName(field, XML_ELEMENT_ANNOTATION);
+		return name == null ? field.getSimpleName().toString() : name;
+	}
+
+	private String rootTag(TypeElement type) {
+		String name = annotationName(type, XML_ROOT_ELEMENT_ANNOTATION);
+		return name == null ? type.getSimpleName().toString() : name;
+	}
+
+	/**
+	 * Name defined by a JAXB annotation. Read from annotation mirrors, so JAXB is not needed to run the processor
+	 *
+	 * @return null if element is not annotated or annotation has no name
+	 */
+	private String annotationName(Element element, String annotation) {
+		for (AnnotationMirror mirror : element.getAnnotationMirrors()) {
+			if (((TypeElement) mirror.getAnnotationType().asElement()).getQualifiedName().contentEquals(annotation)) {
+				for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : mirror.getElementValues().entrySet()) {
+					if (entry.getKey().getSimpleName().contentEquals("name")) {
+						String name = entry.getValue().getValue().toString();
+						return JAXB_DEFAULT_NAME.equals(name) ? null : name;
+					}
+				}
+			}
+		}
+		return null;
+	}
+
+	private String packageOf(TypeElement type) {
+		PackageElement pkg = processingEnv.getElementUtils().getPackageOf(type);
+		return pkg.isUnnamed() ? "" : pkg.getQualifiedName().toString();
+	}
+
+	/**
+	 * Binder lives in the same package of the class, so it can access non private fields. Nested classes are flattened with _
+	 */
+	private String binderName(TypeElement type) {
+		String pkg = packageOf(type);
+		String name = type.getQualifiedName().toString().substring(pkg.isEmpty() ? 0 : pkg.length() + 1).replace('.', '_');
+		return (pkg.isEmpty() ? "" : pkg + ".") + name + BINDER_SUFFIX;
+	}
+
+	private void error(Element element, String msg) {
+		processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, msg, element);
+	}
+
+	private void warning(Element element, String msg) {
+		processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING, msg, element);
+	}
+
+	private enum Kind {
+		SIMPLE, OBJECT, LIST, UNWRAPPED_LIST, SIMPLE_LIST
+	}
+
+	private static class Binding {
+		protected Kind kind;
+		protected String field; //java field name
+		protected String name; //tag or attribute name
+		protected String type; //field type, or list elements type
+		protected TypeElement nested; //class to bind for objects and list of objects
+		protected String setter; //only for private fields
+		protected String getter; //only for private lists
+	}
+
+	private static class Source {
+		private final StringBuilder sb = new StringBuilder();
+
+		Source line(int indent, String line) {
+			for (int i = 0; i < indent; i++) {
+				sb.append('\t');
+			}
+			sb.append(line).append('\n');
+			return this;
+		}
+
+		@Override
+		public String toString() {
+			return sb.toString();
+		}
+	}
+}
@@ -0,0 +1,245 @@
+package cat.altimiras.xml.map;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Map of an element stored as an inline array of keys and values, in insertion order. Most elements have a few
+ * attributes and children, where a linear scan of interned names is cheaper than hashing and a HashMap table wastes
+ * most of its slots. An index is built only for wide elements.
+ */
+final class CompactNode extends AbstractMap<String, Object> {
+
+	private static final Object[] EMPTY = new Object[0];
+
+	/**
+	 * Entries from which lookups use an index instead of a linear scan
+	 */
+	private static final int INDEXED = 16;
+
+	/**
+	 * key, value, key, value...
+	 */
+	private Object[] table = EMPTY;
+	private int size = 0;
+	private HashMap<Object, Integer> index = null;
+
+	CompactNode() {
+	}
+
+	CompactNode(String key, Object value) {
+		table = new Object[]{key, value};
+		size = 1;
+	}
+
+	CompactNode(Map<String, Object> map) {
+		table = new Object[map.size() * 2];
+		for (Map.Entry<String, Object> entry : map.entrySet()) {
+			table[size * 2] = entry.getKey();
+			table[size * 2 + 1] = entry.getValue();
+			size++;
+		}
+	}
+
+	/**
+	 * @return position of key in table, -1 if it is not present
+	 */
+	private int find(Object key) {
+		int length = size * 2;
+		if (length > INDEXED * 2) {
+			if (index == null) {
+				index = new HashMap<>(size * 2);
+				for (int i = 0; i < length; i += 2) {
+					index.put(table[i], i);
+				}
+			}
+			Integer i = index.get(key);
+			return i == null ? -1 : i;
+		}
+		//names are interned, identity matches almost always
+		for (int i = 0; i < length; i += 2) {
+			if (table[i] == key) {
+				return i;
+			}
+		}
+		if (key != null) {
+			for (int i = 0; i < length; i += 2) {
+				if (key.equals(table[i])) {
+					return i;
+				}
+			}
+		}
+		return -1;
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public boolean containsKey(Object key) {
+		return find(key) >= 0;
+	}
+
+	@Override
+	public Object get(Object key) {
+		int i = find(key);
+		return i < 0 ? null : table[i + 1];
+	}
+
+	@Override
+	public Object put(String key, Object value) {
+		int i = find(key);
+		if (i >= 0) {
+			Object previous = table[i + 1];
+			table[i + 1] = value;
+			return previous;
+		}
+		i = size * 2;
+		if (i == table.length) {
+			Object[] grown = new Object[table.length == 0 ? 4 : table.length * 2];
+			System.arraycopy(table, 0, grown, 0, table.length);
+			table = grown;
+		}
+		table[i] = key;
+		table[i + 1] = value;
+		size++;
+		if (index != null) {
+			index.put(key, i);
+		}
+		return null;
+	}
+
+	@Override
+	public Object remove(Object key) {
+		int i = find(key);
+		if (i < 0) {
+			return null;
+		}
+		Object previous = table[i + 1];
+		removeAt(i);
+		return previous;
+	}
+
+	private void removeAt(int i) {
+		int length = size * 2;
+		System.arraycopy(table, i + 2, table, i, length - i - 2);
+		table[length - 2] = null;
+		table[length - 1] = null;
+		size--;
+		index = null;
+	}
+
+	@Override
+	public void clear() {
+		table = EMPTY;
+		size = 0;
+		index = null;
+	}
+
+	@Override
+	public Set<Entry<String, Object>> entrySet() {
+		return new AbstractSet<Entry<String, Object>>() {
+			@Override
+			public Iterator<Entry<String, Object>> iterator() {
+				return new Entries();
+			}
+
+			@Override
+			public int size() {
+				return size;
+			}
+		};
+	}
+
+	private final class Entries implements Iterator<Entry<String, Object>> {
+
+		private int next = 0;
+		private int last = -1;
+
+		@Override
+		public boolean hasNext() {
+			return next < size * 2;
+		}
+
+		@Override
+		public Entry<String, Object> next() {
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+			last = next;
+			next += 2;
+			return new Node(last);
+		}
+
+		@Override
+		public void remove() {
+			if (last < 0) {
+				throw new IllegalStateException();
+			}
+			removeAt(last);
+			next = last;
+			last = -1;
+		}
+	}
+
+	/**
+	 * Entry writing through to the table
+	 */
+	private final class Node implements Entry<String, Object> {
+
+		private final int i;
+
+		private Node(int i) {
+			this.i = i;
+		}
+
+		@Override
+		public String getKey() {
+			return (String) table[i];
+		}
+
+		@Override
+		public Object getValue() {
+			return table[i + 1];
+		}
+
+		@Override
+		public Object setValue(Object value) {
+			Object previous = table[i + 1];
+			table[i + 1] = value;
+			return previous;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (!(o instanceof Entry)) {
+				return false;
+			}
+			Entry e = (Entry) o;
+			return eq(getKey(), e.getKey()) && eq(getValue(), e.getValue());
+		}
+
+		@Override
+		public int hashCode() {
+			Object key = getKey();
+			Object value = getValue();
+			return (key == null ? 0 : key.hashCode()) ^ (value == null ? 0 : value.hashCode());
+		}
+
+		@Override
+		public String toString() {
+			return getKey() + "=" + getValue();
+		}
+
+		private boolean eq(Object a, Object b) {
+			return a == null ? b == null : a.equals(b);
+		}
+	}
+}
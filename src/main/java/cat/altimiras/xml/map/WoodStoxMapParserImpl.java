@@ -1,5 +1,6 @@
 package cat.altimiras.xml.map;
 
+import cat.altimiras.FlightRecorder;
 import cat.altimiras.Parser;
 import cat.altimiras.TagListener;
 import cat.altimiras.xml.exceptions.InvalidXMLFormatException;
@@ -10,6 +11,7 @@ import javax.xml.stream.XMLStreamException;
 import javax.xml.stream.events.XMLEvent;
 import java.io.ByteArrayInputStream;
 import java.io.InputStream;
+import java.io.Reader;
 import java.nio.charset.CharacterCodingException;
 import java.nio.charset.Charset;
 import java.util.ArrayDeque;
@@ -23,20 +25,37 @@ public class WoodStoxMapParserImpl extends Parser<Map> {
 	private final String incompleteKeyName;
 
 	private final XMLInputFactory2 xmlInputFactory;
+	/**
+	 * Elements are built as CompactNode instead of HashMap
+	 */
+	private final boolean compact;
 	/**
 	 * Stack with tags opened and still not closed
 	 */
 	final private ArrayDeque<Context> contexts = new ArrayDeque<>();
 	private Context currentContext;
+	private boolean stop = false;
+
 	/**
-	 * Listeners for tags. Notified every time a tag is totally processed (on close </..> tag)
+	 * Metrics of current parse
 	 */
-	private Map<String, TagListener> listeners = null;
-	private boolean stop = false;
+	private long events = 0;
+	private long bound = 0;
+	private boolean incomplete = false;
 
 	public WoodStoxMapParserImpl(XMLInputFactory2 xmlInputFactory, String incompleteKeyName) {
+		this(xmlInputFactory, incompleteKeyName, false);
+	}
+
+	/**
+	 * @param xmlInputFactory
+	 * @param incompleteKeyName
+	 * @param compact           elements are built as compact maps: small inline arrays, lists attached without copies
+	 */
+	public WoodStoxMapParserImpl(XMLInputFactory2 xmlInputFactory, String incompleteKeyName, boolean compact) {
 		this.xmlInputFactory = xmlInputFactory;
 		this.incompleteKeyName = incompleteKeyName;
+		this.compact = compact;
 	}
 
 	public Map parse(String xml) throws InvalidXMLFormatException, CharacterCodingException {
@@ -58,23 +77,61 @@ public class WoodStoxMapParserImpl extends Parser<Map> {
 		if (xml == null) {
 			throw new NullPointerException("xml can not be null");
 		}
+		return parse(new ByteArrayInputStream(xml));
+	}
 
-		//cleans if had been a previous usage of this class
-		contexts.clear();
-		currentContext = null;
+	public Map parse(InputStream xml) throws InvalidXMLFormatException, CharacterCodingException {
 
-		InputStream xmlInputStream = new ByteArrayInputStream(xml);
+		if (xml == null) {
+			throw new NullPointerException("xml can not be null");
+		}
+
+		beginParse();
 		XMLStreamReader2 xmlStreamReader;
+		try {
+			xmlStreamReader = (XMLStreamReader2) xmlInputFactory.createXMLStreamReader(meter(xml));
+		} catch (XMLStreamException e) {
+			//parse has begun, it must end even if content can not be read
+			endParse(0, 0, 0, true, false);
+			throw new CharacterCodingException();
+		}
+		return parse(xmlStreamReader);
+	}
 
+	public Map parse(Reader xml) throws InvalidXMLFormatException, CharacterCodingException {
+
+		if (xml == null) {
+			throw new NullPointerException("xml can not be null");
+		}
+
+		beginParse();
+		XMLStreamReader2 xmlStreamReader;
 		try {
-			xmlStreamReader = (XMLStreamReader2) xmlInputFactory.createXMLStreamReader(xmlInputStream);
+			xmlStreamReader = (XMLStreamReader2) xmlInputFactory.createXMLStreamReader(meter(xml));
 		} catch (XMLStreamException e) {
+			//parse has begun, it must end even if content can not be read
+			endParse(0, 0, 0, true, false);
 			throw new CharacterCodingException();
 		}
+		return parse(xmlStreamReader);
+	}
+
+	private Map parse(XMLStreamReader2 xmlStreamReader) throws InvalidXMLFormatException {
+
+		//cleans if had been a previous usage of this class
+		contexts.clear();
+		currentContext = null;
+		events = 0;
+		bound = 0;
+		incomplete = false;
+		if (pathListeners != null) {
+			pathListeners.reset();
+		}
 
 		try {
-			while (xmlStreamReader.hasNext() && !stop) {
+			while (xmlStreamReader.hasNext() && !stop && !isCancelled()) {
 				int eventType = xmlStreamReader.next();
+				events++;
 				switch (eventType) {
 					case XMLEvent.START_ELEMENT:
 						onOpenElement(xmlStreamReader);
@@ -99,6 +156,7 @@ public class WoodStoxMapParserImpl extends Parser<Map> {
 
 		} catch (XMLStreamException e) {
 
+			incomplete = true;
 			flushIncomplete();
 
 			if (currentContext == null || currentContext.data == null) {
@@ -113,31 +171,32 @@ public class WoodStoxMapParserImpl extends Parser<Map> {
 			throw new InvalidXMLFormatException("Impossible to parse XML. Msg:" + e.getMessage());
 		} finally {
 			try {
-				xmlInputStream.close();
 				xmlStreamReader.close();
 			} catch (Exception e) {
 				//nothing to do
 			}
 
+			endParse(events, bound, 0, incomplete, stop);
+
 			contexts.clear();
 			currentContext = null;
 			stop = false;
 		}
 	}
 
-	public void register(String tag, TagListener listener) {
-		if (this.listeners == null) {
-			this.listeners = new HashMap<>();
-		}
-		listeners.put(tag, listener);
-	}
-
 	private void onOpenElement(XMLStreamReader2 xmlStreamReader) throws Exception {
 
 		String currentTagName = xmlStreamReader.getName().getLocalPart();
 		Context context = new Context(currentTagName);
 		setAttributes(xmlStreamReader, context);
 
+		if (pathListeners != null) {
+			pathListeners.open(currentTagName);
+		}
+		if (batches != null) {
+			batches.open();
+		}
+
 		contexts.push(context);
 		currentContext = context;
 	}
@@ -153,19 +212,20 @@ public class WoodStoxMapParserImpl extends Parser<Map> {
 	private void onCloseElement(XMLStreamReader2 xmlStreamReader) throws Exception {
 
 		String currentTagName = xmlStreamReader.getName().getLocalPart();
-
+		Context closed = currentContext;
+		closed.closed = true;
 
 		contexts.removeFirst(); //remove current
 		Context context = contexts.peekFirst();
 		if (context != null) {
+			bound++;
 
 			if (context.isList) {
 
 				//check if element gonna insert is the same type of previous one
 				String key = context.getFirstElementName();
 				if (key.equals(currentTagName)) {
-					Element element = new Element(currentTagName, currentContext.getContent());
-					context.list.add(element);
+					context.list.add(newElement(currentTagName, currentContext.getContent()));
 				} else { //if it isn't move current list to a tag element. This happens when there are 2 or mores lists unwrapped
 					context.data.put(key, context.list);
 					context.isList = false;
@@ -184,7 +244,29 @@ public class WoodStoxMapParserImpl extends Parser<Map> {
 
 			currentContext = context;
 
-			stop = notify(currentTagName, currentContext.getContent());
+			if (listeners != null && listeners.containsKey(currentTagName)) {
+				if (dispatcher == null) {
+					stop = notify(currentTagName, currentContext.getContent());
+				} else if (closed.value == null) {
+					//asynchronous listeners read it from other thread: content of closed does not change anymore, parent does.
+					//text was notified when it was read
+					stop = notify(currentTagName, closed.getContent());
+				}
+			}
+		}
+
+		if (pathListeners != null) {
+			if (pathListeners.isListened()) {
+				stop |= pathListeners.close(closed.getContent());
+			} else {
+				pathListeners.close();
+			}
+		}
+		if (batches != null) {
+			if (batches.isBatched(currentTagName)) {
+				stop |= batches.add(currentTagName, closed.getContent());
+			}
+			stop |= batches.close();
 		}
 	}
 
@@ -202,6 +284,7 @@ public class WoodStoxMapParserImpl extends Parser<Map> {
 		Context nested = contexts.pollFirst();
 
 		while (!contexts.isEmpty()) {
+			nested.closed = true;
 			Context current = contexts.removeFirst();
 
 			Object previous = current.data.get(nested.tag);
@@ -214,6 +297,9 @@ public class WoodStoxMapParserImpl extends Parser<Map> {
 			nested = current;
 		}
 
+		if (nested != null) {
+			nested.closed = true;
+		}
 		currentContext = nested;
 	}
 
@@ -225,6 +311,7 @@ public class WoodStoxMapParserImpl extends Parser<Map> {
 			String attValue = xmlStreamReader.getAttributeValue(i);
 			context.data.put(attName, attValue);
 		}
+		bound += attributeCount;
 	}
 
 	/**
@@ -242,7 +329,7 @@ public class WoodStoxMapParserImpl extends Parser<Map> {
 
 		TagListener listener = listeners.get(tag);
 		if (listener != null) {
-			return listener.notify(tag, value);
+			return FlightRecorder.notify(listener, tag, value);
 		}
 		return false; //to continue
 	}
@@ -262,11 +349,17 @@ public class WoodStoxMapParserImpl extends Parser<Map> {
 		//remove previous element before convert it to a list
 		context.data.remove(currentTagName);
 
-		context.list = new ArrayList();
-		Element element = new Element(currentTagName, previous);
-		context.list.add(element);
-		Element element2 = new Element(currentTagName, content);
-		context.list.add(element2);
+		context.list = new ArrayList<>();
+		context.listName = currentTagName;
+		context.list.add(newElement(currentTagName, previous));
+		context.list.add(newElement(currentTagName, content));
+	}
+
+	/**
+	 * @return element of a list, a map with its name and its content
+	 */
+	private Map<String, Object> newElement(String name, Object content) {
+		return compact ? new CompactNode(name, content) : new Element(name, content);
 	}
 
 	private class Context {
@@ -276,14 +369,20 @@ public class WoodStoxMapParserImpl extends Parser<Map> {
 		protected String value;
 
 		protected boolean isList = false;
-		protected List<Element> list;
+		protected List<Map<String, Object>> list;
+		protected String listName;
+
+		protected Map<String, Object> data;
 
-		protected Element data;
+		/**
+		 * Nothing else is added to a closed element
+		 */
+		protected boolean closed = false;
 
 
 		public Context(String tag) {
 			this.tag = tag;
-			this.data = new Element(tag);
+			this.data = compact ? new CompactNode() : new Element(tag);
 		}
 
 		public Object getContent() {
@@ -294,9 +393,13 @@ public class WoodStoxMapParserImpl extends Parser<Map> {
 
 				if (list == null) {
 					return data;
+				} else if (compact && closed) {
+					//attached, data can not change anymore
+					data.put(listName, list);
+					return data;
 				} else {
-					Map copy = new HashMap(data);
-					copy.put(list.get(0).name, list);
+					Map copy = compact ? new CompactNode(data) : new HashMap(data);
+					copy.put(listName, list);
 					return copy;
 
 				}
@@ -305,7 +408,7 @@ public class WoodStoxMapParserImpl extends Parser<Map> {
 		}
 
 		public String getFirstElementName() {
-			return list == null ? null : list.get(0).name;
+			return listName;
 		}
 	}
 
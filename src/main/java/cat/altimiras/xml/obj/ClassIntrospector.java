@@ -15,10 +15,10 @@ import java.util.Map;
 
 public class ClassIntrospector<T> {
 
-	private Map<Long, Field> fields = new HashMap<>();
+	private Map<Class, Map<String, FieldAccessor>> fields = new HashMap<>();
 
-	private Map<Integer, XMLElement> instancesByClass = new HashMap<>();
-	private Map<Integer, XMLElement> instancesByName = new HashMap<>();
+	private Map<Type, XMLElement> instancesByClass = new HashMap<>();
+	private Map<String, XMLElement> instancesByName = new HashMap<>();
 
 	public ClassIntrospector(Class clazz) throws Exception {
 		introspect(clazz);
@@ -43,15 +43,24 @@ public class ClassIntrospector<T> {
 	}
 
 	public Field getField(Class clazz, String fieldName) {
-		return fields.get(mergeHashCodes(fieldName, clazz));
+		FieldAccessor accessor = getAccessor(clazz, fieldName);
+		return accessor == null ? null : accessor.getField();
 	}
 
-	private long mergeHashCodes(Object a, Object b) {
-		return (((long) a.hashCode()) << 32) | (b.hashCode() & 0xffffffffL);
+	/**
+	 * Get the accessor to read and write a field, precomputed at introspection time
+	 *
+	 * @param clazz
+	 * @param fieldName tag or attribute name
+	 * @return null if class has no field for this name
+	 */
+	FieldAccessor getAccessor(Class clazz, String fieldName) {
+		Map<String, FieldAccessor> accessors = fields.get(clazz);
+		return accessors == null ? null : accessors.get(fieldName);
 	}
 
 	public boolean hasField(Class clazz, String fieldName) {
-		return fields.containsKey(mergeHashCodes(fieldName, clazz));
+		return getAccessor(clazz, fieldName) != null;
 	}
 
 	/**
@@ -62,7 +71,7 @@ public class ClassIntrospector<T> {
 	 */
 	public XMLElement getInstance(Type clazz) {
 		try {
-			XMLElement base = instancesByClass.get(clazz.hashCode());
+			XMLElement base = instancesByClass.get(clazz);
 			if (base != null) {
 				return (XMLElement) base.clone();
 			}
@@ -80,7 +89,7 @@ public class ClassIntrospector<T> {
 	 */
 	public XMLElement getInstance(String className) {
 		try {
-			XMLElement base = instancesByName.get(className.hashCode());
+			XMLElement base = instancesByName.get(className);
 			if (base != null) {
 				return (XMLElement) base.clone();
 			}
@@ -91,14 +100,16 @@ public class ClassIntrospector<T> {
 	}
 
 	public int getClassHashCode(Class clazz) {
+		return getClassName(clazz).hashCode();
+	}
+
+	/**
+	 * @param clazz
+	 * @return tag name of the class
+	 */
+	private String getClassName(Class clazz) {
 		XmlRootElement root = (XmlRootElement) clazz.getAnnotation(XmlRootElement.class);
-		int hash;
-		if (root == null) {
-			hash = clazz.getSimpleName().hashCode();
-		} else {
-			hash = root.name().hashCode();
-		}
-		return hash;
+		return root == null ? clazz.getSimpleName() : root.name();
 	}
 
 	private void introspect(Class clazz) throws Exception {
@@ -107,15 +118,15 @@ public class ClassIntrospector<T> {
 			throw new Exception("All classes MUST extend XMLElement. " + clazz.getName() + " do not.");
 		}
 
-		if (instancesByClass.containsKey(clazz.hashCode())) {
+		if (instancesByClass.containsKey(clazz)) {
 			return;
 		} else {
 
-			Integer hash = getClassHashCode(clazz);
 			XMLElement element = (XMLElement) Class.forName(clazz.getName()).newInstance();
-			instancesByClass.put(clazz.hashCode(), element);
-			instancesByName.put(hash, element);
+			instancesByClass.put(clazz, element);
+			instancesByName.put(getClassName(clazz), element);
 
+			Map<String, FieldAccessor> accessors = new HashMap<>();
 			Field[] fs = clazz.getDeclaredFields();
 			for (Field field : fs) {
 
@@ -128,22 +139,23 @@ public class ClassIntrospector<T> {
 				}
 
 
-				field.setAccessible(true);
+				FieldAccessor accessor = new FieldAccessor(field);
 
 				//check primitives or simple objects
 				if (isPrimitive(field.getType())) {
-					fields.put(mergeHashCodes(fieldName, clazz), field);
+					accessors.put(fieldName, accessor);
 				} else if (field.getType().isAssignableFrom(List.class)) {
-					fields.put(mergeHashCodes(fieldName, clazz), field);
+					accessors.put(fieldName, accessor);
 					if (!isPrimitive((Class) ((ParameterizedTypeImpl) field.getAnnotatedType().getType()).getActualTypeArguments()[0])) {
 						introspect((Class) ((ParameterizedTypeImpl) field.getAnnotatedType().getType()).getActualTypeArguments()[0]);
 					}
 				} else {
 					//recursive introspection
-					fields.put(mergeHashCodes(fieldName, clazz), field);
+					accessors.put(fieldName, accessor);
 					introspect(field.getType());
 				}
 			}
+			fields.put(clazz, accessors);
 		}
 	}
 }
@@ -0,0 +1,218 @@
+package cat.altimiras.xml.obj;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+
+/**
+ * Precomputed plan to read and write a field. Built once per field at introspection time. Values are written through
+ * MethodHandles instead of reflective Field.set, so JIT can inline them.
+ */
+class FieldAccessor {
+
+	private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+	private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+
+	private final Field field;
+	private final ValueType valueType;
+	private final boolean primitive;
+	private final boolean list;
+	/**
+	 * Type of the list elements. Only when field is a list
+	 */
+	private final Class listElementClass;
+	private final ValueType listElementValueType;
+
+	/**
+	 * (Object, Object)void. null if field can not be written through a MethodHandle (static or final)
+	 */
+	private final MethodHandle setter;
+	/**
+	 * (Object, primitive)void, to write primitive values without boxing. Only for int, long, double, float and boolean
+	 * fields that can be written through a MethodHandle
+	 */
+	private final MethodHandle primitiveSetter;
+	/**
+	 * (Object)Object. null if field can not be read through a MethodHandle (static)
+	 */
+	private final MethodHandle getter;
+
+	FieldAccessor(Field field) throws IllegalAccessException {
+		this.field = field;
+		this.valueType = ValueType.of(field.getType());
+		this.primitive = ClassIntrospector.isPrimitive(field.getType());
+		this.list = ClassIntrospector.isList(field.getType());
+
+		if (list && field.getGenericType() instanceof ParameterizedType) {
+			Type type = ((ParameterizedType) field.getGenericType()).getActualTypeArguments()[0];
+			this.listElementClass = type instanceof Class ? (Class) type : Object.class;
+		} else {
+			this.listElementClass = null;
+		}
+		this.listElementValueType = listElementClass == null ? null : ValueType.of(listElementClass);
+
+		field.setAccessible(true);
+		int modifiers = field.getModifiers();
+		MethodHandles.Lookup lookup = MethodHandles.lookup();
+		if (Modifier.isStatic(modifiers)) {
+			this.setter = null;
+			this.primitiveSetter = null;
+			this.getter = null;
+		} else {
+			this.getter = lookup.unreflectGetter(field).asType(GETTER_TYPE);
+			if (Modifier.isFinal(modifiers)) {
+				this.setter = null;
+				this.primitiveSetter = null;
+			} else {
+				MethodHandle unreflected = lookup.unreflectSetter(field);
+				this.setter = unreflected.asType(SETTER_TYPE);
+				this.primitiveSetter = field.getType().isPrimitive() ? unreflected.asType(MethodType.methodType(void.class, Object.class, field.getType())) : null;
+			}
+		}
+	}
+
+	/**
+	 * Writes value to field of target object
+	 *
+	 * @param target
+	 * @param value  already converted to field type
+	 */
+	void set(Object target, Object value) throws IllegalAccessException {
+		if (setter == null) {
+			field.set(target, value);
+			return;
+		}
+		try {
+			setter.invokeExact(target, value);
+		} catch (RuntimeException | Error e) {
+			throw e;
+		} catch (Throwable t) {
+			throw new IllegalStateException(t);
+		}
+	}
+
+	void setInt(Object target, int value) throws IllegalAccessException {
+		if (primitiveSetter == null) {
+			field.setInt(target, value);
+			return;
+		}
+		try {
+			primitiveSetter.invokeExact(target, value);
+		} catch (RuntimeException | Error e) {
+			throw e;
+		} catch (Throwable t) {
+			throw new IllegalStateException(t);
+		}
+	}
+
+	void setLong(Object target, long value) throws IllegalAccessException {
+		if (primitiveSetter == null) {
+			field.setLong(target, value);
+			return;
+		}
+		try {
+			primitiveSetter.invokeExact(target, value);
+		} catch (RuntimeException | Error e) {
+			throw e;
+		} catch (Throwable t) {
+			throw new IllegalStateException(t);
+		}
+	}
+
+	void setDouble(Object target, double value) throws IllegalAccessException {
+		if (primitiveSetter == null) {
+			field.setDouble(target, value);
+			return;
+		}
+		try {
+			primitiveSetter.invokeExact(target, value);
+		} catch (RuntimeException | Error e) {
+			throw e;
+		} catch (Throwable t) {
+			throw new IllegalStateException(t);
+		}
+	}
+
+	void setFloat(Object target, float value) throws IllegalAccessException {
+		if (primitiveSetter == null) {
+			field.setFloat(target, value);
+			return;
+		}
+		try {
+			primitiveSetter.invokeExact(target, value);
+		} catch (RuntimeException | Error e) {
+			throw e;
+		} catch (Throwable t) {
+			throw new IllegalStateException(t);
+		}
+	}
+
+	void setBoolean(Object target, boolean value) throws IllegalAccessException {
+		if (primitiveSetter == null) {
+			field.setBoolean(target, value);
+			return;
+		}
+		try {
+			primitiveSetter.invokeExact(target, value);
+		} catch (RuntimeException | Error e) {
+			throw e;
+		} catch (Throwable t) {
+			throw new IllegalStateException(t);
+		}
+	}
+
+	/**
+	 * Reads field value from target object
+	 *
+	 * @param target
+	 * @return
+	 */
+	Object get(Object target) throws IllegalAccessException {
+		if (getter == null) {
+			return field.get(target);
+		}
+		try {
+			return (Object) getter.invokeExact(target);
+		} catch (RuntimeException | Error e) {
+			throw e;
+		} catch (Throwable t) {
+			throw new IllegalStateException(t);
+		}
+	}
+
+	Field getField() {
+		return field;
+	}
+
+	String getName() {
+		return field.getName();
+	}
+
+	Class getType() {
+		return field.getType();
+	}
+
+	boolean isPrimitive() {
+		return primitive;
+	}
+
+	boolean isList() {
+		return list;
+	}
+
+	Class getListElementClass() {
+		return listElementClass;
+	}
+
+	ValueType getValueType() {
+		return valueType;
+	}
+
+	ValueType getListElementValueType() {
+		return listElementValueType;
+	}
+}
@@ -0,0 +1,229 @@
+package cat.altimiras.xml.obj;
+
+/**
+ * Type of a bound value, resolved once per field at introspection time so conversion does not need to check the field
+ * class for every value.
+ * <p>
+ * Integer types and booleans can be parsed directly from a char buffer, without creating an intermediate String.
+ */
+enum ValueType {
+
+	STRING {
+		@Override
+		Object convert(String value) {
+			return value;
+		}
+	},
+	INT {
+		@Override
+		Object convert(String value) {
+			return Integer.valueOf(value.trim());
+		}
+	},
+	LONG {
+		@Override
+		Object convert(String value) {
+			return Long.valueOf(value.trim());
+		}
+	},
+	DOUBLE {
+		@Override
+		Object convert(String value) {
+			return Double.valueOf(value.trim());
+		}
+	},
+	FLOAT {
+		@Override
+		Object convert(String value) {
+			return Float.valueOf(value.trim());
+		}
+	},
+	BOOLEAN {
+		@Override
+		Object convert(String value) {
+			return Boolean.valueOf(value.trim());
+		}
+	},
+	BOXED_INT {
+		@Override
+		Object convert(String value) {
+			return INT.convert(value);
+		}
+	},
+	BOXED_LONG {
+		@Override
+		Object convert(String value) {
+			return LONG.convert(value);
+		}
+	},
+	BOXED_DOUBLE {
+		@Override
+		Object convert(String value) {
+			return DOUBLE.convert(value);
+		}
+	},
+	BOXED_FLOAT {
+		@Override
+		Object convert(String value) {
+			return FLOAT.convert(value);
+		}
+	},
+	BOXED_BOOLEAN {
+		@Override
+		Object convert(String value) {
+			return BOOLEAN.convert(value);
+		}
+	},
+	/**
+	 * Not a simple value: objects and lists. Values are not converted
+	 */
+	OBJECT {
+		@Override
+		Object convert(String value) {
+			return value;
+		}
+	};
+
+	/**
+	 * Converts a String to this type
+	 *
+	 * @param value
+	 * @return
+	 * @throws NumberFormatException if value is not valid for this type
+	 */
+	abstract Object convert(String value);
+
+	/**
+	 * Converts value if it is a String, otherwise value is returned as it is
+	 *
+	 * @param value
+	 * @return
+	 */
+	Object convert(Object value) {
+		return value instanceof String ? convert((String) value) : value;
+	}
+
+	static ValueType of(Class type) {
+		if (type == String.class) {
+			return STRING;
+		} else if (type == Integer.TYPE) {
+			return INT;
+		} else if (type == Integer.class) {
+			return BOXED_INT;
+		} else if (type == Long.TYPE) {
+			return LONG;
+		} else if (type == Long.class) {
+			return BOXED_LONG;
+		} else if (type == Double.TYPE) {
+			return DOUBLE;
+		} else if (type == Double.class) {
+			return BOXED_DOUBLE;
+		} else if (type == Float.TYPE) {
+			return FLOAT;
+		} else if (type == Float.class) {
+			return BOXED_FLOAT;
+		} else if (type == Boolean.TYPE) {
+			return BOOLEAN;
+		} else if (type == Boolean.class) {
+			return BOXED_BOOLEAN;
+		}
+		return OBJECT;
+	}
+
+	/**
+	 * Parses an int from a char buffer. Leading and trailing chars up to ' ' are ignored, as String.trim()
+	 *
+	 * @param buffer
+	 * @param start
+	 * @param length
+	 * @return
+	 * @throws NumberFormatException if it is not a valid int
+	 */
+	static int parseInt(char[] buffer, int start, int length) {
+		long value = parseLong(buffer, start, length);
+		if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+			throw new NumberFormatException("Out of int range: " + value);
+		}
+		return (int) value;
+	}
+
+	/**
+	 * Parses a long from a char buffer. Leading and trailing chars up to ' ' are ignored, as String.trim()
+	 *
+	 * @param buffer
+	 * @param start
+	 * @param length
+	 * @return
+	 * @throws NumberFormatException if it is not a valid long
+	 */
+	static long parseLong(char[] buffer, int start, int length) {
+		int end = start + length;
+		while (start < end && isWhitespace(buffer[start])) {
+			start++;
+		}
+		while (end > start && isWhitespace(buffer[end - 1])) {
+			end--;
+		}
+		if (start == end) {
+			throw new NumberFormatException("Empty value");
+		}
+
+		boolean negative = buffer[start] == '-';
+		if (negative || buffer[start] == '+') {
+			start++;
+			if (start == end) {
+				throw new NumberFormatException("Sign without digits");
+			}
+		}
+
+		//accumulates negative to be able to represent Long.MIN_VALUE
+		long limit = negative ? Long.MIN_VALUE : -Long.MAX_VALUE;
+		long multiplyLimit = limit / 10;
+		long value = 0;
+		for (int i = start; i < end; i++) {
+			int digit = buffer[i] - '0';
+			if (digit < 0 || digit > 9) {
+				throw new NumberFormatException("Invalid digit: " + buffer[i]);
+			}
+			if (value < multiplyLimit) {
+				throw new NumberFormatException("Out of long range");
+			}
+			value *= 10;
+			if (value < limit + digit) {
+				throw new NumberFormatException("Out of long range");
+			}
+			value -= digit;
+		}
+		return negative ? value : -value;
+	}
+
+	/**
+	 * Parses a boolean from a char buffer, same rules than Boolean.valueOf. Leading and trailing chars up to ' ' are ignored, as String.trim()
+	 *
+	 * @param buffer
+	 * @param start
+	 * @param length
+	 * @return true if value is "true" ignoring case, otherwise false
+	 */
+	static boolean parseBoolean(char[] buffer, int start, int length) {
+		int end = start + length;
+		while (start < end && isWhitespace(buffer[start])) {
+			start++;
+		}
+		while (end > start && isWhitespace(buffer[end - 1])) {
+			end--;
+		}
+		return end - start == 4
+				&& Character.toLowerCase(buffer[start]) == 't'
+				&& Character.toLowerCase(buffer[start + 1]) == 'r'
+				&& Character.toLowerCase(buffer[start + 2]) == 'u'
+				&& Character.toLowerCase(buffer[start + 3]) == 'e';
+	}
+
+	/**
+	 * Same chars than String.trim() removes
+	 */
+	private static boolean isWhitespace(char c) {
+		return c <= ' ';
+	}
+}
@@ -1,5 +1,8 @@
 package cat.altimiras.xml.obj;
 
+import cat.altimiras.CloseableIterator;
+import cat.altimiras.FlightRecorder;
+import cat.altimiras.ListIterable;
 import cat.altimiras.Parser;
 import cat.altimiras.TagListener;
 import cat.altimiras.xml.XMLElement;
@@ -11,22 +14,23 @@ import javax.xml.stream.XMLStreamException;
 import javax.xml.stream.events.XMLEvent;
 import java.io.ByteArrayInputStream;
 import java.io.InputStream;
-import java.lang.reflect.Field;
-import java.lang.reflect.ParameterizedType;
-import java.lang.reflect.Type;
+import java.io.Reader;
+import java.io.UncheckedIOException;
 import java.nio.charset.CharacterCodingException;
 import java.nio.charset.Charset;
 import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.NoSuchElementException;
 
-public class WoodStoxObjParserImpl<T extends XMLElement> extends Parser<T> {
+public class WoodStoxObjParserImpl<T extends XMLElement> extends Parser<T> implements ListIterable {
 
 	final private XMLInputFactory2 xmlInputFactory;
+	final private Class<T> typeArgumentClass;
 	/**
-	 * Java object that is building from xml matryoshka.
+	 * Java object that is building from xml matryoshka. A new one is created for every parse.
 	 */
-	final private T obj;
+	private T obj;
 	/**
 	 * Contains field definitions and instances to populate fast objects
 	 */
@@ -39,14 +43,34 @@ public class WoodStoxObjParserImpl<T extends XMLElement> extends Parser<T> {
 
 	private Context currentContext;
 	private boolean simpleElement = false; //inside simple element: int, float ...
-	private Field currentField = null;
+	private FieldAccessor currentField = null;
 	private boolean stop = false;
 
 	private boolean ignore = false;
 
+	/**
+	 * Text of current simple element, only kept if a path listener or a batch needs it
+	 */
+	private String text = null;
+	private boolean keepText = false;
+
+	/**
+	 * Metrics of current parse
+	 */
+	private long events = 0;
+	private long bound = 0;
+	private long skipped = 0;
+
+	/**
+	 * List elements of this class are not added to the list, they are queued to be returned by the iterator
+	 */
+	private Class streamedClass = null;
+	final private ArrayDeque<Object> streamed = new ArrayDeque<>();
+
 	public WoodStoxObjParserImpl(XMLInputFactory2 xmlInputFactory, Class<T> typeArgumentClass, ClassIntrospector<T> classIntrospector) throws IllegalAccessException, InstantiationException {
 		this.classIntrospector = classIntrospector;
 
+		this.typeArgumentClass = typeArgumentClass;
 		this.obj = typeArgumentClass.newInstance();
 		this.objHashCode = classIntrospector.getClassHashCode(typeArgumentClass);
 		this.xmlInputFactory = xmlInputFactory;
@@ -76,51 +100,189 @@ public class WoodStoxObjParserImpl<T extends XMLElement> extends Parser<T> {
 		if (xml == null) {
 			throw new NullPointerException();
 		}
+		return parse(new ByteArrayInputStream(xml));
+	}
+
+	@Override
+	public T parse(InputStream xml) throws InvalidXMLFormatException, CharacterCodingException {
 
-		InputStream xmlInputStream = new ByteArrayInputStream(xml);
+		if (xml == null) {
+			throw new NullPointerException();
+		}
+
+		beginParse();
 		XMLStreamReader2 xmlStreamReader;
+		try {
+			xmlStreamReader = (XMLStreamReader2) xmlInputFactory.createXMLStreamReader(meter(xml));
+		} catch (XMLStreamException e) {
+			//parse has begun, it must end even if content can not be read
+			endParse(0, 0, 0, true, false);
+			throw new CharacterCodingException();
+		}
+		return parse(xmlStreamReader);
+	}
+
+	@Override
+	public T parse(Reader xml) throws InvalidXMLFormatException, CharacterCodingException {
+
+		if (xml == null) {
+			throw new NullPointerException();
+		}
 
+		beginParse();
+		XMLStreamReader2 xmlStreamReader;
 		try {
-			xmlStreamReader = (XMLStreamReader2) xmlInputFactory.createXMLStreamReader(xmlInputStream);
+			xmlStreamReader = (XMLStreamReader2) xmlInputFactory.createXMLStreamReader(meter(xml));
 		} catch (XMLStreamException e) {
+			//parse has begun, it must end even if content can not be read
+			endParse(0, 0, 0, true, false);
 			throw new CharacterCodingException();
 		}
+		return parse(xmlStreamReader);
+	}
+
+	private T parse(XMLStreamReader2 xmlStreamReader) throws InvalidXMLFormatException, CharacterCodingException {
+
+		reset();
+		T result = obj;
 
 		try {
-			while (xmlStreamReader.hasNext() && !stop) {
-				int eventType = xmlStreamReader.next();
-				switch (eventType) {
-					case XMLEvent.START_ELEMENT:
-						onStartElement(xmlStreamReader);
-						break;
-					case XMLEvent.CHARACTERS:
-						onContent(xmlStreamReader);
-						break;
-					case XMLEvent.END_ELEMENT:
-						onCloseElement(xmlStreamReader);
-						break;
-					default:
-						//do nothing
-						break;
-				}
+			while (xmlStreamReader.hasNext() && !stop && !isCancelled()) {
+				next(xmlStreamReader);
 			}
 		} catch (XMLStreamException e) {
 			flushIncomplete();
 		} catch (NullPointerException e) {
 			throw e;
-		} catch (RuntimeException | IllegalAccessException | ClassNotFoundException e) {
+		} catch (RuntimeException | IllegalAccessException e) {
 			throw new InvalidXMLFormatException("Impossible to parse XML. Msg:" + e.getMessage());
 		} finally {
 			try {
-				xmlInputStream.close();
 				xmlStreamReader.close();
 			} catch (Exception e) {
 				//nothing to do
 			}
+			obj = null; //returned to the caller, next parse needs a new one
+			endParse(events, bound, skipped, result.isIncomplete(), stop);
+		}
+		return result;
+	}
+
+	@Override
+	public <E> CloseableIterator<E> iterate(InputStream xml, Class<E> itemClass) throws InvalidXMLFormatException, CharacterCodingException {
+
+		if (xml == null || itemClass == null) {
+			throw new NullPointerException();
+		}
+
+		beginParse();
+		XMLStreamReader2 xmlStreamReader;
+		try {
+			xmlStreamReader = (XMLStreamReader2) xmlInputFactory.createXMLStreamReader(meter(xml));
+		} catch (XMLStreamException e) {
+			//parse has begun, it must end even if content can not be read
+			endParse(0, 0, 0, true, false);
+			throw new CharacterCodingException();
+		}
+
+		reset();
+		streamedClass = itemClass;
+		return new ItemIterator<>(xmlStreamReader);
+	}
+
+	/**
+	 * Cleans state left by a previous usage of this parser, so same instance can parse several xml.
+	 */
+	private void reset() throws InvalidXMLFormatException {
+		if (obj == null) {
+			try {
+				obj = typeArgumentClass.newInstance();
+			} catch (InstantiationException | IllegalAccessException e) {
+				throw new InvalidXMLFormatException("Impossible to instantiate " + typeArgumentClass.getName() + ". Msg:" + e.getMessage());
+			}
+		}
+		contexts.clear();
+		currentContext = null;
+		simpleElement = false;
+		currentField = null;
+		stop = false;
+		ignore = false;
+		streamedClass = null;
+		streamed.clear();
+		events = 0;
+		bound = 0;
+		skipped = 0;
+		text = null;
+		keepText = false;
+		if (pathListeners != null) {
+			pathListeners.reset();
 		}
-		return obj;
 	}
 
+	/**
+	 * Process next xml event
+	 *
+	 * @param xmlStreamReader
+	 */
+	private void next(XMLStreamReader2 xmlStreamReader) throws XMLStreamException, IllegalAccessException {
+		int eventType = xmlStreamReader.next();
+		events++;
+		switch (eventType) {
+			case XMLEvent.START_ELEMENT:
+				if (pathListeners != null || batches != null) {
+					String name = xmlStreamReader.getLocalName();
+					text = null;
+					keepText = false;
+					if (pathListeners != null) {
+						pathListeners.open(name);
+						keepText = pathListeners.isListened();
+					}
+					if (batches != null) {
+						batches.open();
+						keepText |= batches.isBatched(name);
+					}
+				}
+				onStartElement(xmlStreamReader);
+				break;
+			case XMLEvent.CHARACTERS:
+				onContent(xmlStreamReader);
+				break;
+			case XMLEvent.END_ELEMENT:
+				if (pathListeners == null && batches == null) {
+					onCloseElement(xmlStreamReader);
+				} else {
+					onCloseListened(xmlStreamReader);
+				}
+				break;
+			default:
+				//do nothing
+				break;
+		}
+	}
+
+	/**
+	 * Closes an element notifying listeners by path and batching its value
+	 */
+	private void onCloseListened(XMLStreamReader2 xmlStreamReader) {
+		String name = xmlStreamReader.getLocalName();
+		boolean listened = pathListeners != null && pathListeners.isListened();
+		boolean batched = batches != null && batches.isBatched(name);
+		Object value = listened || batched ? closedValue(name) : null;
+
+		onCloseElement(xmlStreamReader);
+
+		if (listened) {
+			stop |= pathListeners.close(value);
+		} else if (pathListeners != null) {
+			pathListeners.close();
+		}
+		if (batches != null) {
+			if (batched && value != null) {
+				stop |= batches.add(name, value);
+			}
+			stop |= batches.close();
+		}
+	}
 
 	private void onCloseElement(XMLStreamReader2 xmlStreamReader) {
 		String currentTagName = xmlStreamReader.getName().getLocalPart();
@@ -149,11 +311,28 @@ public class WoodStoxObjParserImpl<T extends XMLElement> extends Parser<T> {
 		}
 	}
 
+	/**
+	 * @param tag closing
+	 * @return value of the element closing: text of simple elements, otherwise the object of its context
+	 */
+	private Object closedValue(String tag) {
+		if (simpleElement) {
+			return text;
+		}
+		if (currentContext == null) {
+			return null;
+		}
+		if (currentContext instanceof WoodStoxObjParserImpl.ListContext && ((ListContext) currentContext).isPrimitive && !tag.equals(currentContext.tag)) {
+			return text;
+		}
+		return tag.equals(currentContext.tag) ? currentContext.object : null;
+	}
+
 	private void apply(String tag) {
 		contexts.pollFirst();
 		if (!contexts.isEmpty()) {
 			Context parent = contexts.peek();
-			Field f = classIntrospector.getField(parent.object.getClass(), tag);
+			FieldAccessor f = classIntrospector.getAccessor(parent.object.getClass(), tag);
 			setToObj(parent.object, f, currentContext.object);
 			stop = notify(tag, currentContext.object);
 			currentContext = parent;
@@ -161,27 +340,48 @@ public class WoodStoxObjParserImpl<T extends XMLElement> extends Parser<T> {
 	}
 
 	private void onContent(XMLStreamReader2 xmlStreamReader) {
-		String content = xmlStreamReader.getText();
 
 		//Set content in the current object
 		if (simpleElement) {
-			setToObj(currentContext.object, currentField, content);
-			stop = notify(currentField.getName(), content);
+			if (keepText) {
+				text = xmlStreamReader.getText();
+			}
+			setToObj(currentContext.object, currentField, xmlStreamReader);
+			if (hasListener(currentField.getName())) {
+				stop = notify(currentField.getName(), xmlStreamReader.getText());
+			}
 		} else if (currentContext instanceof WoodStoxObjParserImpl.ListContext) {
-			if (((ListContext) currentContext).isPrimitive && !content.trim().isEmpty()) {
-				setToObj(currentContext.object, currentField, convertTo(((ListContext) currentContext).clazz, content));
+			ListContext listContext = (ListContext) currentContext;
+			if (listContext.isPrimitive) {
+				String content = xmlStreamReader.getText();
+				if (keepText) {
+					text = content;
+				}
+				if (!content.trim().isEmpty()) {
+					setToObj(listContext.object, currentField, listContext.valueType.convert(content));
+				}
 			}
 		}
 	}
 
-	private void onStartElement(XMLStreamReader2 xmlStreamReader) throws ClassNotFoundException, IllegalAccessException {
+	private void onStartElement(XMLStreamReader2 xmlStreamReader) throws IllegalAccessException, XMLStreamException {
 		String currentTagName = xmlStreamReader.getName().getLocalPart();
 
 		if (objHashCode != currentTagName.hashCode()) {
 			if (currentContext == null) { //Object to parse is not the most outer element
 				return;
 			}
-			currentField = classIntrospector.getField(currentContext.object.getClass(), currentTagName);
+			currentField = classIntrospector.getAccessor(currentContext.object.getClass(), currentTagName);
+
+			//tag not mapped in a nested object, whole element is skipped by the reader without processing its content.
+			//unknown tags at root level are kept as they can wrap root fields, and on lists could be the end of a list without wrapper.
+			//Any tag could be below, so it is walked when something is listened
+			if (currentField == null && currentContext.object != obj && !(currentContext instanceof WoodStoxObjParserImpl.ListContext)
+					&& listeners == null && pathListeners == null && batches == null) {
+				xmlStreamReader.skipElement();
+				skipped++;
+				return;
+			}
 		}
 
 		if (currentField == null) {
@@ -189,13 +389,14 @@ public class WoodStoxObjParserImpl<T extends XMLElement> extends Parser<T> {
 		}
 
 		if (currentField != null) { //this looks stupid, but atFirstElement can change it values
+			bound++;
 
 			//if current field is a primitive type is not needed to create a context, at onContent value will be set
-			if (ClassIntrospector.isPrimitive(currentField.getType())) {
+			if (currentField.isPrimitive()) {
 				simpleElement = true;
 			}
 			//if current field is a list context list must be created with the list where elements will be added
-			else if (ClassIntrospector.isList(currentField.getType())) {
+			else if (currentField.isList()) {
 				ListContext context = createCurrentListContext(currentTagName, currentContext.object);
 
 				//when is not a primitive list and is not wrapped (current tag and current list class are not the same. first list object context must be created
@@ -215,28 +416,24 @@ public class WoodStoxObjParserImpl<T extends XMLElement> extends Parser<T> {
 		}
 	}
 
-	private ListContext createCurrentListContext(String currentTagName, Object o) throws IllegalAccessException, ClassNotFoundException {
+	private ListContext createCurrentListContext(String currentTagName, Object o) throws IllegalAccessException {
 
 		//initialize list and set it to the object
-		List currentList;
-		currentField.setAccessible(true);
+		List currentList = (List) currentField.get(o);
 
-		if (currentField.get(o) == null) {
+		if (currentList == null) {
 			currentList = new ArrayList<>();
 			currentField.set(o, currentList);
-		} else {
-			currentList = (List) currentField.get(o);
 		}
 
-		Type type = ((ParameterizedType) currentField.getGenericType()).getActualTypeArguments()[0];
-
 		//create list context
 		ListContext listContext = new ListContext();
 		listContext.tag = currentTagName;
 		listContext.object = currentList;
 
-		listContext.clazz = Class.forName(type.getTypeName());
-		listContext.isPrimitive = ClassIntrospector.isPrimitive((Class) type);
+		listContext.clazz = currentField.getListElementClass();
+		listContext.valueType = currentField.getListElementValueType();
+		listContext.isPrimitive = ClassIntrospector.isPrimitive(listContext.clazz);
 		listContext.hasWrapper = !currentTagName.equals(listContext.clazz.getSimpleName());
 
 		currentContext = listContext;
@@ -257,12 +454,12 @@ public class WoodStoxObjParserImpl<T extends XMLElement> extends Parser<T> {
 				Context backup = contexts.pollFirst(); //remove listContext, but keep it
 				if (!contexts.isEmpty()) {
 					Context parent = contexts.peek();
-					Field f = classIntrospector.getField(parent.object.getClass(), currentTagName);
+					FieldAccessor f = classIntrospector.getAccessor(parent.object.getClass(), currentTagName);
 
 					if (f != null) {
 
 						//check if current tag field exist, if exist there is another list without wrapper
-						Field nextField = classIntrospector.getField(parent.object.getClass(), currentContext.tag);
+						FieldAccessor nextField = classIntrospector.getAccessor(parent.object.getClass(), currentContext.tag);
 						if (nextField != null) {
 							setToObj(parent.object, nextField, currentContext.object);
 						} else {
@@ -272,7 +469,7 @@ public class WoodStoxObjParserImpl<T extends XMLElement> extends Parser<T> {
 
 						stop = notify(currentTagName, currentContext.object);
 						currentContext = parent;
-						currentField = classIntrospector.getField(currentContext.object.getClass(), currentTagName);
+						currentField = classIntrospector.getAccessor(currentContext.object.getClass(), currentTagName);
 						return;
 					}
 				}
@@ -313,11 +510,68 @@ public class WoodStoxObjParserImpl<T extends XMLElement> extends Parser<T> {
 		int attributeCount = xmlStreamReader.getAttributeCount();
 		for (int i = 0; i < attributeCount; i++) {
 			String attributeName = xmlStreamReader.getAttributeLocalName(i);
-			Field f = classIntrospector.getField(o.getClass(), attributeName);
-			setToObj(o, f, xmlStreamReader.getAttributeValue(i));
+			FieldAccessor f = classIntrospector.getAccessor(o.getClass(), attributeName);
+			if (f != null) {
+				setAttributeToObj(o, f, xmlStreamReader, i);
+				bound++;
+			}
 		}
 	}
 
+	/**
+	 * Sets attribute value to the field. Numbers and booleans are decoded by the reader, no intermediate String is created
+	 *
+	 * @param obj
+	 * @param field
+	 * @param xmlStreamReader
+	 * @param index           attribute index
+	 */
+	private void setAttributeToObj(Object obj, FieldAccessor field, XMLStreamReader2 xmlStreamReader, int index) {
+		try {
+			switch (field.getValueType()) {
+				case INT:
+					field.setInt(obj, xmlStreamReader.getAttributeAsInt(index));
+					break;
+				case LONG:
+					field.setLong(obj, xmlStreamReader.getAttributeAsLong(index));
+					break;
+				case DOUBLE:
+					field.setDouble(obj, xmlStreamReader.getAttributeAsDouble(index));
+					break;
+				case FLOAT:
+					field.setFloat(obj, xmlStreamReader.getAttributeAsFloat(index));
+					break;
+				case BOOLEAN:
+					field.setBoolean(obj, xmlStreamReader.getAttributeAsBoolean(index));
+					break;
+				case BOXED_INT:
+					field.set(obj, xmlStreamReader.getAttributeAsInt(index));
+					break;
+				case BOXED_LONG:
+					field.set(obj, xmlStreamReader.getAttributeAsLong(index));
+					break;
+				case BOXED_DOUBLE:
+					field.set(obj, xmlStreamReader.getAttributeAsDouble(index));
+					break;
+				case BOXED_FLOAT:
+					field.set(obj, xmlStreamReader.getAttributeAsFloat(index));
+					break;
+				case BOXED_BOOLEAN:
+					field.set(obj, xmlStreamReader.getAttributeAsBoolean(index));
+					break;
+				default:
+					setToObj(obj, field, xmlStreamReader.getAttributeValue(index));
+					break;
+			}
+		} catch (Exception e) {
+			//ignore. Not a valid value for the field
+		}
+	}
+
+	private boolean hasListener(String tag) {
+		return listeners != null && listeners.containsKey(tag);
+	}
+
 	/**
 	 * Notify to a TagListener(if registered) when tag is closed
 	 *
@@ -333,20 +587,24 @@ public class WoodStoxObjParserImpl<T extends XMLElement> extends Parser<T> {
 
 		TagListener listener = listeners.get(tag);
 		if (listener != null) {
-			return listener.notify(tag, value);
+			return FlightRecorder.notify(listener, tag, value);
 		}
 		return false; //to continue
 	}
 
 
-	private void setToObj(Object obj, Field field, Object value) {
+	private void setToObj(Object obj, FieldAccessor field, Object value) {
 
 		try {
 			if (obj instanceof List) {
-				((List) obj).add(value);
+				if (streamedClass != null && streamedClass == value.getClass()) {
+					streamed.addLast(value);
+				} else {
+					((List) obj).add(value);
+				}
 			} else {
 				if (field != null) {
-					field.set(obj, convertTo(field.getType(), value));
+					field.set(obj, field.getValueType().convert(value));
 				}
 			}
 		} catch (Exception e) {
@@ -354,22 +612,54 @@ public class WoodStoxObjParserImpl<T extends XMLElement> extends Parser<T> {
 		}
 	}
 
-	private Object convertTo(Class t, Object value) {
-
-		if (t.isAssignableFrom(String.class)) {
-			return value;
-		} else if (t.isAssignableFrom(Integer.TYPE) || t.isAssignableFrom(Integer.class)) {
-			return Integer.valueOf((String) value);
-		} else if (t.isAssignableFrom(Long.TYPE) || t.isAssignableFrom(Long.class)) {
-			return Long.valueOf((String) value);
-		} else if (t.isAssignableFrom(Double.TYPE) || t.isAssignableFrom(Double.class)) {
-			return Double.valueOf((String) value);
-		} else if (t.isAssignableFrom(Float.TYPE) || t.isAssignableFrom(Float.class)) {
-			return Float.valueOf((String) value);
-		} else if (t.isAssignableFrom(Boolean.TYPE) || t.isAssignableFrom(Boolean.class)) {
-			return Boolean.valueOf((String) value);
-		}
-		return value;
+	/**
+	 * Sets text content where reader is positioned to the field. Integer numbers and booleans are parsed directly from the
+	 * reader buffer, no intermediate String is created
+	 *
+	 * @param obj
+	 * @param field
+	 * @param xmlStreamReader
+	 */
+	private void setToObj(Object obj, FieldAccessor field, XMLStreamReader2 xmlStreamReader) {
+
+		if (field == null || obj instanceof List) {
+			setToObj(obj, field, xmlStreamReader.getText());
+			return;
+		}
+
+		try {
+			switch (field.getValueType()) {
+				case INT:
+					field.setInt(obj, ValueType.parseInt(xmlStreamReader.getTextCharacters(), xmlStreamReader.getTextStart(), xmlStreamReader.getTextLength()));
+					break;
+				case LONG:
+					field.setLong(obj, ValueType.parseLong(xmlStreamReader.getTextCharacters(), xmlStreamReader.getTextStart(), xmlStreamReader.getTextLength()));
+					break;
+				case BOOLEAN:
+					field.setBoolean(obj, ValueType.parseBoolean(xmlStreamReader.getTextCharacters(), xmlStreamReader.getTextStart(), xmlStreamReader.getTextLength()));
+					break;
+				case BOXED_INT:
+					field.set(obj, ValueType.parseInt(xmlStreamReader.getTextCharacters(), xmlStreamReader.getTextStart(), xmlStreamReader.getTextLength()));
+					break;
+				case BOXED_LONG:
+					field.set(obj, ValueType.parseLong(xmlStreamReader.getTextCharacters(), xmlStreamReader.getTextStart(), xmlStreamReader.getTextLength()));
+					break;
+				case BOXED_BOOLEAN:
+					field.set(obj, ValueType.parseBoolean(xmlStreamReader.getTextCharacters(), xmlStreamReader.getTextStart(), xmlStreamReader.getTextLength()));
+					break;
+				case DOUBLE:
+					field.setDouble(obj, Double.parseDouble(xmlStreamReader.getText().trim()));
+					break;
+				case FLOAT:
+					field.setFloat(obj, Float.parseFloat(xmlStreamReader.getText().trim()));
+					break;
+				default:
+					field.set(obj, field.getValueType().convert(xmlStreamReader.getText()));
+					break;
+			}
+		} catch (Exception e) {
+			//ignore. Not a valid value for the field
+		}
 	}
 
 	/**
@@ -382,7 +672,7 @@ public class WoodStoxObjParserImpl<T extends XMLElement> extends Parser<T> {
 		while (!contexts.isEmpty()) {
 			Context current = contexts.pollFirst();
 			if (current != null && nested != null) {
-				Field field = classIntrospector.getField(current.object.getClass(), nested.tag);
+				FieldAccessor field = classIntrospector.getAccessor(current.object.getClass(), nested.tag);
 				setToObj(current.object, field, nested.object);
 				nested = current;
 			}
@@ -391,6 +681,85 @@ public class WoodStoxObjParserImpl<T extends XMLElement> extends Parser<T> {
 		obj.markAsIncomplete();
 	}
 
+	/**
+	 * Iterates over list elements. Xml is consumed as elements are requested and every element is returned as soon as its
+	 * closing tag is processed. Elements are not kept in their list, so memory does not depend on list size.
+	 *
+	 * @param <E> list element type
+	 */
+	private class ItemIterator<E> implements CloseableIterator<E> {
+
+		private final XMLStreamReader2 xmlStreamReader;
+		private boolean finished = false;
+
+		private ItemIterator(XMLStreamReader2 xmlStreamReader) {
+			this.xmlStreamReader = xmlStreamReader;
+		}
+
+		@Override
+		public boolean hasNext() {
+			while (streamed.isEmpty() && !finished) {
+				try {
+					if (xmlStreamReader.hasNext() && !stop && !isCancelled()) {
+						WoodStoxObjParserImpl.this.next(xmlStreamReader);
+					} else {
+						finish();
+					}
+				} catch (XMLStreamException e) {
+					try {
+						flushIncomplete();
+					} catch (CharacterCodingException ex) {
+						//nothing to do
+					}
+					finish();
+				} catch (NullPointerException e) {
+					finish();
+					throw e;
+				} catch (RuntimeException | IllegalAccessException e) {
+					finish();
+					throw new UncheckedIOException(new InvalidXMLFormatException("Impossible to parse XML. Msg:" + e.getMessage()));
+				}
+			}
+			return !streamed.isEmpty();
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public E next() {
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+			return (E) streamed.pollFirst();
+		}
+
+		/**
+		 * Ends the parse if iteration has not finished yet. Elements not consumed are discarded.
+		 */
+		@Override
+		public void close() {
+			if (!finished) {
+				streamed.clear();
+				stop = true;
+				finish();
+			}
+		}
+
+		private void finish() {
+			if (finished) {
+				return;
+			}
+			finished = true;
+			streamedClass = null;
+			try {
+				xmlStreamReader.close();
+			} catch (Exception e) {
+				//nothing to do
+			}
+			endParse(events, bound, skipped, obj.isIncomplete(), stop);
+			obj = null;
+		}
+	}
+
 	private class Context {
 		protected String tag;
 		protected Object object;
@@ -398,6 +767,7 @@ public class WoodStoxObjParserImpl<T extends XMLElement> extends Parser<T> {
 
 	private class ListContext extends Context {
 		protected Class clazz; //type of list objects
+		protected ValueType valueType; //type of list objects, to convert primitives
 		protected boolean isPrimitive; //contains primitive objects
 		protected boolean hasWrapper; //list is wrapped with a tag
 	}
@@ -0,0 +1,295 @@
+package cat.altimiras.xml.query;
+
+import cat.altimiras.BatchListener;
+import cat.altimiras.Parser;
+import cat.altimiras.PathQuery;
+import cat.altimiras.TagListener;
+import cat.altimiras.xml.exceptions.InvalidXMLFormatException;
+import org.codehaus.stax2.XMLInputFactory2;
+import org.codehaus.stax2.XMLStreamReader2;
+
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.events.XMLEvent;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.Charset;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Returns only values of the paths of a PathQuery, as a map path -> value. Elements that do not lead to a pending path
+ * are skipped without being processed and parsing stops as soon as all paths are matched.
+ * <p>
+ * A matched element is returned as its text if it has neither attributes nor child elements, otherwise as a map with
+ * attributes and child elements by name (a list if the name is repeated).
+ */
+public class WoodStoxQueryParserImpl extends Parser<Map> {
+
+	private final XMLInputFactory2 xmlInputFactory;
+	private final PathQuery query;
+	private final String incompleteKeyName;
+
+	/**
+	 * States of the elements opened and still not closed
+	 */
+	private int[] states = new int[16];
+	private int depth = 0;
+
+	/**
+	 * Metrics of current parse
+	 */
+	private long events = 0;
+	private long skipped = 0;
+
+	public WoodStoxQueryParserImpl(XMLInputFactory2 xmlInputFactory, PathQuery query, String incompleteKeyName) {
+		if (query == null) {
+			throw new NullPointerException("query can not be null");
+		}
+		this.xmlInputFactory = xmlInputFactory;
+		this.query = query;
+		this.incompleteKeyName = incompleteKeyName;
+	}
+
+	/**
+	 * Listeners are registered by path of the query, notified when it is matched
+	 *
+	 * @param path
+	 * @param listener
+	 */
+	@Override
+	public void register(String path, TagListener listener) {
+		if (this.listeners == null) {
+			this.listeners = new HashMap<>();
+		}
+		listeners.put(path, dispatched(listener));
+	}
+
+	@Override
+	public void register(String tag, BatchListener listener, int batchSize) {
+		throw new UnsupportedOperationException("BatchListeners are not supported by this parser");
+	}
+
+	public Map parse(String xml) throws InvalidXMLFormatException, CharacterCodingException {
+		if (xml == null) {
+			throw new NullPointerException("xml can not be null");
+		}
+		return parse(xml, Charset.forName("UTF-8"));
+	}
+
+	public Map parse(String xml, Charset charset) throws InvalidXMLFormatException, CharacterCodingException {
+		if (xml == null) {
+			throw new NullPointerException("xml can not be null");
+		}
+		return parse(xml.getBytes(charset));
+	}
+
+	public Map parse(byte[] xml) throws InvalidXMLFormatException, CharacterCodingException {
+		if (xml == null) {
+			throw new NullPointerException("xml can not be null");
+		}
+		return parse(new ByteArrayInputStream(xml));
+	}
+
+	public Map parse(InputStream xml) throws InvalidXMLFormatException, CharacterCodingException {
+		if (xml == null) {
+			throw new NullPointerException("xml can not be null");
+		}
+
+		beginParse();
+		XMLStreamReader2 xmlStreamReader;
+		try {
+			xmlStreamReader = (XMLStreamReader2) xmlInputFactory.createXMLStreamReader(meter(xml));
+		} catch (XMLStreamException e) {
+			//parse has begun, it must end even if content can not be read
+			endParse(0, 0, 0, true, false);
+			throw new CharacterCodingException();
+		}
+		return parse(xmlStreamReader);
+	}
+
+	public Map parse(Reader xml) throws InvalidXMLFormatException, CharacterCodingException {
+		if (xml == null) {
+			throw new NullPointerException("xml can not be null");
+		}
+
+		beginParse();
+		XMLStreamReader2 xmlStreamReader;
+		try {
+			xmlStreamReader = (XMLStreamReader2) xmlInputFactory.createXMLStreamReader(meter(xml));
+		} catch (XMLStreamException e) {
+			//parse has begun, it must end even if content can not be read
+			endParse(0, 0, 0, true, false);
+			throw new CharacterCodingException();
+		}
+		return parse(xmlStreamReader);
+	}
+
+	private Map parse(XMLStreamReader2 xmlStreamReader) throws InvalidXMLFormatException {
+
+		PathQuery.Matches matches = query.newMatches(listeners);
+		boolean incomplete = false;
+		depth = 0;
+		states[0] = query.start();
+		events = 0;
+		skipped = 0;
+
+		try {
+			while (!matches.isDone() && !isCancelled() && xmlStreamReader.hasNext()) {
+				int eventType = xmlStreamReader.next();
+				events++;
+				if (eventType == XMLEvent.START_ELEMENT) {
+					onOpenElement(xmlStreamReader, matches);
+				} else if (eventType == XMLEvent.END_ELEMENT) {
+					depth--;
+				}
+			}
+		} catch (XMLStreamException e) {
+			incomplete = true;
+		} catch (Exception e) {
+			throw new InvalidXMLFormatException("Impossible to parse XML. Msg:" + e.getMessage());
+		} finally {
+			try {
+				xmlStreamReader.close();
+			} catch (Exception e) {
+				//nothing to do
+			}
+			endParse(events, matches.matched(), skipped, incomplete, matches.isStopped());
+		}
+
+		Map result = matches.toMap();
+		if (incomplete) {
+			result.put(incompleteKeyName, true);
+		}
+		return result;
+	}
+
+	private void onOpenElement(XMLStreamReader2 xmlStreamReader, PathQuery.Matches matches) throws XMLStreamException {
+
+		int state = query.next(states[depth], xmlStreamReader.getLocalName());
+
+		if (!matches.wants(state)) {
+			xmlStreamReader.skipElement();
+			skipped++;
+			return;
+		}
+
+		if (matches.matches(state)) {
+			//whole element is the value, reader ends on its END_ELEMENT
+			matches.match(state, materialize(xmlStreamReader));
+			return;
+		}
+
+		for (int i = 0; i < query.attributes(state); i++) {
+			String value = xmlStreamReader.getAttributeValue(null, query.attributeName(state, i));
+			if (value != null) {
+				matches.matchAttribute(state, i, value);
+			}
+		}
+
+		depth++;
+		if (depth == states.length) {
+			int[] grown = new int[states.length * 2];
+			System.arraycopy(states, 0, grown, 0, states.length);
+			states = grown;
+		}
+		states[depth] = state;
+	}
+
+	/**
+	 * Reads element where reader is positioned (START_ELEMENT) until it is closed
+	 *
+	 * @param xmlStreamReader
+	 * @return text or map with attributes and child elements
+	 * @throws XMLStreamException
+	 */
+	private Object materialize(XMLStreamReader2 xmlStreamReader) throws XMLStreamException {
+
+		ArrayDeque<Element> opened = new ArrayDeque<>();
+		Element current = new Element(xmlStreamReader);
+
+		while (true) {
+			int eventType = xmlStreamReader.next();
+			events++;
+			switch (eventType) {
+				case XMLEvent.START_ELEMENT:
+					opened.push(current);
+					current = new Element(xmlStreamReader);
+					break;
+				case XMLEvent.CHARACTERS:
+				case XMLEvent.CDATA:
+					current.append(xmlStreamReader.getText());
+					break;
+				case XMLEvent.END_ELEMENT:
+					Element parent = opened.pollFirst();
+					if (parent == null) {
+						return current.getContent();
+					}
+					parent.add(current.name, current.getContent());
+					current = parent;
+					break;
+				default:
+					//do nothing
+					break;
+			}
+		}
+	}
+
+	private static class Element {
+
+		private final String name;
+		private Map<String, Object> data;
+		private StringBuilder text;
+
+		private Element(XMLStreamReader2 xmlStreamReader) {
+			this.name = xmlStreamReader.getLocalName();
+			int attributeCount = xmlStreamReader.getAttributeCount();
+			for (int i = 0; i < attributeCount; i++) {
+				add(xmlStreamReader.getAttributeLocalName(i), xmlStreamReader.getAttributeValue(i));
+			}
+		}
+
+		private void append(String content) {
+			if (data == null) {
+				if (text == null) {
+					text = new StringBuilder(content);
+				} else {
+					text.append(content);
+				}
+			}
+		}
+
+		private void add(String key, Object value) {
+			if (data == null) {
+				data = new LinkedHashMap<>();
+			}
+			Object previous = data.get(key);
+			if (previous == null && !data.containsKey(key)) {
+				data.put(key, value);
+			} else if (previous instanceof List) {
+				((List) previous).add(value);
+			} else {
+				List<Object> list = new ArrayList<>();
+				list.add(previous);
+				list.add(value);
+				data.put(key, list);
+			}
+		}
+
+		private Object getContent() {
+			if (data != null) {
+				return data;
+			}
+			if (text == null) {
+				return null;
+			}
+			String content = text.toString().trim();
+			return content.isEmpty() ? null : content;
+		}
+	}
+}
@@ -0,0 +1,154 @@
+package cat.altimiras.xml.tape;
+
+import cat.altimiras.BatchListener;
+import cat.altimiras.Parser;
+import cat.altimiras.TagListener;
+import cat.altimiras.tape.Tape;
+import cat.altimiras.tape.TapeBuilder;
+import cat.altimiras.xml.exceptions.InvalidXMLFormatException;
+import org.codehaus.stax2.XMLInputFactory2;
+import org.codehaus.stax2.XMLStreamReader2;
+
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.events.XMLEvent;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.Charset;
+import java.util.Map;
+
+/**
+ * Records the document on a Tape: elements and attributes are nodes and text is copied from the reader buffer, no
+ * String is created. Returns a read-only view of the tape with the same content WoodStoxMapParserImpl returns, get the
+ * tape with Tape.of(map).
+ * <p>
+ * Listeners are not supported: values are not created while parsing.
+ */
+public class WoodStoxTapeParserImpl extends Parser<Map> {
+
+	private final XMLInputFactory2 xmlInputFactory;
+	private final TapeBuilder builder = new TapeBuilder(true);
+	private final String incompleteKeyName;
+
+	public WoodStoxTapeParserImpl(XMLInputFactory2 xmlInputFactory, String incompleteKeyName) {
+		this.xmlInputFactory = xmlInputFactory;
+		this.incompleteKeyName = incompleteKeyName;
+	}
+
+	@Override
+	public void register(String tag, TagListener listener) {
+		throw new UnsupportedOperationException("Listeners are not supported by this parser");
+	}
+
+	@Override
+	public void register(String tag, BatchListener listener, int batchSize) {
+		throw new UnsupportedOperationException("BatchListeners are not supported by this parser");
+	}
+
+	public Map parse(String xml) throws InvalidXMLFormatException, CharacterCodingException {
+		if (xml == null) {
+			throw new NullPointerException("xml can not be null");
+		}
+		return parse(xml, Charset.forName("UTF-8"));
+	}
+
+	public Map parse(String xml, Charset charset) throws InvalidXMLFormatException, CharacterCodingException {
+		if (xml == null) {
+			throw new NullPointerException("xml can not be null");
+		}
+		return parse(xml.getBytes(charset));
+	}
+
+	public Map parse(byte[] xml) throws InvalidXMLFormatException, CharacterCodingException {
+		if (xml == null) {
+			throw new NullPointerException("xml can not be null");
+		}
+		return parse(new ByteArrayInputStream(xml));
+	}
+
+	public Map parse(InputStream xml) throws InvalidXMLFormatException, CharacterCodingException {
+		if (xml == null) {
+			throw new NullPointerException("xml can not be null");
+		}
+
+		beginParse();
+		XMLStreamReader2 xmlStreamReader;
+		try {
+			xmlStreamReader = (XMLStreamReader2) xmlInputFactory.createXMLStreamReader(meter(xml));
+		} catch (XMLStreamException e) {
+			//parse has begun, it must end even if content can not be read
+			endParse(0, 0, 0, true, false);
+			throw new CharacterCodingException();
+		}
+		return parse(xmlStreamReader);
+	}
+
+	public Map parse(Reader xml) throws InvalidXMLFormatException, CharacterCodingException {
+		if (xml == null) {
+			throw new NullPointerException("xml can not be null");
+		}
+
+		beginParse();
+		XMLStreamReader2 xmlStreamReader;
+		try {
+			xmlStreamReader = (XMLStreamReader2) xmlInputFactory.createXMLStreamReader(meter(xml));
+		} catch (XMLStreamException e) {
+			//parse has begun, it must end even if content can not be read
+			endParse(0, 0, 0, true, false);
+			throw new CharacterCodingException();
+		}
+		return parse(xmlStreamReader);
+	}
+
+	private Map parse(XMLStreamReader2 xmlStreamReader) throws InvalidXMLFormatException {
+
+		long events = 0;
+		boolean incomplete = false;
+		builder.begin();
+
+		try {
+			while (xmlStreamReader.hasNext()) {
+				int eventType = xmlStreamReader.next();
+				events++;
+				switch (eventType) {
+					case XMLEvent.START_ELEMENT:
+						onOpenElement(xmlStreamReader);
+						break;
+					case XMLEvent.CHARACTERS:
+						if (builder.depth() > 1) {
+							builder.text(xmlStreamReader.getTextCharacters(), xmlStreamReader.getTextStart(), xmlStreamReader.getTextLength());
+						}
+						break;
+					case XMLEvent.END_ELEMENT:
+						builder.close();
+						break;
+					default:
+						//do nothing
+						break;
+				}
+			}
+		} catch (XMLStreamException e) {
+			incomplete = true;
+		} catch (Exception e) {
+			throw new InvalidXMLFormatException("Impossible to parse XML. Msg:" + e.getMessage());
+		} finally {
+			try {
+				xmlStreamReader.close();
+			} catch (Exception e) {
+				//nothing to do
+			}
+			endParse(events, builder.size(), 0, incomplete, false);
+		}
+
+		return builder.build(incomplete ? incompleteKeyName : null).asMap();
+	}
+
+	private void onOpenElement(XMLStreamReader2 xmlStreamReader) {
+		builder.open(Tape.OBJECT, xmlStreamReader.getLocalName());
+		int attributeCount = xmlStreamReader.getAttributeCount();
+		for (int i = 0; i < attributeCount; i++) {
+			builder.string(xmlStreamReader.getAttributeLocalName(i), xmlStreamReader.getAttributeValue(i));
+		}
+	}
+}
@@ -0,0 +1,62 @@
+package cat.altimiras;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+public class PathQueryTest {
+
+	@Test
+	public void absolute() {
+
+		PathQuery query = PathQuery.compile("/root/a/b", "/root/*/c");
+
+		int root = query.next(query.start(), "root");
+		int a = query.next(root, "a");
+		assertNotEquals(PathQuery.DEAD, a);
+		assertEquals(1, query.ends(query.next(a, "b")).length);
+		assertEquals(1, query.ends(query.next(a, "c")).length);
+		assertEquals(PathQuery.DEAD, query.next(a, "unknown"));
+		assertEquals(PathQuery.DEAD, query.next(query.start(), "unknown"));
+	}
+
+	@Test
+	public void namesNotInterned() {
+
+		PathQuery query = PathQuery.compile("/root/a");
+
+		int root = query.next(query.start(), new String("root"));
+		assertEquals(1, query.ends(query.next(root, new String("a"))).length);
+	}
+
+	@Test
+	public void relativeNeverDead() {
+
+		PathQuery query = PathQuery.compileRelative("line/id");
+
+		int state = query.next(query.start(), "unknown");
+		assertNotEquals(PathQuery.DEAD, state);
+		state = query.next(query.next(state, "line"), "id");
+		assertEquals(1, query.ends(state).length);
+		assertNotEquals(PathQuery.DEAD, query.next(state, "unknown"));
+	}
+
+	@Test
+	public void manyNames() {
+
+		String[] paths = new String[100];
+		for (int i = 0; i < paths.length; i++) {
+			paths[i] = "/root/e" + i;
+		}
+		PathQuery query = PathQuery.compile(paths);
+
+		int root = query.next(query.start(), "root");
+		for (int i = 0; i < paths.length; i++) {
+			int[] ends = query.ends(query.next(root, "e" + i));
+			assertEquals(1, ends.length);
+			assertEquals(i, ends[0]);
+		}
+		assertEquals(PathQuery.DEAD, query.next(root, "e100"));
+	}
+}
@@ -3,6 +3,11 @@ package cat.altimiras.json.map;
 import cat.altimiras.matryoshka.Matryoshka;
 import org.junit.Test;
 
+import java.io.ByteArrayInputStream;
+import java.io.StringReader;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
 import java.util.Map;
 
 import static cat.altimiras.json.JSONFactory.DEFAULT_INCOMPLETE_KEY_NAME;
@@ -77,4 +82,48 @@ public class BasicTest {
 		assertNull(matryoshka.get("k2").value());
 		assertFalse(result.containsKey(DEFAULT_INCOMPLETE_KEY_NAME));
 	}
-}
\ No newline at end of file
+
+	@Test
+	public void inputStream() throws Exception {
+
+		Map result = new JSONMapParserImpl(DEFAULT_INCOMPLETE_KEY_NAME).parse(new ByteArrayInputStream("{\"k1\" : \"v1\", \"k2\" : 2 }".getBytes(StandardCharsets.UTF_8)));
+		Matryoshka matryoshka = new Matryoshka(result);
+
+		assertEquals("v1", matryoshka.get("k1").value());
+		assertEquals(2, matryoshka.get("k2").value());
+		assertFalse(result.containsKey(DEFAULT_INCOMPLETE_KEY_NAME));
+	}
+
+	@Test
+	public void reader() throws Exception {
+
+		Map result = new JSONMapParserImpl(DEFAULT_INCOMPLETE_KEY_NAME).parse(new StringReader("{\"k1\" : \"v1\", \"k2\" : 2 }"));
+		Matryoshka matryoshka = new Matryoshka(result);
+
+		assertEquals("v1", matryoshka.get("k1").value());
+		assertEquals(2, matryoshka.get("k2").value());
+		assertFalse(result.containsKey(DEFAULT_INCOMPLETE_KEY_NAME));
+	}
+
+	@Test
+	public void channel() throws Exception {
+
+		Map result = new JSONMapParserImpl(DEFAULT_INCOMPLETE_KEY_NAME).parse(Channels.newChannel(new ByteArrayInputStream("{\"k1\" : \"v1\", \"k2\" : 2 }".getBytes(StandardCharsets.UTF_8))));
+		Matryoshka matryoshka = new Matryoshka(result);
+
+		assertEquals("v1", matryoshka.get("k1").value());
+		assertEquals(2, matryoshka.get("k2").value());
+		assertFalse(result.containsKey(DEFAULT_INCOMPLETE_KEY_NAME));
+	}
+
+	@Test
+	public void path() throws Exception {
+
+		Map result = new JSONMapParserImpl(DEFAULT_INCOMPLETE_KEY_NAME).parse(Paths.get(this.getClass().getResource("/json/nested1.json").toURI()));
+		Matryoshka matryoshka = new Matryoshka(result);
+
+		assertEquals("value", matryoshka.get("key").value());
+		assertEquals(55, matryoshka.get("nested1/n2").value());
+		assertFalse(result.containsKey(DEFAULT_INCOMPLETE_KEY_NAME));
+	}
+}
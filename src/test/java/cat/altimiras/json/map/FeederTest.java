@@ -0,0 +1,105 @@
+package cat.altimiras.json.map;
+
+import cat.altimiras.Feeder;
+import cat.altimiras.NonBlockingFeedable;
+import cat.altimiras.json.JSONFactory;
+import cat.altimiras.matryoshka.Matryoshka;
+import org.apache.commons.io.IOUtils;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static cat.altimiras.json.JSONFactory.DEFAULT_INCOMPLETE_KEY_NAME;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class FeederTest {
+
+	@Test
+	public void byteByByte() throws Exception {
+
+		byte[] json = IOUtils.toByteArray(this.getClass().getResourceAsStream("/json/nested1.json"));
+		List<Object> received = new ArrayList<>();
+
+		JSONMapParserImpl matryoshkaParser = new JSONMapParserImpl(DEFAULT_INCOMPLETE_KEY_NAME);
+		matryoshkaParser.register("n2", (tag, value) -> received.add(value) && false);
+
+		Feeder<Map> feeder = matryoshkaParser.feeder();
+		ByteBuffer chunk = ByteBuffer.allocateDirect(1);
+		int nested2 = new String(json, StandardCharsets.UTF_8).indexOf("nested2");
+		int end = new String(json, StandardCharsets.UTF_8).lastIndexOf('}');
+		for (int i = 0; i < json.length; i++) {
+			if (i == nested2) {
+				//listeners are notified as content is fed
+				assertEquals(Arrays.asList(55), received);
+			}
+			chunk.clear();
+			chunk.put(json[i]).flip();
+			//no more content is expected once root object is closed
+			assertEquals(i < end, feeder.feed(chunk));
+			assertFalse(chunk.hasRemaining());
+		}
+		Map result = feeder.endOfInput();
+
+		assertEquals(Arrays.asList(55, 66), received);
+		assertEquals(matryoshkaParser.parse(json), result);
+	}
+
+	@Test
+	public void stop() throws Exception {
+
+		byte[] json = IOUtils.toByteArray(this.getClass().getResourceAsStream("/json/nested1.json"));
+
+		JSONMapParserImpl matryoshkaParser = new JSONMapParserImpl(DEFAULT_INCOMPLETE_KEY_NAME);
+		matryoshkaParser.register("key", (tag, value) -> true);
+
+		Feeder<Map> feeder = matryoshkaParser.feeder();
+		assertFalse(feeder.feed(ByteBuffer.wrap(json, 0, 40)));
+		assertFalse(feeder.feed(ByteBuffer.wrap(json, 40, json.length - 40)));
+		Matryoshka matryoshka = new Matryoshka(feeder.endOfInput());
+
+		assertEquals("value", matryoshka.get("key").value());
+		assertNull(matryoshka.get("key2").value());
+	}
+
+	@Test
+	public void incomplete() throws Exception {
+
+		Feeder<Map> feeder = new JSONMapParserImpl(DEFAULT_INCOMPLETE_KEY_NAME).feeder();
+		feeder.feed(ByteBuffer.wrap("{\"key\":\"value\",\"nested\":{\"a\":".getBytes(StandardCharsets.UTF_8)));
+		Map result = feeder.endOfInput();
+
+		assertEquals("value", result.get("key"));
+		assertEquals(true, result.get(DEFAULT_INCOMPLETE_KEY_NAME));
+	}
+
+	@Test
+	public void reuse() throws Exception {
+
+		JSONMapParserImpl matryoshkaParser = new JSONMapParserImpl(DEFAULT_INCOMPLETE_KEY_NAME);
+		for (int i = 0; i < 3; i++) {
+			Feeder<Map> feeder = matryoshkaParser.feeder();
+			feeder.feed(ByteBuffer.wrap(("{\"i\":" + i + "}").getBytes(StandardCharsets.UTF_8)));
+			assertEquals(i, feeder.endOfInput().get("i"));
+		}
+		assertNull(matryoshkaParser.feeder().endOfInput());
+	}
+
+	@Test
+	public void nonBlockingFromFactory() throws Exception {
+
+		assertTrue(JSONFactory.getParser() instanceof NonBlockingFeedable);
+		assertFalse(JSONFactory.getTapeParser() instanceof NonBlockingFeedable);
+
+		Feeder<Map> feeder = ((NonBlockingFeedable<Map>) JSONFactory.getParser()).feeder();
+		feeder.feed(ByteBuffer.wrap("{\"k\":\"v\"}".getBytes(StandardCharsets.UTF_8)));
+		assertEquals("v", feeder.endOfInput().get("k"));
+	}
+}
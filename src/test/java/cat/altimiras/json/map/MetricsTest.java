@@ -0,0 +1,140 @@
+package cat.altimiras.json.map;
+
+import cat.altimiras.ParseStats;
+import cat.altimiras.Parser;
+import cat.altimiras.json.JSONFactory;
+import org.junit.After;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class MetricsTest {
+
+	private List<ParseStats> recorded = new ArrayList<>();
+
+	@After
+	public void tearDown() {
+		JSONFactory.setMetrics(null);
+	}
+
+	@Test
+	public void simple() throws Exception {
+
+		JSONFactory.setMetrics(recorded::add);
+		String json = "{\"k1\" : \"v1\", \"k2\" : {\"k3\" : 3}}";
+
+		JSONFactory.getParser().parse(json);
+
+		assertEquals(1, recorded.size());
+		ParseStats stats = recorded.get(0);
+		assertEquals(json.length(), stats.getBytes());
+		assertTrue(stats.getEvents() > 0);
+		assertEquals(3, stats.getBound());
+		assertFalse(stats.isIncomplete());
+		assertFalse(stats.isStopped());
+	}
+
+	@Test
+	public void incomplete() throws Exception {
+
+		JSONFactory.setMetrics(recorded::add);
+
+		Map result = JSONFactory.getParser().parse("{\"k1\" : \"v1\", \"k2\" : ");
+
+		assertEquals(1, recorded.size());
+		assertTrue(recorded.get(0).isIncomplete());
+		assertEquals("v1", result.get("k1"));
+	}
+
+	@Test
+	public void stopped() throws Exception {
+
+		JSONFactory.setMetrics(recorded::add);
+		Parser<Map> parser = JSONFactory.getParser();
+		parser.register("k1", (tag, value) -> true);
+
+		parser.parse("{\"k1\" : \"v1\", \"k2\" : \"v2\"}");
+
+		assertEquals(1, recorded.size());
+		assertTrue(recorded.get(0).isStopped());
+	}
+
+	@Test
+	public void disabled() throws Exception {
+
+		Parser<Map> parser = JSONFactory.getParser();
+		JSONFactory.setMetrics(recorded::add);
+
+		parser.parse("{\"k1\" : \"v1\"}");
+
+		assertTrue(recorded.isEmpty());
+	}
+
+	@Test
+	public void unreadable() throws Exception {
+
+		JSONFactory.setMetrics(recorded::add);
+		Parser<Map> parser = JSONFactory.getParser();
+
+		try {
+			parser.parse(new InputStream() {
+				@Override
+				public int read() throws IOException {
+					throw new IOException("unreadable");
+				}
+			});
+			fail();
+		} catch (IOException e) {
+			assertEquals("unreadable", e.getMessage());
+		}
+
+		assertEquals(1, recorded.size());
+		assertTrue(recorded.get(0).isIncomplete());
+	}
+
+	@Test
+	public void multiByteString() throws Exception {
+
+		JSONFactory.setMetrics(recorded::add);
+		String json = "{\"k1\" : \"caf\u00e9 \u20ac \ud83d\ude00\"}";
+
+		for (Parser<Map> parser : Arrays.asList(JSONFactory.getParser(), JSONFactory.getQueryParser("/k1"), JSONFactory.getTapeParser())) {
+			parser.parse(json);
+		}
+
+		assertEquals(3, recorded.size());
+		for (ParseStats stats : recorded) {
+			assertEquals(json.getBytes(StandardCharsets.UTF_8).length, stats.getBytes());
+		}
+	}
+
+	@Test
+	public void nullString() throws Exception {
+
+		JSONFactory.setMetrics(recorded::add);
+
+		for (Parser<Map> parser : Arrays.asList(JSONFactory.getParser(), JSONFactory.getQueryParser("/k1"), JSONFactory.getTapeParser())) {
+			try {
+				parser.parse((String) null);
+				fail();
+			} catch (NullPointerException e) {
+				//expected
+			}
+			parser.parse("{\"k1\" : \"v1\"}");
+		}
+
+		//null is rejected before the parse begins, so only valid parses are recorded
+		assertEquals(3, recorded.size());
+	}
+}
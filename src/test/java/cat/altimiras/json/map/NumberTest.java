@@ -0,0 +1,51 @@
+package cat.altimiras.json.map;
+
+import org.junit.Test;
+
+import java.math.BigInteger;
+import java.util.Map;
+
+import static cat.altimiras.json.JSONFactory.DEFAULT_INCOMPLETE_KEY_NAME;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+public class NumberTest {
+
+	@Test
+	public void intsKeepIntegerType() throws Exception {
+
+		Map result = new JSONMapParserImpl(DEFAULT_INCOMPLETE_KEY_NAME).parse("{\"k\" : 2147483647}");
+
+		assertEquals(Integer.valueOf(Integer.MAX_VALUE), result.get("k"));
+	}
+
+	@Test
+	public void longs() throws Exception {
+
+		Map result = new JSONMapParserImpl(DEFAULT_INCOMPLETE_KEY_NAME).parse("{\"k\" : 3000000000, \"n\" : -3000000000}");
+
+		assertEquals(Long.valueOf(3000000000L), result.get("k"));
+		assertEquals(Long.valueOf(-3000000000L), result.get("n"));
+		assertFalse(result.containsKey(DEFAULT_INCOMPLETE_KEY_NAME));
+	}
+
+	@Test
+	public void bigIntegers() throws Exception {
+
+		Map result = new JSONMapParserImpl(DEFAULT_INCOMPLETE_KEY_NAME).parse("{\"k\" : 123456789012345678901234567890, \"next\" : 1}");
+
+		assertEquals(new BigInteger("123456789012345678901234567890"), result.get("k"));
+		assertEquals(1, result.get("next"));
+		assertFalse(result.containsKey(DEFAULT_INCOMPLETE_KEY_NAME));
+	}
+
+	@Test
+	public void longIsNotLost() throws Exception {
+
+		//it used to be read as an int: value was missing and the document marked as incomplete
+		Map result = new JSONMapParserImpl(DEFAULT_INCOMPLETE_KEY_NAME).parse("{\"big\":12345678901234}");
+
+		assertEquals(Long.valueOf(12345678901234L), result.get("big"));
+		assertFalse(result.containsKey(DEFAULT_INCOMPLETE_KEY_NAME));
+	}
+}
@@ -1,19 +1,28 @@
 package cat.altimiras.json.map;
 
+import cat.altimiras.AsyncDispatcher;
 import cat.altimiras.TagListener;
 import cat.altimiras.matryoshka.Matryoshka;
 import org.apache.commons.io.IOUtils;
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
 
 import static cat.altimiras.json.JSONFactory.DEFAULT_INCOMPLETE_KEY_NAME;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNull;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 public class TagListenerTest {
@@ -146,4 +155,125 @@ public class TagListenerTest {
 		assertEquals(55, matryoshka.get("nested1/n2").value());
 		assertNull(matryoshka.get("nested3/a").value());
 	}
-}
\ No newline at end of file
+
+	@Test
+	public void path() throws Exception {
+
+		String json = IOUtils.toString(this.getClass().getResourceAsStream("/json/nested1.json"), "UTF-8");
+		TagListener absolute = mock(TagListener.class);
+		TagListener relative = mock(TagListener.class);
+		TagListener object = mock(TagListener.class);
+
+		JSONMapParserImpl matryoshkaParser = new JSONMapParserImpl(DEFAULT_INCOMPLETE_KEY_NAME);
+		matryoshkaParser.register("/nested2/n1", absolute);
+		matryoshkaParser.register("nested1/n2", relative);
+		matryoshkaParser.register("/nested3", object);
+
+		matryoshkaParser.parse(json);
+
+		verify(absolute, times(1)).notify(anyString(), any());
+		verify(absolute).notify("/nested2/n1", "lolo");
+		verify(relative, times(1)).notify("nested1/n2", 55);
+		verify(object, times(1)).notify(eq("/nested3"), any(Map.class));
+	}
+
+	@Test
+	public void pathList() throws Exception {
+
+		String json = IOUtils.toString(this.getClass().getResourceAsStream("/json/nestedList1.json"), "UTF-8");
+		TagListener element = mock(TagListener.class);
+		TagListener list = mock(TagListener.class);
+
+		JSONMapParserImpl matryoshkaParser = new JSONMapParserImpl(DEFAULT_INCOMPLETE_KEY_NAME);
+		matryoshkaParser.register("/key/n1", element);
+		matryoshkaParser.register("/key", list);
+
+		matryoshkaParser.parse(json);
+
+		verify(element).notify("/key/n1", "lolo");
+		verify(element).notify("/key/n1", "lele");
+		verify(list, times(1)).notify(eq("/key"), any(List.class));
+	}
+
+	@Test
+	public void pathStop() throws Exception {
+
+		String json = IOUtils.toString(this.getClass().getResourceAsStream("/json/nested1.json"), "UTF-8");
+
+		JSONMapParserImpl matryoshkaParser = new JSONMapParserImpl(DEFAULT_INCOMPLETE_KEY_NAME);
+		matryoshkaParser.register("/nested1/n1", (tag, value) -> true);
+
+		Matryoshka matryoshka = new Matryoshka(matryoshkaParser.parse(json));
+
+		assertEquals("lolo", matryoshka.get("nested1/n1").value());
+		assertNull(matryoshka.get("key2").value());
+	}
+
+	@Test
+	public void async() throws Exception {
+
+		String json = IOUtils.toString(this.getClass().getResourceAsStream("/json/nested1.json"), "UTF-8");
+		List<Object> received = Collections.synchronizedList(new ArrayList<>());
+
+		JSONMapParserImpl matryoshkaParser = new JSONMapParserImpl(DEFAULT_INCOMPLETE_KEY_NAME);
+		matryoshkaParser.setAsyncDispatcher(new AsyncDispatcher(ForkJoinPool.commonPool(), 2, AsyncDispatcher.Backpressure.BLOCK));
+		matryoshkaParser.register("n2", (tag, value) -> received.add(value) && false);
+
+		Map result = matryoshkaParser.parse(json);
+
+		assertEquals(Arrays.asList(55, 66), received);
+		assertEquals("b", new Matryoshka(result).get("nested3/a").value());
+	}
+
+	@Test
+	public void batch() throws Exception {
+
+		List<List<Object>> items = new ArrayList<>();
+		List<List<Object>> ids = new ArrayList<>();
+
+		JSONMapParserImpl matryoshkaParser = new JSONMapParserImpl(DEFAULT_INCOMPLETE_KEY_NAME);
+		matryoshkaParser.register("list", (tag, values) -> items.add(values) && false, 2);
+		matryoshkaParser.register("id", (tag, values) -> ids.add(values) && false, 10);
+
+		matryoshkaParser.parse("{\"list\":[{\"id\":1},{\"id\":2},{\"id\":3}],\"scalars\":[\"a\",\"b\"],\"id\":4}");
+
+		//elements of the array, flushed when full and when the array is closed
+		assertEquals(2, items.size());
+		assertEquals(Arrays.asList(Collections.singletonMap("id", 1), Collections.singletonMap("id", 2)), items.get(0));
+		assertEquals(Collections.singletonList(Collections.singletonMap("id", 3)), items.get(1));
+		assertEquals(Arrays.asList(Collections.singletonList(1), Collections.singletonList(2), Collections.singletonList(3), Collections.singletonList(4)), ids);
+	}
+
+	@Test
+	public void batchIncomplete() throws Exception {
+
+		List<Object> received = new ArrayList<>();
+
+		JSONMapParserImpl matryoshkaParser = new JSONMapParserImpl(DEFAULT_INCOMPLETE_KEY_NAME);
+		matryoshkaParser.register("list", (tag, values) -> received.addAll(values) && false, 10);
+
+		Map result = matryoshkaParser.parse("{\"list\":[\"a\",\"b\",\"c\"");
+
+		assertEquals(true, result.get(DEFAULT_INCOMPLETE_KEY_NAME));
+		assertEquals(Arrays.asList("a", "b", "c"), received);
+	}
+
+	@Test
+	public void parsersDoNotShareListeners() throws Exception {
+
+		List<Object> values = new ArrayList<>();
+		JSONMapParserImpl listened = new JSONMapParserImpl(DEFAULT_INCOMPLETE_KEY_NAME);
+		JSONMapParserImpl other = new JSONMapParserImpl("other");
+
+		//registered after a parse, it is notified on next ones
+		listened.parse("{\"k\":\"first\"}");
+		listened.register("k", (tag, value) -> values.add(value) && false);
+
+		other.parse("{\"k\":\"other\"}");
+		listened.parse("{\"k\":\"second\"}");
+		Map incomplete = other.parse("{\"k\":\"other\",");
+
+		assertEquals(Collections.singletonList("second"), values);
+		assertEquals(true, incomplete.get("other"));
+	}
+}
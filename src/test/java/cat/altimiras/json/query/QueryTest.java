@@ -0,0 +1,74 @@
+package cat.altimiras.json.query;
+
+import cat.altimiras.ParseStats;
+import cat.altimiras.Parser;
+import cat.altimiras.json.JSONFactory;
+import org.apache.commons.io.IOUtils;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static cat.altimiras.json.JSONFactory.DEFAULT_INCOMPLETE_KEY_NAME;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+public class QueryTest {
+
+	@Test
+	public void simple() throws Exception {
+
+		String json = IOUtils.toString(this.getClass().getResourceAsStream("/json/nested1.json"), "UTF-8");
+		Map result = JSONFactory.getQueryParser("/key2", "/nested2/n2", "/nested3", "/none").parse(json);
+
+		assertEquals(3, result.size());
+		assertEquals("123", result.get("/key2"));
+		assertEquals(66, result.get("/nested2/n2"));
+		assertEquals("b", ((Map) result.get("/nested3")).get("a"));
+		assertFalse(result.containsKey(DEFAULT_INCOMPLETE_KEY_NAME));
+	}
+
+	@Test
+	public void arrays() throws Exception {
+
+		String json = IOUtils.toString(this.getClass().getResourceAsStream("/json/nestedList1.json"), "UTF-8");
+		Map result = JSONFactory.getQueryParser("/key/n1", "/key/a", "/key", "/*/n2").parse(json);
+
+		assertEquals("lolo", result.get("/key/n1"));
+		assertEquals(false, result.get("/key/a"));
+		assertEquals(4, ((List) result.get("/key")).size());
+		assertEquals(55, result.get("/*/n2"));
+	}
+
+	@Test
+	public void earlyTermination() throws Exception {
+
+		List<ParseStats> stats = new ArrayList<>();
+		Parser<Map> parser = JSONFactory.getQueryParser("/a/b");
+		parser.setMetrics(s -> stats.add(s));
+
+		Map result = parser.parse("{\"ignored\" : {\"x\" : [1, 2, 3]}, \"a\" : {\"b\" : \"value\"}, \"c\" : " + String.join("", Collections.nCopies(1000, "[")));
+
+		assertEquals("value", result.get("/a/b"));
+		assertFalse(result.containsKey(DEFAULT_INCOMPLETE_KEY_NAME));
+		assertEquals(1, stats.get(0).getSkipped());
+		assertEquals(1, stats.get(0).getBound());
+	}
+
+	@Test
+	public void incomplete() throws Exception {
+
+		Map result = JSONFactory.getQueryParser("/a", "/b").parse("{\"a\" : 1, \"b\" : [1, 2");
+
+		assertEquals(1, result.get("/a"));
+		assertFalse(result.containsKey("/b"));
+		assertEquals(true, result.get(DEFAULT_INCOMPLETE_KEY_NAME));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void attributesNotSupported() throws Exception {
+		JSONFactory.getQueryParser("/a/@b");
+	}
+}
@@ -0,0 +1,596 @@
+package cat.altimiras.performance;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Deterministic generator of XML and JSON documents to measure how parsers scale. Same configuration and seed always
+ * produce the same document.
+ * <p>
+ * Documents match the test POJOs:
+ * <ul>
+ * <li>LIST: ListTestObj2, unwrapped list of SimpleTestObj</li>
+ * <li>NESTED: Nested8TestObj, list of Nested6TestObj with fanOut Nested5TestObj with fanOut SimpleTestObj each</li>
+ * <li>TYPES: TypeListTestObj, unwrapped list of TypeTestObj</li>
+ * <li>DEEP: NestedLoopTestObj nested depth times, size is not used</li>
+ * </ul>
+ * Document grows adding list elements until size is reached, so it is exceeded at most by one element.
+ * Output is written as it is generated, it can be several GB.
+ */
+public class WorkloadGenerator {
+
+	/**
+	 * Tag and key not mapped on any POJO
+	 */
+	public static final String IGNORED = "ignoreme";
+
+	private final Shape shape;
+	private long size = 1024 * 1024;
+	private int depth = 2;
+	private int fanOut = 4;
+	private double attributes = 0;
+	private double ignored = 0;
+	private double cdata = 0;
+	private long truncateAt = -1;
+	private long seed = 42;
+
+	private Random random;
+	private long elements;
+
+	public WorkloadGenerator(Shape shape) {
+		this.shape = shape;
+	}
+
+	/**
+	 * Generates documents to a file.
+	 * <p>
+	 * Usage: WorkloadGenerator xml|json LIST|NESTED|TYPES|DEEP file [size=1MB] [depth=2] [fanOut=4] [attributes=0.0]
+	 * [ignored=0.0] [cdata=0.0] [truncateAt=-1] [seed=42]
+	 */
+	public static void main(String[] args) throws IOException {
+		if (args.length < 3) {
+			System.err.println("Usage: WorkloadGenerator xml|json LIST|NESTED|TYPES|DEEP file [size=1MB] [depth=2] [fanOut=4] [attributes=0.0] [ignored=0.0] [cdata=0.0] [truncateAt=-1] [seed=42]");
+			System.exit(1);
+		}
+
+		Format format = Format.valueOf(args[0].toUpperCase());
+		WorkloadGenerator generator = new WorkloadGenerator(Shape.valueOf(args[1].toUpperCase()));
+		for (int i = 3; i < args.length; i++) {
+			String[] option = args[i].split("=", 2);
+			switch (option[0]) {
+				case "size":
+					generator.size(parseSize(option[1]));
+					break;
+				case "depth":
+					generator.depth(Integer.parseInt(option[1]));
+					break;
+				case "fanOut":
+					generator.fanOut(Integer.parseInt(option[1]));
+					break;
+				case "attributes":
+					generator.attributes(Double.parseDouble(option[1]));
+					break;
+				case "ignored":
+					generator.ignored(Double.parseDouble(option[1]));
+					break;
+				case "cdata":
+					generator.cdata(Double.parseDouble(option[1]));
+					break;
+				case "truncateAt":
+					generator.truncateAt(parseSize(option[1]));
+					break;
+				case "seed":
+					generator.seed(Long.parseLong(option[1]));
+					break;
+				default:
+					throw new IllegalArgumentException("Unknown option " + option[0]);
+			}
+		}
+
+		long elements = generator.write(format, Paths.get(args[2]));
+		System.out.println("Elements:" + elements);
+	}
+
+	/**
+	 * @param size as bytes or with KB, MB or GB suffix
+	 */
+	public static long parseSize(String size) {
+		String s = size.trim().toUpperCase();
+		long unit = 1;
+		if (s.endsWith("KB")) {
+			unit = 1024L;
+		} else if (s.endsWith("MB")) {
+			unit = 1024L * 1024;
+		} else if (s.endsWith("GB")) {
+			unit = 1024L * 1024 * 1024;
+		}
+		if (unit != 1) {
+			s = s.substring(0, s.length() - 2);
+		} else if (s.endsWith("B")) {
+			s = s.substring(0, s.length() - 1);
+		}
+		return Long.parseLong(s.trim()) * unit;
+	}
+
+	/**
+	 * @param size approximated document size in bytes
+	 */
+	public WorkloadGenerator size(long size) {
+		this.size = size;
+		return this;
+	}
+
+	/**
+	 * @param depth levels of ignored elements, and of nested objects for DEEP shape
+	 */
+	public WorkloadGenerator depth(int depth) {
+		this.depth = depth;
+		return this;
+	}
+
+	/**
+	 * @param fanOut elements of nested lists for NESTED shape
+	 */
+	public WorkloadGenerator fanOut(int fanOut) {
+		this.fanOut = fanOut;
+		return this;
+	}
+
+	/**
+	 * @param attributes from 0 to 1, share of simple values written as attributes instead of elements (XML only)
+	 */
+	public WorkloadGenerator attributes(double attributes) {
+		this.attributes = attributes;
+		return this;
+	}
+
+	/**
+	 * @param ignored from 0 to 1, share of objects containing an element not mapped on the POJO
+	 */
+	public WorkloadGenerator ignored(double ignored) {
+		this.ignored = ignored;
+		return this;
+	}
+
+	/**
+	 * @param cdata from 0 to 1, share of text values written as CDATA (XML only)
+	 */
+	public WorkloadGenerator cdata(double cdata) {
+		this.cdata = cdata;
+		return this;
+	}
+
+	/**
+	 * @param truncateAt bytes written before cutting the document, negative to get a complete document
+	 */
+	public WorkloadGenerator truncateAt(long truncateAt) {
+		this.truncateAt = truncateAt;
+		return this;
+	}
+
+	public WorkloadGenerator seed(long seed) {
+		this.seed = seed;
+		return this;
+	}
+
+	public byte[] generate(Format format) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream((int) Math.min(Integer.MAX_VALUE - 8, size + 1024));
+		write(format, out);
+		return out.toByteArray();
+	}
+
+	public long write(Format format, Path path) throws IOException {
+		try (OutputStream out = Files.newOutputStream(path)) {
+			return write(format, out);
+		}
+	}
+
+	/**
+	 * Stream is not closed
+	 *
+	 * @return elements written completely on the most outer list, or nested objects for DEEP shape
+	 */
+	public long write(Format format, OutputStream out) throws IOException {
+		random = new Random(seed);
+		Output output = new Output(new BufferedOutputStream(out, 64 * 1024), truncateAt);
+		DocumentWriter writer = format == Format.XML ? new XMLWriter(output) : new JSONWriter(output);
+
+		elements = 0;
+		try {
+			switch (shape) {
+				case LIST:
+					list(writer, output, "ListTestObj2", true, "SimpleTestObj", false, this::simple);
+					break;
+				case NESTED:
+					list(writer, output, "Nested8TestObj", true, "list", true, this::nested6);
+					break;
+				case TYPES:
+					list(writer, output, "TypeListTestObj", false, "TypeTestObj", false, this::types);
+					break;
+				case DEEP:
+					elements = depth;
+					writer.root(deep(depth));
+					break;
+			}
+		} catch (Truncated e) {
+			//document cut on truncateAt
+		}
+		output.flush();
+		return elements;
+	}
+
+	private void list(DocumentWriter writer, Output output, String root, boolean withField, String list, boolean wrapped, ItemFactory items) throws IOException {
+		List<Node> fields = new ArrayList<>();
+		if (withField) {
+			fields.add(text("field"));
+		}
+		writer.openRoot(root, fields, list, wrapped);
+
+		while (output.written < size) {
+			writer.item(items.create(), elements == 0);
+			elements++;
+		}
+
+		writer.closeRoot(root, list, wrapped);
+	}
+
+	private Node simple() {
+		Node o = Node.object("SimpleTestObj");
+		value(o, "element1", Integer.toString(random.nextInt(1000)));
+		value(o, "element2", word());
+		ignored(o);
+		return o;
+	}
+
+	private Node nested6() {
+		Node o = Node.object("Nested6TestObj");
+		o.children.add(text("title"));
+		Node simple = simple();
+		simple.name = "simpleTestObj";
+		o.children.add(simple);
+		//not at the end, an unknown element just after a list without wrapper is taken as the end of the parent
+		ignored(o);
+
+		Node nested5List = Node.list("Nested5TestObj", false);
+		for (int i = 0; i < fanOut; i++) {
+			Node nested5 = Node.object("Nested5TestObj");
+			nested5.children.add(text("title"));
+			Node list = Node.list("list", true);
+			for (int j = 0; j < fanOut; j++) {
+				list.children.add(simple());
+			}
+			nested5.children.add(list);
+			nested5List.children.add(nested5);
+		}
+		o.children.add(nested5List);
+		return o;
+	}
+
+	private Node types() {
+		Node o = Node.object("TypeTestObj");
+		value(o, "text", word());
+		number(o, "integerNum", Integer.toString(random.nextInt()));
+		number(o, "longNum", Long.toString(random.nextLong()));
+		number(o, "doubleNum", Double.toString(random.nextDouble() * 1000));
+		number(o, "floatNum", Float.toString(random.nextFloat() * 1000));
+		number(o, "booleanValue", Boolean.toString(random.nextBoolean()));
+		number(o, "intPrimitiveNum", Integer.toString(random.nextInt()));
+		number(o, "longPrimitiveNum", Long.toString(random.nextLong()));
+		number(o, "doublePrimitiveNum", Double.toString(random.nextDouble() * 1000));
+		number(o, "floatPrimitiveNum", Float.toString(random.nextFloat() * 1000));
+		number(o, "booleanPrimitiveValue", Boolean.toString(random.nextBoolean()));
+		ignored(o);
+		return o;
+	}
+
+	private Node deep(int levels) {
+		Node o = Node.object(levels == depth ? "NestedLoopTestObj" : "nestedLoopTestObj");
+		number(o, "num", Integer.toString(depth - levels + 1));
+		ignored(o);
+		if (levels > 1) {
+			o.children.add(deep(levels - 1));
+		}
+		return o;
+	}
+
+	private void value(Node o, String name, String value) {
+		if (random.nextDouble() < attributes) {
+			o.attributes.add(new String[]{name, value});
+		} else {
+			Node text = Node.text(name, value, false);
+			text.cdata = random.nextDouble() < cdata;
+			if (text.cdata) {
+				text.value = value + " <" + word() + "> & " + word();
+			}
+			o.children.add(text);
+		}
+	}
+
+	private void number(Node o, String name, String value) {
+		if (random.nextDouble() < attributes) {
+			o.attributes.add(new String[]{name, value});
+		} else {
+			o.children.add(Node.text(name, value, true));
+		}
+	}
+
+	private void ignored(Node o) {
+		if (random.nextDouble() < ignored) {
+			Node current = o;
+			for (int i = 1; i < depth; i++) {
+				Node level = Node.object(IGNORED);
+				current.children.add(level);
+				current = level;
+			}
+			current.children.add(text(IGNORED));
+		}
+	}
+
+	private Node text(String name) {
+		return Node.text(name, word(), false);
+	}
+
+	private String word() {
+		int length = 3 + random.nextInt(10);
+		char[] chars = new char[length];
+		for (int i = 0; i < length; i++) {
+			chars[i] = (char) ('a' + random.nextInt(26));
+		}
+		return new String(chars);
+	}
+
+	public enum Format {
+		XML, JSON
+	}
+
+	public enum Shape {
+		LIST, NESTED, TYPES, DEEP
+	}
+
+	private interface ItemFactory {
+		Node create();
+	}
+
+	/**
+	 * Element of the document, generated in memory only for one list element at a time
+	 */
+	private static class Node {
+		String name;
+		String value;
+		boolean cdata;
+		boolean number;
+		boolean list;
+		boolean wrapped;
+		List<String[]> attributes = new ArrayList<>();
+		List<Node> children = new ArrayList<>();
+
+		static Node object(String name) {
+			Node node = new Node();
+			node.name = name;
+			return node;
+		}
+
+		static Node text(String name, String value, boolean number) {
+			Node node = new Node();
+			node.name = name;
+			node.value = value;
+			node.number = number;
+			return node;
+		}
+
+		static Node list(String name, boolean wrapped) {
+			Node node = new Node();
+			node.name = name;
+			node.list = true;
+			node.wrapped = wrapped;
+			return node;
+		}
+	}
+
+	private static abstract class DocumentWriter {
+		final Output out;
+
+		DocumentWriter(Output out) {
+			this.out = out;
+		}
+
+		abstract void root(Node root) throws IOException;
+
+		abstract void openRoot(String root, List<Node> fields, String list, boolean wrapped) throws IOException;
+
+		abstract void item(Node item, boolean first) throws IOException;
+
+		abstract void closeRoot(String root, String list, boolean wrapped) throws IOException;
+	}
+
+	private static class XMLWriter extends DocumentWriter {
+
+		XMLWriter(Output out) {
+			super(out);
+		}
+
+		@Override
+		void root(Node root) throws IOException {
+			node(root, "");
+		}
+
+		@Override
+		void openRoot(String root, List<Node> fields, String list, boolean wrapped) throws IOException {
+			out.write("<" + root + ">\n");
+			for (Node field : fields) {
+				node(field, "  ");
+			}
+			if (wrapped) {
+				out.write("  <" + list + ">\n");
+			}
+		}
+
+		@Override
+		void item(Node item, boolean first) throws IOException {
+			node(item, "    ");
+		}
+
+		@Override
+		void closeRoot(String root, String list, boolean wrapped) throws IOException {
+			if (wrapped) {
+				out.write("  </" + list + ">\n");
+			}
+			out.write("</" + root + ">\n");
+		}
+
+		private void node(Node node, String indent) throws IOException {
+			if (node.list) {
+				String childIndent = node.wrapped ? indent + "  " : indent;
+				if (node.wrapped) {
+					out.write(indent + "<" + node.name + ">\n");
+				}
+				for (Node child : node.children) {
+					node(child, childIndent);
+				}
+				if (node.wrapped) {
+					out.write(indent + "</" + node.name + ">\n");
+				}
+				return;
+			}
+
+			StringBuilder tag = new StringBuilder(indent).append('<').append(node.name);
+			for (String[] attribute : node.attributes) {
+				tag.append(' ').append(attribute[0]).append("=\"").append(attribute[1]).append('"');
+			}
+
+			if (node.value != null) {
+				tag.append('>');
+				if (node.cdata) {
+					tag.append("<![CDATA[").append(node.value).append("]]>");
+				} else {
+					tag.append(node.value);
+				}
+				out.write(tag.append("</").append(node.name).append(">\n").toString());
+			} else if (node.children.isEmpty()) {
+				out.write(tag.append("/>\n").toString());
+			} else {
+				out.write(tag.append(">\n").toString());
+				for (Node child : node.children) {
+					node(child, indent + "  ");
+				}
+				out.write(indent + "</" + node.name + ">\n");
+			}
+		}
+	}
+
+	private static class JSONWriter extends DocumentWriter {
+
+		JSONWriter(Output out) {
+			super(out);
+		}
+
+		@Override
+		void root(Node root) throws IOException {
+			value(root);
+			out.write("\n");
+		}
+
+		@Override
+		void openRoot(String root, List<Node> fields, String list, boolean wrapped) throws IOException {
+			out.write("{\n");
+			for (Node field : fields) {
+				out.write("  ");
+				node(field, true);
+				out.write(",\n");
+			}
+			out.write("  \"" + list + "\": [\n");
+		}
+
+		@Override
+		void item(Node item, boolean first) throws IOException {
+			out.write(first ? "    " : ",\n    ");
+			value(item);
+		}
+
+		@Override
+		void closeRoot(String root, String list, boolean wrapped) throws IOException {
+			out.write("\n  ]\n}\n");
+		}
+
+		private void node(Node node, boolean first) throws IOException {
+			if (!first) {
+				out.write(", ");
+			}
+			out.write("\"" + node.name + "\": ");
+			value(node);
+		}
+
+		private void value(Node node) throws IOException {
+			if (node.list) {
+				out.write("[");
+				boolean first = true;
+				for (Node child : node.children) {
+					if (!first) {
+						out.write(", ");
+					}
+					value(child);
+					first = false;
+				}
+				out.write("]");
+			} else if (node.value != null) {
+				out.write(node.number ? node.value : "\"" + node.value + "\"");
+			} else {
+				out.write("{");
+				boolean first = true;
+				for (String[] attribute : node.attributes) {
+					out.write((first ? "\"" : ", \"") + attribute[0] + "\": \"" + attribute[1] + "\"");
+					first = false;
+				}
+				for (Node child : node.children) {
+					node(child, first);
+					first = false;
+				}
+				out.write("}");
+			}
+		}
+	}
+
+	/**
+	 * Counts bytes written and cuts the document when limit is reached. Only ASCII is generated.
+	 */
+	private static class Output {
+		private final OutputStream out;
+		private final long limit;
+		private long written;
+
+		Output(OutputStream out, long limit) {
+			this.out = out;
+			this.limit = limit;
+		}
+
+		void write(String s) throws IOException {
+			byte[] bytes = s.getBytes(StandardCharsets.US_ASCII);
+			if (limit >= 0 && written + bytes.length >= limit) {
+				out.write(bytes, 0, (int) (limit - written));
+				written = limit;
+				throw new Truncated();
+			}
+			out.write(bytes);
+			written += bytes.length;
+		}
+
+		void flush() throws IOException {
+			out.flush();
+		}
+	}
+
+	private static class Truncated extends RuntimeException {
+		Truncated() {
+			super(null, null, false, false);
+		}
+	}
+}
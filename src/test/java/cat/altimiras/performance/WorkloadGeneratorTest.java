@@ -0,0 +1,169 @@
+package cat.altimiras.performance;
+
+import cat.altimiras.Parser;
+import cat.altimiras.json.map.JSONMapParserImpl;
+import cat.altimiras.xml.XMLFactory;
+import cat.altimiras.xml.pojo.ListTestObj2;
+import cat.altimiras.xml.pojo.Nested5TestObj;
+import cat.altimiras.xml.pojo.Nested6TestObj;
+import cat.altimiras.xml.pojo.Nested8TestObj;
+import cat.altimiras.xml.pojo.NestedLoopTestObj;
+import cat.altimiras.xml.pojo.SimpleTestObj;
+import cat.altimiras.xml.pojo.TypeListTestObj;
+import cat.altimiras.xml.pojo.TypeTestObj;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.util.List;
+import java.util.Map;
+
+import static cat.altimiras.json.JSONFactory.DEFAULT_INCOMPLETE_KEY_NAME;
+import static cat.altimiras.performance.WorkloadGenerator.Format.JSON;
+import static cat.altimiras.performance.WorkloadGenerator.Format.XML;
+import static cat.altimiras.performance.WorkloadGenerator.Shape;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+public class WorkloadGeneratorTest {
+
+	@BeforeClass
+	public static void setUp() throws Exception {
+		XMLFactory.init(ListTestObj2.class, Nested8TestObj.class, TypeListTestObj.class, NestedLoopTestObj.class);
+	}
+
+	@Test
+	public void deterministic() throws Exception {
+		WorkloadGenerator generator = new WorkloadGenerator(Shape.NESTED).size(16 * 1024).ignored(0.5).cdata(0.5).attributes(0.5);
+
+		assertArrayEquals(generator.generate(XML), generator.generate(XML));
+		assertArrayEquals(generator.generate(JSON), generator.generate(JSON));
+		assertFalse(new String(generator.generate(XML)).equals(new String(generator.seed(1).generate(XML))));
+	}
+
+	@Test
+	public void size() throws Exception {
+		byte[] xml = new WorkloadGenerator(Shape.LIST).size(64 * 1024).generate(XML);
+
+		assertTrue(xml.length >= 64 * 1024);
+		assertTrue(xml.length < 65 * 1024);
+	}
+
+	@Test
+	public void parseSize() throws Exception {
+		assertEquals(100, WorkloadGenerator.parseSize("100"));
+		assertEquals(100, WorkloadGenerator.parseSize("100B"));
+		assertEquals(2048, WorkloadGenerator.parseSize("2KB"));
+		assertEquals(3L * 1024 * 1024, WorkloadGenerator.parseSize("3mb"));
+		assertEquals(4L * 1024 * 1024 * 1024, WorkloadGenerator.parseSize("4GB"));
+	}
+
+	@Test
+	public void list() throws Exception {
+		WorkloadGenerator generator = new WorkloadGenerator(Shape.LIST).size(32 * 1024).attributes(0.5).ignored(0.5).cdata(0.3).depth(3);
+		long elements = generator.write(XML, new ByteArrayOutputStream());
+
+		Parser<ListTestObj2> parser = XMLFactory.getParser(ListTestObj2.class);
+		ListTestObj2 o = parser.parse(generator.generate(XML));
+
+		assertFalse(o.isIncomplete());
+		assertNotNull(o.getField());
+		assertEquals(elements, o.getList().size());
+		for (SimpleTestObj simple : o.getList()) {
+			assertNotNull(simple.getElement1());
+			assertNotNull(simple.getElement2());
+		}
+
+		Map json = new JSONMapParserImpl(DEFAULT_INCOMPLETE_KEY_NAME).parse(generator.generate(JSON));
+		assertEquals(generator.write(JSON, new ByteArrayOutputStream()), ((List) json.get("SimpleTestObj")).size());
+	}
+
+	@Test
+	public void nested() throws Exception {
+		WorkloadGenerator generator = new WorkloadGenerator(Shape.NESTED).size(32 * 1024).fanOut(3).ignored(0.5);
+
+		Parser<Nested8TestObj> parser = XMLFactory.getParser(Nested8TestObj.class);
+		Nested8TestObj o = parser.parse(generator.generate(XML));
+
+		assertFalse(o.isIncomplete());
+		assertEquals(generator.write(XML, new ByteArrayOutputStream()), o.getList().size());
+		for (Nested6TestObj nested6 : o.getList()) {
+			assertNotNull(nested6.getTitle());
+			assertNotNull(nested6.getSimpleTestObj().getElement1());
+			assertEquals(3, nested6.getList().size());
+			for (Nested5TestObj nested5 : nested6.getList()) {
+				assertNotNull(nested5.getTitle());
+				assertEquals(3, nested5.getList().size());
+			}
+		}
+
+		//lists inside list elements are not supported by MapDeserializer yet, plain jackson is used to validate it
+		Map json = new ObjectMapper().readValue(generator.generate(JSON), Map.class);
+		List<Map> list = (List) json.get("list");
+		assertEquals(generator.write(JSON, new ByteArrayOutputStream()), list.size());
+		assertEquals(3, ((List) list.get(0).get("Nested5TestObj")).size());
+	}
+
+	@Test
+	public void types() throws Exception {
+		WorkloadGenerator generator = new WorkloadGenerator(Shape.TYPES).size(8 * 1024).attributes(0.5);
+
+		Parser<TypeListTestObj> parser = XMLFactory.getParser(TypeListTestObj.class);
+		TypeListTestObj o = parser.parse(generator.generate(XML));
+
+		assertFalse(o.isIncomplete());
+		assertEquals(generator.write(XML, new ByteArrayOutputStream()), o.getList().size());
+		for (TypeTestObj type : o.getList()) {
+			assertNotNull(type.getText());
+			assertNotNull(type.getIntegerNum());
+			assertNotNull(type.getLongNum());
+			assertNotNull(type.getDoubleNum());
+			assertNotNull(type.getFloatNum());
+			assertNotNull(type.getBooleanValue());
+		}
+
+		Map json = new JSONMapParserImpl(DEFAULT_INCOMPLETE_KEY_NAME).parse(generator.generate(JSON));
+		assertFalse(json.containsKey(DEFAULT_INCOMPLETE_KEY_NAME));
+		assertEquals(generator.write(JSON, new ByteArrayOutputStream()), ((List) json.get("TypeTestObj")).size());
+	}
+
+	@Test
+	public void deep() throws Exception {
+		WorkloadGenerator generator = new WorkloadGenerator(Shape.DEEP).depth(50).ignored(1);
+
+		Parser<NestedLoopTestObj> parser = XMLFactory.getParser(NestedLoopTestObj.class);
+		NestedLoopTestObj o = parser.parse(generator.generate(XML));
+
+		int levels = 0;
+		while (o != null) {
+			levels++;
+			assertEquals(levels, o.getNum());
+			o = o.getNestedLoopTestObj();
+		}
+		assertEquals(50, levels);
+
+		Map json = new JSONMapParserImpl(DEFAULT_INCOMPLETE_KEY_NAME).parse(generator.generate(JSON));
+		assertEquals(1, json.get("num"));
+	}
+
+	@Test
+	public void truncated() throws Exception {
+		WorkloadGenerator generator = new WorkloadGenerator(Shape.LIST).size(32 * 1024).truncateAt(10_000);
+
+		byte[] xml = generator.generate(XML);
+		assertEquals(10_000, xml.length);
+
+		Parser<ListTestObj2> parser = XMLFactory.getParser(ListTestObj2.class);
+		ListTestObj2 o = parser.parse(xml);
+		assertTrue(o.isIncomplete());
+		assertTrue(o.getList().size() > 0);
+
+		byte[] json = generator.generate(JSON);
+		assertEquals(10_000, json.length);
+		assertTrue(new JSONMapParserImpl(DEFAULT_INCOMPLETE_KEY_NAME).parse(json).containsKey(DEFAULT_INCOMPLETE_KEY_NAME));
+	}
+}
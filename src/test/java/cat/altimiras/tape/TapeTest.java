@@ -0,0 +1,201 @@
+package cat.altimiras.tape;
+
+import cat.altimiras.Parser;
+import cat.altimiras.json.JSONFactory;
+import cat.altimiras.xml.XMLFactory;
+import org.junit.Test;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class TapeTest {
+
+	@Test
+	public void sameContentXML() throws Exception {
+		sameContent("/xml", ".xml", XMLFactory.getParser(), XMLFactory.getTapeParser());
+	}
+
+	@Test
+	public void sameContentJSON() throws Exception {
+		sameContent("/json", ".json", JSONFactory.getParser(), JSONFactory.getTapeParser());
+	}
+
+	private void sameContent(String folder, String extension, Parser<Map> parser, Parser<Map> tapeParser) throws Exception {
+		File[] files = new File(this.getClass().getResource(folder).toURI()).listFiles((dir, name) -> name.endsWith(extension));
+		assertTrue(files.length > 0);
+		for (File file : files) {
+			byte[] content = Files.readAllBytes(file.toPath());
+			Map expected;
+			try {
+				expected = parser.parse(content);
+			} catch (Exception e) {
+				continue;
+			}
+			Map tape = tapeParser.parse(content);
+			assertEquals(file.getName(), expected, tape);
+			if (expected != null) {
+				assertEquals(file.getName(), tape, expected);
+				assertEquals(file.getName(), expected.hashCode(), tape.hashCode());
+			}
+		}
+	}
+
+	@Test
+	public void sameContentJSONNullAndEmpty() throws Exception {
+
+		Parser<Map> parser = JSONFactory.getParser();
+		Parser<Map> tapeParser = JSONFactory.getTapeParser();
+		for (String json : Arrays.asList("null", "{}", "{\"a\":null}", "{\"a\":{}}", "{\"a\":[]}", "{\"a\":[{}]}")) {
+			assertEquals(json, parser.parse(json), tapeParser.parse(json));
+		}
+		assertNull(tapeParser.parse("null"));
+		assertNull(tapeParser.parse("{}"));
+		assertEquals(Collections.singletonMap("a", Collections.emptyMap()), tapeParser.parse("{\"a\":{}}"));
+	}
+
+	@Test
+	public void tapeKeepsNestedArraysJSON() throws Exception {
+
+		Parser<Map> parser = JSONFactory.getParser();
+		Parser<Map> tapeParser = JSONFactory.getTapeParser();
+
+		//objects inside arrays are kept on the tape, map parser replaces them with their arrays
+		String json = "{\"a\":[{\"b\":[1,2]},{\"b\":[3]}]}";
+		assertEquals(Collections.singletonMap("a", Arrays.asList(Collections.singletonMap("b", Arrays.asList(1, 2)), Collections.singletonMap("b", Arrays.asList(3)))), tapeParser.parse(json));
+		assertEquals(Collections.singletonMap("a", Arrays.asList(Arrays.asList(1, 2), Arrays.asList(3))), parser.parse(json));
+
+		//arrays inside nested objects are kept on the tape, map parser replaces the object with the array
+		json = "{\"b\":{\"c\":[1]}}";
+		assertEquals(Collections.singletonMap("b", Collections.singletonMap("c", Arrays.asList(1))), tapeParser.parse(json));
+		assertEquals(Collections.singletonMap("b", Arrays.asList(1)), parser.parse(json));
+
+		//arrays of arrays are kept on the tape, map parser only keeps the last one
+		json = "{\"a\":[[1,2],[3]]}";
+		assertEquals(Collections.singletonMap("a", Arrays.asList(Arrays.asList(1, 2), Arrays.asList(3))), tapeParser.parse(json));
+		assertEquals(Collections.singletonMap("a", Arrays.asList(3)), parser.parse(json));
+	}
+
+	@Test
+	public void navigateXML() throws Exception {
+
+		String xml = "<order id=\"7\"><line>a</line><line>b</line><empty/></order>";
+		Map map = XMLFactory.getTapeParser().parse(xml);
+		Tape tape = Tape.of(map);
+
+		int order = tape.firstChild(tape.root());
+		assertEquals("order", tape.name(order));
+		assertEquals(Tape.OBJECT, tape.kind(order));
+		assertEquals(tape.root(), tape.parent(order));
+
+		int id = tape.firstChild(order);
+		assertEquals(Tape.STRING, tape.kind(id));
+		assertEquals("7", tape.text(id));
+
+		int line = tape.nextSibling(id);
+		assertEquals("a", tape.text(line));
+		assertEquals("b", tape.text(tape.nextSibling(line)));
+		int empty = tape.nextSibling(tape.nextSibling(line));
+		assertEquals("empty", tape.name(empty));
+		assertEquals(-1, tape.firstChild(empty));
+		assertEquals(-1, tape.nextSibling(empty));
+		assertEquals(6, tape.size());
+
+		Map content = (Map) map.get("order");
+		assertEquals("7", content.get("id"));
+		assertNull(content.get("empty"));
+		assertTrue(content.containsKey("empty"));
+		assertEquals(Arrays.asList("a", "b"), ((List<Map>) content.get("line")).stream().map(m -> m.get("line")).collect(java.util.stream.Collectors.toList()));
+	}
+
+	@Test
+	public void navigateJSON() throws Exception {
+
+		String json = "{\"name\":\"x\",\"values\":[1,2.5,3000000000,true],\"nested\":{\"a\":null,\"b\":\"\"}}";
+		Map map = JSONFactory.getTapeParser().parse(json);
+		Tape tape = Tape.of(map);
+
+		assertEquals("x", map.get("name"));
+		assertEquals(Arrays.asList(1, 2.5f, 3000000000L, true), map.get("values"));
+		Map nested = (Map) map.get("nested");
+		assertEquals(1, nested.size());
+		assertEquals("", nested.get("b"));
+
+		int values = tape.nextSibling(tape.firstChild(tape.root()));
+		assertEquals(Tape.ARRAY, tape.kind(values));
+		int first = tape.firstChild(values);
+		assertNull(tape.name(first));
+		assertEquals(Tape.INT, tape.kind(first));
+		assertEquals(1, tape.value(first));
+		assertSame(tape, Tape.of(nested));
+	}
+
+	@Test
+	public void createdOnFirstAccess() throws Exception {
+
+		Map map = XMLFactory.getTapeParser().parse("<root><a><b>1</b></a><c>2</c><c>3</c></root>");
+		Map root = (Map) map.get("root");
+		assertSame(root, map.get("root"));
+		assertSame(root.get("a"), root.get("a"));
+		assertSame(root.get("c"), root.get("c"));
+		List c = (List) root.get("c");
+		assertSame(c.get(1), c.get(1));
+		assertSame(((Map) root.get("a")).get("b"), ((Map) root.get("a")).get("b"));
+	}
+
+	@Test
+	public void incomplete() throws Exception {
+
+		Map xml = XMLFactory.getTapeParser().parse("<root><a>1</a><b>2");
+		assertEquals(true, xml.get(XMLFactory.DEFAULT_INCOMPLETE_KEY_NAME));
+		assertEquals("1", ((Map) xml.get("root")).get("a"));
+
+		Map json = JSONFactory.getTapeParser().parse("{\"a\":1,\"b\":[1,2");
+		assertEquals(true, json.get(JSONFactory.DEFAULT_INCOMPLETE_KEY_NAME));
+		assertEquals(Arrays.asList(1, 2), json.get("b"));
+	}
+
+	@Test
+	public void reused() throws Exception {
+
+		Parser<Map> parser = JSONFactory.getTapeParser();
+		Map first = parser.parse("{\"a\":\"first\"}");
+		Map second = parser.parse("{\"b\":\"second\"}");
+		assertEquals("first", first.get("a"));
+		assertEquals("second", second.get("b"));
+	}
+
+	@Test
+	public void reusedWithDifferentSizes() throws Exception {
+
+		Parser<Map> parser = XMLFactory.getTapeParser();
+		StringBuilder big = new StringBuilder("<root>");
+		for (int i = 0; i < 1000; i++) {
+			big.append("<item>").append(i).append("</item>");
+		}
+		big.append("</root>");
+
+		Map first = parser.parse(big.toString());
+		//working arrays are released after it, they were much bigger
+		Map small = parser.parse("<root><item>x</item></root>");
+		Map last = parser.parse(big.toString());
+
+		assertEquals(XMLFactory.getParser().parse(big.toString()), first);
+		assertEquals("x", ((Map) small.get("root")).get("item"));
+		assertEquals(first, last);
+		assertEquals(Tape.of(first).size(), Tape.of(last).size());
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void listenersNotSupported() {
+		XMLFactory.getTapeParser().register("a", (tag, value) -> false);
+	}
+}
@@ -1,17 +1,33 @@
 package cat.altimiras.xml;
 
+import cat.altimiras.ListIterable;
 import cat.altimiras.Parser;
+import cat.altimiras.xml.bind.WoodStoxBinderParserImpl;
 import cat.altimiras.xml.map.WoodStoxMapParserImpl;
+import cat.altimiras.tape.Tape;
 import cat.altimiras.xml.obj.WoodStoxObjParserImpl;
 import cat.altimiras.xml.pojo.Nested2TestObj;
+import cat.altimiras.xml.pojo.SimpleBindingTestObj;
 import cat.altimiras.xml.pojo.SimpleTestObj;
+import cat.altimiras.xml.tape.WoodStoxTapeParserImpl;
 import org.apache.commons.io.IOUtils;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static junit.framework.TestCase.assertFalse;
 import static junit.framework.TestCase.assertNotNull;
 import static junit.framework.TestCase.assertTrue;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
 
 public class XMLFactoryTest {
 
@@ -83,4 +99,88 @@ public class XMLFactoryTest {
 		assertEquals("lolo <lo>A\n         </lo> lolo", o.getElement1().trim());
 		assertEquals("222", o.getElement2().trim());
 	}
+
+	@Test
+	public void compactMapsOptIn() throws Exception {
+		String xml = "<root><a>1</a><b><c>2</c><c>3</c></b></root>";
+
+		Map compact = XMLFactory.getParser(XMLFactory.DEFAULT_INCOMPLETE_KEY_NAME, true).parse(xml);
+		Map plain = XMLFactory.getParser().parse(xml);
+
+		assertEquals(plain, compact);
+		assertFalse(compact.get("root") instanceof HashMap);
+		//parsers got without the option are not affected
+		assertTrue(plain.get("root") instanceof HashMap);
+	}
+
+	@Test
+	public void tapeParserOptIn() throws Exception {
+		Parser<Map> parser = XMLFactory.getTapeParser();
+		assertTrue(parser instanceof WoodStoxTapeParserImpl);
+
+		Map map = parser.parse("<root><a>1</a><b><c>2</c></b></root>");
+		assertNotNull(Tape.of(map));
+		assertEquals("2", ((Map) ((Map) map.get("root")).get("b")).get("c"));
+
+		//map parsers keep supporting listeners
+		Parser<Map> mapParser = XMLFactory.getParser();
+		assertTrue(mapParser instanceof WoodStoxMapParserImpl);
+		mapParser.register("c", (tag, value) -> false);
+	}
+
+	@Test
+	public void listIterableParsers() throws Exception {
+		XMLFactory.init(SimpleTestObj.class);
+		assertTrue(XMLFactory.getParser(SimpleTestObj.class) instanceof ListIterable);
+		assertFalse(XMLFactory.getParser() instanceof ListIterable);
+	}
+
+	@Test
+	public void generatedBinderFactory() throws Exception {
+		XMLFactory.init(SimpleBindingTestObj.class);
+		Parser<SimpleBindingTestObj> parser = XMLFactory.getParser(SimpleBindingTestObj.class);
+		assertTrue(parser instanceof WoodStoxBinderParserImpl);
+
+		SimpleBindingTestObj o = parser.parse("<SimpleTestObj><element1>111</element1></SimpleTestObj>");
+		assertEquals("111", o.getElement1());
+	}
+
+	@Test
+	public void configureDoesNotChangeCreatedParsers() throws Exception {
+		XMLFactory.init(SimpleTestObj.class);
+		Parser<SimpleTestObj> parser = XMLFactory.getParser(SimpleTestObj.class);
+
+		XMLFactory.configure(XMLFactory.MODE.DTD_VALIDATION);
+		Parser<SimpleTestObj> dtdParser = XMLFactory.getParser(SimpleTestObj.class);
+
+		String xml = IOUtils.toString(this.getClass().getResourceAsStream("/xml/withDTDNoExist.xml"), "UTF-8");
+
+		//not supporting DTD, it is not loaded
+		SimpleTestObj o = parser.parse(xml);
+		assertEquals("111", o.getElement1().trim());
+
+		//DTD does not exist, it can not be loaded
+		SimpleTestObj dtd = dtdParser.parse(xml);
+		assertNull(dtd.getElement1());
+	}
+
+	@Test
+	public void concurrentInit() throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		try {
+			List<Callable<SimpleTestObj>> tasks = new ArrayList<>();
+			for (int i = 0; i < 64; i++) {
+				tasks.add(() -> {
+					XMLFactory.init(SimpleTestObj.class, Nested2TestObj.class);
+					Parser<SimpleTestObj> parser = XMLFactory.getParser(SimpleTestObj.class);
+					return parser.parse("<SimpleTestObj><element1>111</element1></SimpleTestObj>");
+				});
+			}
+			for (Future<SimpleTestObj> result : executor.invokeAll(tasks)) {
+				assertEquals("111", result.get().getElement1());
+			}
+		} finally {
+			executor.shutdown();
+		}
+	}
 }
@@ -0,0 +1,333 @@
+package cat.altimiras.xml.bind;
+
+import cat.altimiras.AsyncDispatcher;
+import cat.altimiras.ListIterable;
+import cat.altimiras.ParseStats;
+import cat.altimiras.Parser;
+import cat.altimiras.TagListener;
+import cat.altimiras.xml.pojo.ListBindingTestObj;
+import cat.altimiras.xml.pojo.ListBindingTestObjXMLBinder;
+import cat.altimiras.xml.pojo.ListPrimitivesBindingObj;
+import cat.altimiras.xml.pojo.ListPrimitivesBindingObjXMLBinder;
+import cat.altimiras.xml.pojo.Nested7BindingTestObj;
+import cat.altimiras.xml.pojo.Nested7BindingTestObjXMLBinder;
+import cat.altimiras.xml.pojo.NestedBindingTestObj;
+import cat.altimiras.xml.pojo.NestedBindingTestObjXMLBinder;
+import cat.altimiras.xml.pojo.SimpleBindingTestObj;
+import cat.altimiras.xml.pojo.SimpleBindingTestObjXMLBinder;
+import cat.altimiras.xml.pojo.TypeBindingTestObj;
+import cat.altimiras.xml.pojo.TypeBindingTestObjXMLBinder;
+import cat.altimiras.xml.pojo.TwoListsBindingObj;
+import cat.altimiras.xml.pojo.TwoListsBindingObjXMLBinder;
+import org.apache.commons.io.IOUtils;
+import org.codehaus.stax2.XMLInputFactory2;
+import org.junit.Test;
+
+import javax.xml.stream.XMLInputFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class BinderTest {
+
+	private XMLInputFactory2 xmlInputFactory = (XMLInputFactory2) XMLInputFactory.newInstance();
+
+	@Test
+	public void simpleTest() throws Exception {
+
+		String xml = IOUtils.toString(this.getClass().getResourceAsStream("/xml/simpleTest.xml"), "UTF-8");
+		Parser<SimpleBindingTestObj> parser = new WoodStoxBinderParserImpl<>(xmlInputFactory, new SimpleBindingTestObjXMLBinder());
+
+		SimpleBindingTestObj o = parser.parse(xml);
+
+		assertEquals("111", o.getElement1().trim());
+		assertEquals("222", o.getElement2().trim());
+		assertFalse(o.isIncomplete());
+	}
+
+	@Test
+	public void nestedTest() throws Exception {
+
+		String xml = IOUtils.toString(this.getClass().getResourceAsStream("/xml/nestedTest.xml"), "UTF-8");
+		Parser<NestedBindingTestObj> parser = new WoodStoxBinderParserImpl<>(xmlInputFactory, new NestedBindingTestObjXMLBinder());
+
+		NestedBindingTestObj o = parser.parse(xml);
+
+		assertEquals("title", o.getTitle());
+		assertEquals("111", o.getSimple().getElement1().trim());
+		assertEquals("222", o.getSimple().getElement2().trim());
+	}
+
+	@Test
+	public void listTest() throws Exception {
+
+		String xml = IOUtils.toString(this.getClass().getResourceAsStream("/xml/list2Test.xml"), "UTF-8");
+		Parser<ListBindingTestObj> parser = new WoodStoxBinderParserImpl<>(xmlInputFactory, new ListBindingTestObjXMLBinder());
+
+		ListBindingTestObj o = parser.parse(xml);
+
+		assertEquals(3, o.getList().size());
+		assertEquals("111", o.getList().get(0).getElement1().trim());
+		assertEquals("222", o.getList().get(1).getElement2().trim());
+		assertEquals("111", o.getList().get(2).getElement1().trim());
+		assertEquals("222", o.getList().get(2).getElement2().trim());
+	}
+
+	@Test
+	public void listPrimitivesNoWrapperTest() throws Exception {
+
+		String xml = IOUtils.toString(this.getClass().getResourceAsStream("/xml/listPrimitivesNoWrapper.xml"), "UTF-8");
+		Parser<ListPrimitivesBindingObj> parser = new WoodStoxBinderParserImpl<>(xmlInputFactory, new ListPrimitivesBindingObjXMLBinder());
+
+		ListPrimitivesBindingObj o = parser.parse(xml);
+
+		assertEquals(Arrays.asList(8, 9), o.getValues());
+		assertFalse(o.isIncomplete());
+	}
+
+	@Test
+	public void listPrimitives2NoWrapperTest() throws Exception {
+
+		String xml = IOUtils.toString(this.getClass().getResourceAsStream("/xml/listPrimitives2NoWrapper.xml"), "UTF-8");
+		Parser<Nested7BindingTestObj> parser = new WoodStoxBinderParserImpl<>(xmlInputFactory, new Nested7BindingTestObjXMLBinder());
+
+		Nested7BindingTestObj o = parser.parse(xml);
+
+		assertEquals("hola", o.getField());
+		assertEquals(Arrays.asList(8, 9), o.getValues());
+		assertEquals(Arrays.asList(1, 2), o.getAaa().getValues());
+		assertEquals(Arrays.asList(3), o.getBbb().getValues());
+		assertFalse(o.isIncomplete());
+	}
+
+	@Test
+	public void listPrimitives3NoWrapperTest() throws Exception {
+
+		String xml = IOUtils.toString(this.getClass().getResourceAsStream("/xml/listPrimitives3NoWrapper.xml"), "UTF-8");
+		Parser<TwoListsBindingObj> parser = new WoodStoxBinderParserImpl<>(xmlInputFactory, new TwoListsBindingObjXMLBinder());
+
+		TwoListsBindingObj o = parser.parse(xml);
+
+		assertEquals(Arrays.asList(1, 2), o.getValues());
+		assertEquals(Arrays.asList("aa", "bb"), o.getAnothervalues());
+		assertFalse(o.isIncomplete());
+	}
+
+	@Test
+	public void typesTest() throws Exception {
+
+		String xml = IOUtils.toString(this.getClass().getResourceAsStream("/xml/typeTest.xml"), "UTF-8");
+		Parser<TypeBindingTestObj> parser = new WoodStoxBinderParserImpl<>(xmlInputFactory, new TypeBindingTestObjXMLBinder());
+
+		TypeBindingTestObj o = parser.parse(xml);
+
+		assertEquals("text", o.getText());
+		assertEquals(Integer.valueOf(1), o.getIntegerNum());
+		assertEquals(Double.valueOf(1.1), o.getDoubleNum());
+		assertEquals(Float.valueOf(1.2f), o.getFloatNum());
+		assertEquals(Long.valueOf(2), o.getLongNum());
+		assertEquals(true, o.getBooleanValue());
+
+		assertEquals(1, o.getIntPrimitiveNum());
+		assertEquals(1.1d, o.getDoublePrimitiveNum(), 0.0d);
+		assertEquals(1.2f, o.getFloatPrimitiveNum(), 0.0f);
+		assertEquals(2l, o.getLongPrimitiveNum());
+		assertTrue(o.isBooleanPrimitiveValue());
+	}
+
+	@Test
+	public void incompleteTest() throws Exception {
+
+		String xml = IOUtils.toString(this.getClass().getResourceAsStream("/xml/incompleteListXMLTest.xml"), "UTF-8");
+		Parser<ListBindingTestObj> parser = new WoodStoxBinderParserImpl<>(xmlInputFactory, new ListBindingTestObjXMLBinder());
+
+		ListBindingTestObj o = parser.parse(xml);
+
+		assertEquals("111", o.getList().get(0).getElement1().trim());
+		assertTrue(o.isIncomplete());
+	}
+
+	@Test
+	public void ignoreOuterAndUnknownTagsTest() throws Exception {
+
+		Parser<SimpleBindingTestObj> parser = new WoodStoxBinderParserImpl<>(xmlInputFactory, new SimpleBindingTestObjXMLBinder());
+
+		SimpleBindingTestObj o = parser.parse("<a><SimpleTestObj><unknown><element1>1</element1></unknown><element1>111</element1></SimpleTestObj></a>");
+
+		assertEquals("111", o.getElement1());
+		assertNull(o.getElement2());
+	}
+
+	@Test
+	public void stopTest() throws Exception {
+
+		String xml = IOUtils.toString(this.getClass().getResourceAsStream("/xml/list2Test.xml"), "UTF-8");
+		Parser<ListBindingTestObj> parser = new WoodStoxBinderParserImpl<>(xmlInputFactory, new ListBindingTestObjXMLBinder());
+
+		TagListener stopListener = mock(TagListener.class);
+		when(stopListener.notify(eq("SimpleTestObj"), any())).thenReturn(true);
+		parser.register("SimpleTestObj", stopListener);
+
+		ListBindingTestObj o = parser.parse(xml);
+
+		assertEquals(1, o.getList().size());
+	}
+
+	@Test
+	public void stopWhenAsyncListenerCancelsTest() throws Exception {
+
+		String xml = IOUtils.toString(this.getClass().getResourceAsStream("/xml/list2Test.xml"), "UTF-8");
+		Parser<ListBindingTestObj> parser = new WoodStoxBinderParserImpl<>(xmlInputFactory, new ListBindingTestObjXMLBinder());
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			AsyncDispatcher dispatcher = new AsyncDispatcher(executor, 16, AsyncDispatcher.Backpressure.BLOCK);
+			CountDownLatch lastItem = new CountDownLatch(1);
+			AtomicInteger element1 = new AtomicInteger();
+			//on the parsing thread, on the last element waits until the asynchronous listener has cancelled the parse
+			parser.register("element1", (tag, value) -> {
+				if (element1.incrementAndGet() == 2) {
+					lastItem.countDown();
+					long timeout = System.currentTimeMillis() + 5000;
+					while (!dispatcher.isCancelled() && System.currentTimeMillis() < timeout) {
+						Thread.yield();
+					}
+				}
+				return false;
+			});
+			parser.setAsyncDispatcher(dispatcher);
+			parser.register("SimpleTestObj", (tag, value) -> {
+				try {
+					return lastItem.await(5, TimeUnit.SECONDS);
+				} catch (InterruptedException e) {
+					return true;
+				}
+			});
+
+			ListBindingTestObj o = parser.parse(xml);
+
+			//cancelled with no more notifications: binding stops before element2 of last element
+			assertEquals(3, o.getList().size());
+			assertEquals("111", o.getList().get(2).getElement1().trim());
+			assertNull(o.getList().get(2).getElement2());
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	public void metricsTest() throws Exception {
+
+		String xml = IOUtils.toString(this.getClass().getResourceAsStream("/xml/list2Test.xml"), "UTF-8");
+		Parser<ListBindingTestObj> parser = new WoodStoxBinderParserImpl<>(xmlInputFactory, new ListBindingTestObjXMLBinder());
+		List<ParseStats> stats = new ArrayList<>();
+		parser.setMetrics(s -> stats.add(s));
+
+		parser.parse(xml);
+
+		assertEquals(1, stats.size());
+		assertTrue(stats.get(0).getEvents() > 0);
+		//4 elements, 3 items and the list
+		assertEquals(8, stats.get(0).getBound());
+		assertEquals(0, stats.get(0).getSkipped());
+	}
+
+	@Test
+	public void metricsSkippedTest() throws Exception {
+
+		Parser<SimpleBindingTestObj> parser = new WoodStoxBinderParserImpl<>(xmlInputFactory, new SimpleBindingTestObjXMLBinder());
+		List<Long> bound = new ArrayList<>();
+		List<Long> skipped = new ArrayList<>();
+		parser.setMetrics(s -> {
+			bound.add(s.getBound());
+			skipped.add(s.getSkipped());
+		});
+
+		SimpleBindingTestObj o = parser.parse("<a><SimpleTestObj element2=\"222\"><unknown><element1>1</element1></unknown><element1>111</element1></SimpleTestObj></a>");
+
+		assertEquals("222", o.getElement2());
+		assertEquals(Long.valueOf(2), bound.get(0));
+		assertEquals(Long.valueOf(1), skipped.get(0));
+	}
+
+	@Test
+	public void pathListenerFallsBackToIntrospectionTest() throws Exception {
+
+		String xml = IOUtils.toString(this.getClass().getResourceAsStream("/xml/list2Test.xml"), "UTF-8");
+		Parser<ListBindingTestObj> parser = new WoodStoxBinderParserImpl<>(xmlInputFactory, new ListBindingTestObjXMLBinder());
+
+		List<Object> elements = new ArrayList<>();
+		parser.register("element1", (tag, value) -> elements.add(value) && false);
+		List<Object> items = new ArrayList<>();
+		parser.register("list/SimpleTestObj", (tag, value) -> items.add(value) && false);
+
+		ListBindingTestObj o = parser.parse(xml);
+
+		assertEquals(3, o.getList().size());
+		assertEquals("111", o.getList().get(2).getElement1().trim());
+		assertEquals(3, items.size());
+		//registered before switching to introspection
+		assertEquals(2, elements.size());
+	}
+
+	@Test
+	public void batchListenerFallsBackToIntrospectionTest() throws Exception {
+
+		String xml = IOUtils.toString(this.getClass().getResourceAsStream("/xml/list2Test.xml"), "UTF-8");
+		Parser<ListBindingTestObj> parser = new WoodStoxBinderParserImpl<>(xmlInputFactory, new ListBindingTestObjXMLBinder());
+
+		List<Integer> chunks = new ArrayList<>();
+		parser.register("SimpleTestObj", (tag, values) -> chunks.add(values.size()) && false, 2);
+
+		ListBindingTestObj o = parser.parse(xml);
+
+		assertEquals(3, o.getList().size());
+		assertEquals(Arrays.asList(2, 1), chunks);
+	}
+
+	@Test
+	public void iterateTest() throws Exception {
+
+		Parser<ListBindingTestObj> parser = new WoodStoxBinderParserImpl<>(xmlInputFactory, new ListBindingTestObjXMLBinder());
+
+		Iterator<SimpleBindingTestObj> it = ((ListIterable) parser).iterate(this.getClass().getResourceAsStream("/xml/list2Test.xml"), SimpleBindingTestObj.class);
+
+		int count = 0;
+		while (it.hasNext()) {
+			assertNotNull(it.next());
+			count++;
+		}
+		assertEquals(3, count);
+	}
+
+	@Test
+	public void closeStreamTest() throws Exception {
+
+		Parser<ListBindingTestObj> parser = new WoodStoxBinderParserImpl<>(xmlInputFactory, new ListBindingTestObjXMLBinder());
+		List<ParseStats> stats = new ArrayList<>();
+		parser.setMetrics(stats::add);
+
+		try (Stream<SimpleBindingTestObj> stream = ((ListIterable) parser).stream(this.getClass().getResourceAsStream("/xml/list2Test.xml"), SimpleBindingTestObj.class)) {
+			assertNotNull(stream.findFirst().orElse(null));
+		}
+
+		assertEquals(1, stats.size());
+		assertTrue(stats.get(0).isStopped());
+	}
+}
@@ -0,0 +1,73 @@
+package cat.altimiras.xml.map;
+
+import cat.altimiras.AsyncDispatcher;
+import org.codehaus.stax2.XMLInputFactory2;
+import org.junit.After;
+import org.junit.Test;
+
+import javax.xml.stream.XMLInputFactory;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static cat.altimiras.xml.XMLFactory.DEFAULT_INCOMPLETE_KEY_NAME;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+public class AsyncListenerTest {
+
+	private static final int ITEMS = 1000;
+
+	private XMLInputFactory2 xmlInputFactory = (XMLInputFactory2) XMLInputFactory.newInstance();
+
+	private ExecutorService executor = Executors.newSingleThreadExecutor();
+
+	@After
+	public void tearDown() throws Exception {
+		executor.shutdownNow();
+		executor.awaitTermination(1, TimeUnit.SECONDS);
+	}
+
+	private static String xml() {
+		StringBuilder sb = new StringBuilder("<ListTestObj><list>");
+		for (int i = 0; i < ITEMS; i++) {
+			sb.append("<SimpleTestObj><element1>").append(i).append("</element1><element2>x</element2></SimpleTestObj>");
+		}
+		return sb.append("</list></ListTestObj>").toString();
+	}
+
+	@Test
+	public void closedElementIsNotified() throws Exception {
+
+		WoodStoxMapParserImpl parser = new WoodStoxMapParserImpl(xmlInputFactory, DEFAULT_INCOMPLETE_KEY_NAME);
+		parser.setAsyncDispatcher(new AsyncDispatcher(executor, 16, AsyncDispatcher.Backpressure.BLOCK));
+
+		List<Map> received = Collections.synchronizedList(new ArrayList<>());
+		List<Thread> threads = Collections.synchronizedList(new ArrayList<>());
+		List<Object> texts = Collections.synchronizedList(new ArrayList<>());
+		parser.register("SimpleTestObj", (tag, value) -> {
+			//copied on the executor thread while the parser keeps building the document
+			received.add(new HashMap((Map) value));
+			threads.add(Thread.currentThread());
+			return false;
+		});
+		parser.register("element2", (tag, value) -> texts.add(value) && false);
+
+		Map result = parser.parse(xml());
+
+		assertEquals(ITEMS, ((List) ((Map) result.get("ListTestObj")).get("list")).size());
+		assertEquals(ITEMS, received.size());
+		for (int i = 0; i < ITEMS; i++) {
+			assertEquals(2, received.get(i).size());
+			assertEquals(String.valueOf(i), received.get(i).get("element1"));
+		}
+		//text elements are notified once, with their text
+		assertEquals(Collections.nCopies(ITEMS, "x"), texts);
+		assertNotEquals(Thread.currentThread(), threads.get(0));
+	}
+}
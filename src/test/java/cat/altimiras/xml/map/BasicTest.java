@@ -6,10 +6,18 @@ import org.codehaus.stax2.XMLInputFactory2;
 import org.junit.Test;
 
 import javax.xml.stream.XMLInputFactory;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
 import java.util.Map;
 
 import static cat.altimiras.xml.XMLFactory.DEFAULT_INCOMPLETE_KEY_NAME;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
 public class BasicTest {
@@ -76,4 +84,70 @@ public class BasicTest {
 
 		assertTrue(result.isEmpty());
 	}
-}
\ No newline at end of file
+
+	@Test
+	public void simpleXmlInputStream() throws Exception {
+
+		WoodStoxMapParserImpl parser = new WoodStoxMapParserImpl(xmlInputFactory, DEFAULT_INCOMPLETE_KEY_NAME);
+
+		try (InputStream xml = this.getClass().getResourceAsStream("/xml/simpleTest.xml")) {
+			Map result = parser.parse(xml);
+			Matryoshka matryoshka = new Matryoshka(result);
+
+			assertEquals("111", matryoshka.get("SimpleTestObj/element1").value());
+			assertEquals("222", matryoshka.get("SimpleTestObj/element2").value());
+		}
+	}
+
+	@Test
+	public void simpleXmlReader() throws Exception {
+
+		WoodStoxMapParserImpl parser = new WoodStoxMapParserImpl(xmlInputFactory, DEFAULT_INCOMPLETE_KEY_NAME);
+
+		try (Reader xml = new InputStreamReader(this.getClass().getResourceAsStream("/xml/simpleTest.xml"), StandardCharsets.UTF_8)) {
+			Map result = parser.parse(xml);
+			Matryoshka matryoshka = new Matryoshka(result);
+
+			assertEquals("111", matryoshka.get("SimpleTestObj/element1").value());
+			assertEquals("222", matryoshka.get("SimpleTestObj/element2").value());
+		}
+	}
+
+	@Test
+	public void simpleXmlChannel() throws Exception {
+
+		WoodStoxMapParserImpl parser = new WoodStoxMapParserImpl(xmlInputFactory, DEFAULT_INCOMPLETE_KEY_NAME);
+
+		try (ReadableByteChannel xml = Channels.newChannel(this.getClass().getResourceAsStream("/xml/simpleTest.xml"))) {
+			Map result = parser.parse(xml);
+			Matryoshka matryoshka = new Matryoshka(result);
+
+			assertEquals("111", matryoshka.get("SimpleTestObj/element1").value());
+			assertEquals("222", matryoshka.get("SimpleTestObj/element2").value());
+		}
+	}
+
+	@Test
+	public void simpleXmlPath() throws Exception {
+
+		WoodStoxMapParserImpl parser = new WoodStoxMapParserImpl(xmlInputFactory, DEFAULT_INCOMPLETE_KEY_NAME);
+
+		Map result = parser.parse(Paths.get(this.getClass().getResource("/xml/simpleTest.xml").toURI()));
+		Matryoshka matryoshka = new Matryoshka(result);
+
+		assertEquals("111", matryoshka.get("SimpleTestObj/element1").value());
+		assertEquals("222", matryoshka.get("SimpleTestObj/element2").value());
+	}
+
+	@Test
+	public void bigXmlPath() throws Exception {
+
+		WoodStoxMapParserImpl parser = new WoodStoxMapParserImpl(xmlInputFactory, DEFAULT_INCOMPLETE_KEY_NAME);
+
+		Map result = parser.parse(Paths.get(this.getClass().getResource("/performance/bigListTest.xml").toURI()));
+		Matryoshka matryoshka = new Matryoshka(result);
+
+		assertEquals("111", matryoshka.get("ListTestObj/list").asList().get(0).get("SimpleTestObj/element1").value());
+		assertFalse(result.containsKey(DEFAULT_INCOMPLETE_KEY_NAME));
+	}
+}
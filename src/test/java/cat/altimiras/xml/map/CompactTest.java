@@ -0,0 +1,94 @@
+package cat.altimiras.xml.map;
+
+import org.apache.commons.io.IOUtils;
+import org.codehaus.stax2.XMLInputFactory2;
+import org.junit.Test;
+
+import javax.xml.stream.XMLInputFactory;
+import java.io.File;
+import java.nio.file.Files;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import static cat.altimiras.xml.XMLFactory.DEFAULT_INCOMPLETE_KEY_NAME;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class CompactTest {
+
+	private XMLInputFactory2 xmlInputFactory = (XMLInputFactory2) XMLInputFactory.newInstance();
+
+	@Test
+	public void sameContent() throws Exception {
+
+		WoodStoxMapParserImpl parser = new WoodStoxMapParserImpl(xmlInputFactory, DEFAULT_INCOMPLETE_KEY_NAME);
+		WoodStoxMapParserImpl compactParser = new WoodStoxMapParserImpl(xmlInputFactory, DEFAULT_INCOMPLETE_KEY_NAME, true);
+
+		File[] files = new File(this.getClass().getResource("/xml").toURI()).listFiles((dir, name) -> name.endsWith(".xml"));
+		assertTrue(files.length > 0);
+		for (File file : files) {
+			byte[] xml = Files.readAllBytes(file.toPath());
+			Map expected;
+			try {
+				expected = parser.parse(xml);
+			} catch (Exception e) {
+				continue;
+			}
+			Map compact = compactParser.parse(xml);
+			assertEquals(file.getName(), expected, compact);
+			assertEquals(file.getName(), compact, expected);
+			assertEquals(file.getName(), expected.hashCode(), compact.hashCode());
+		}
+	}
+
+	@Test
+	public void listWithAttributes() throws Exception {
+
+		String xml = IOUtils.toString(this.getClass().getResourceAsStream("/xml/listNoWrapperWithAttributes.xml"), "UTF-8");
+		Map compact = new WoodStoxMapParserImpl(xmlInputFactory, DEFAULT_INCOMPLETE_KEY_NAME, true).parse(xml);
+
+		Map root = (Map) compact.values().iterator().next();
+		assertTrue(root instanceof CompactNode);
+		boolean list = false;
+		for (Object value : root.values()) {
+			list |= value instanceof List;
+		}
+		assertTrue(list);
+	}
+
+	@Test
+	public void mapContract() throws Exception {
+
+		CompactNode node = new CompactNode();
+		Map<String, Object> expected = new HashMap<>();
+		for (int i = 0; i < 40; i++) {
+			assertNull(node.put(new String("k" + i), i));
+			expected.put("k" + i, i);
+		}
+		assertEquals(expected, node);
+		assertEquals(12, node.get("k12"));
+		assertEquals(12, node.put("k12", -12));
+		assertEquals(-12, node.get("k12"));
+
+		assertEquals(-12, node.remove("k12"));
+		assertFalse(node.containsKey("k12"));
+		assertEquals(39, node.size());
+
+		Iterator<Map.Entry<String, Object>> it = node.entrySet().iterator();
+		while (it.hasNext()) {
+			Map.Entry<String, Object> entry = it.next();
+			if ((Integer) entry.getValue() % 2 == 0) {
+				it.remove();
+			} else {
+				entry.setValue(-(Integer) entry.getValue());
+			}
+		}
+		assertEquals(20, node.size());
+		assertEquals(-13, node.get("k13"));
+		assertNull(node.get("k14"));
+	}
+}
@@ -7,6 +7,10 @@ import org.codehaus.stax2.XMLInputFactory2;
 import org.junit.Test;
 
 import javax.xml.stream.XMLInputFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 
 import static cat.altimiras.xml.XMLFactory.DEFAULT_INCOMPLETE_KEY_NAME;
@@ -92,4 +96,75 @@ public class TagListenerTest {
 		assertEquals("111", matryoshka.get("Nested2TestObj/simpleTestObj1/element1").value());
 		assertNull(matryoshka.get("Nested2TestObj/simpleTestObj2").value());
 	}
-}
\ No newline at end of file
+
+	@Test
+	public void listenerPathTest() throws Exception {
+
+		String xml = IOUtils.toString(this.getClass().getResourceAsStream("/xml/listTest.xml"), "UTF-8");
+		WoodStoxMapParserImpl parser = new WoodStoxMapParserImpl(xmlInputFactory, DEFAULT_INCOMPLETE_KEY_NAME);
+
+		TagListener absolute = mock(TagListener.class);
+		TagListener relative = mock(TagListener.class);
+		TagListener notPresent = mock(TagListener.class);
+
+		parser.register("/wrapperWeDontWant/ListTestObj/list/SimpleTestObj/element1", absolute);
+		parser.register("list/SimpleTestObj", relative);
+		parser.register("/ListTestObj/list", notPresent);
+
+		parser.parse(xml);
+		verify(absolute, times(2)).notify("/wrapperWeDontWant/ListTestObj/list/SimpleTestObj/element1", "111");
+		verify(relative, times(2)).notify(eq("list/SimpleTestObj"), any(Map.class));
+		verify(notPresent, never()).notify(any(), any());
+	}
+
+	@Test
+	public void listenerPathStopTest() throws Exception {
+
+		String xml = IOUtils.toString(this.getClass().getResourceAsStream("/xml/nested2Test.xml"), "UTF-8");
+		WoodStoxMapParserImpl parser = new WoodStoxMapParserImpl(xmlInputFactory, DEFAULT_INCOMPLETE_KEY_NAME);
+
+		parser.register("/Nested2TestObj/simpleTestObj1", (tag, value) -> true);
+
+		Matryoshka matryoshka = new Matryoshka(parser.parse(xml));
+		assertEquals("111", matryoshka.get("Nested2TestObj/simpleTestObj1/element1").value());
+		assertNull(matryoshka.get("Nested2TestObj/title").value());
+	}
+
+	@Test
+	public void batchListenerTest() throws Exception {
+
+		WoodStoxMapParserImpl parser = new WoodStoxMapParserImpl(xmlInputFactory, DEFAULT_INCOMPLETE_KEY_NAME);
+
+		List<List<Object>> items = new ArrayList<>();
+		List<List<Object>> ids = new ArrayList<>();
+		parser.register("item", (tag, values) -> items.add(values) && false, 2);
+		parser.register("id", (tag, values) -> ids.add(values) && false, 10);
+
+		parser.parse("<root><list><item><id>1</id></item><item><id>2</id></item><item><id>3</id></item></list><item><id>4</id></item></root>");
+
+		//flushed when full, when list is closed and when root is closed
+		assertEquals(3, items.size());
+		assertEquals(2, items.get(0).size());
+		assertEquals(Collections.singletonList(Collections.singletonMap("id", "3")), items.get(1));
+		assertEquals(Collections.singletonList(Collections.singletonMap("id", "4")), items.get(2));
+		assertEquals(Arrays.asList(Collections.singletonList("1"), Collections.singletonList("2"), Collections.singletonList("3"), Collections.singletonList("4")), ids);
+	}
+
+	@Test
+	public void listenerOnParsingThreadGetsParentContentTest() throws Exception {
+
+		String xml = IOUtils.toString(this.getClass().getResourceAsStream("/xml/simpleTest.xml"), "UTF-8");
+		WoodStoxMapParserImpl parser = new WoodStoxMapParserImpl(xmlInputFactory, DEFAULT_INCOMPLETE_KEY_NAME);
+
+		List<Object> values = new ArrayList<>();
+		parser.register("element2", (tag, value) -> values.add(value) && false);
+
+		parser.parse(xml);
+
+		//without AsyncDispatcher text is notified when read and, on close, content of the parent element
+		assertEquals(2, values.size());
+		assertEquals("222", values.get(0));
+		assertEquals("222", ((Map) values.get(1)).get("element2"));
+		assertEquals("111", ((Map) values.get(1)).get("element1"));
+	}
+}
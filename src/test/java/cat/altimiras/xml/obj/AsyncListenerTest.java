@@ -0,0 +1,183 @@
+package cat.altimiras.xml.obj;
+
+import cat.altimiras.AsyncDispatcher;
+import cat.altimiras.ParseStats;
+import cat.altimiras.Parser;
+import cat.altimiras.xml.pojo.ListTestObj;
+import cat.altimiras.xml.pojo.SimpleTestObj;
+import org.codehaus.stax2.XMLInputFactory2;
+import org.junit.After;
+import org.junit.Test;
+
+import javax.xml.stream.XMLInputFactory;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class AsyncListenerTest {
+
+	private static final int ITEMS = 1000;
+
+	private XMLInputFactory2 xmlInputFactory = (XMLInputFactory2) XMLInputFactory.newInstance();
+
+	private ExecutorService executor = Executors.newSingleThreadExecutor();
+
+	@After
+	public void tearDown() throws Exception {
+		executor.shutdownNow();
+		executor.awaitTermination(1, TimeUnit.SECONDS);
+	}
+
+	private static String xml() {
+		StringBuilder sb = new StringBuilder("<ListTestObj><list>");
+		for (int i = 0; i < ITEMS; i++) {
+			sb.append("<SimpleTestObj><element1>").append(i).append("</element1></SimpleTestObj>");
+		}
+		return sb.append("</list></ListTestObj>").toString();
+	}
+
+	private Parser<ListTestObj> parser(AsyncDispatcher dispatcher) throws Exception {
+		Parser<ListTestObj> parser = new WoodStoxObjParserImpl<>(xmlInputFactory, ListTestObj.class, new ClassIntrospector(ListTestObj.class));
+		parser.setAsyncDispatcher(dispatcher);
+		return parser;
+	}
+
+	@Test
+	public void inOrderBeforeParseReturns() throws Exception {
+
+		Parser<ListTestObj> parser = parser(new AsyncDispatcher(executor, 16, AsyncDispatcher.Backpressure.BLOCK));
+
+		List<String> received = Collections.synchronizedList(new ArrayList<>());
+		List<Thread> threads = Collections.synchronizedList(new ArrayList<>());
+		parser.register("list/SimpleTestObj", (tag, value) -> {
+			received.add(((SimpleTestObj) value).getElement1());
+			threads.add(Thread.currentThread());
+			return false;
+		});
+
+		//twice, dispatcher is reused by every parse
+		for (int p = 0; p < 2; p++) {
+			received.clear();
+			ListTestObj o = parser.parse(xml());
+
+			assertEquals(ITEMS, o.getList().size());
+			assertEquals(ITEMS, received.size());
+			for (int i = 0; i < ITEMS; i++) {
+				assertEquals(String.valueOf(i), received.get(i));
+			}
+		}
+		assertNotEquals(Thread.currentThread(), threads.get(0));
+	}
+
+	@Test
+	public void listenerStops() throws Exception {
+
+		List<ParseStats> stats = new ArrayList<>();
+		Parser<ListTestObj> parser = parser(new AsyncDispatcher(executor, 16, AsyncDispatcher.Backpressure.BLOCK));
+		parser.setMetrics(stats::add);
+
+		List<String> received = Collections.synchronizedList(new ArrayList<>());
+		parser.register("list/SimpleTestObj", (tag, value) -> {
+			received.add(((SimpleTestObj) value).getElement1());
+			return received.size() == 10;
+		});
+
+		ListTestObj o = parser.parse(xml());
+
+		assertEquals(10, received.size());
+		assertTrue(o.getList().size() < ITEMS);
+		assertTrue(stats.get(0).isStopped());
+	}
+
+	@Test
+	public void drop() throws Exception {
+
+		CountDownLatch release = new CountDownLatch(1);
+		AsyncDispatcher dispatcher = new AsyncDispatcher(executor, 4, AsyncDispatcher.Backpressure.DROP);
+		Parser<ListTestObj> parser = parser(dispatcher);
+
+		List<String> received = Collections.synchronizedList(new ArrayList<>());
+		parser.register("list/SimpleTestObj", (tag, value) -> {
+			try {
+				release.await();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			received.add(((SimpleTestObj) value).getElement1());
+			return false;
+		});
+
+		executor.execute(() -> {
+			try {
+				Thread.sleep(200);
+			} catch (InterruptedException e) {
+				//nothing to do
+			}
+			release.countDown();
+		});
+
+		ListTestObj o = parser.parse(xml());
+
+		assertEquals(ITEMS, o.getList().size());
+		assertTrue(dispatcher.getDropped() > 0);
+		assertEquals(ITEMS, received.size() + dispatcher.getDropped());
+		assertFalse(dispatcher.isCancelled());
+	}
+
+	@Test
+	public void stopWhenFull() throws Exception {
+
+		CountDownLatch release = new CountDownLatch(1);
+		AsyncDispatcher dispatcher = new AsyncDispatcher(executor, 4, AsyncDispatcher.Backpressure.STOP);
+		Parser<ListTestObj> parser = parser(dispatcher);
+
+		parser.register("list/SimpleTestObj", (tag, value) -> {
+			try {
+				release.await(5, TimeUnit.SECONDS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			return false;
+		});
+
+		new Thread(() -> {
+			try {
+				Thread.sleep(200);
+			} catch (InterruptedException e) {
+				//nothing to do
+			}
+			release.countDown();
+		}).start();
+
+		ListTestObj o = parser.parse(xml());
+
+		assertTrue(dispatcher.isCancelled());
+		assertTrue(o.getList().size() < ITEMS);
+	}
+
+	@Test
+	public void listenerException() throws Exception {
+
+		Parser<ListTestObj> parser = parser(new AsyncDispatcher(executor, 16, AsyncDispatcher.Backpressure.BLOCK));
+		parser.register("list/SimpleTestObj", (tag, value) -> {
+			throw new IllegalStateException("listener failed");
+		});
+
+		try {
+			parser.parse(xml());
+			fail("Listener exception must be thrown by parse");
+		} catch (IllegalStateException e) {
+			assertEquals("listener failed", e.getMessage());
+		}
+	}
+}
@@ -7,9 +7,19 @@ import org.codehaus.stax2.XMLInputFactory2;
 import org.junit.Test;
 
 import javax.xml.stream.XMLInputFactory;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 
 public class BasicTest {
 
@@ -83,4 +93,104 @@ public class BasicTest {
 		assertNull(o.getElement1());
 		assertNull(o.getElement2());
 	}
+
+	@Test
+	public void xmlSimpleInputStreamTest() throws Exception {
+
+		ClassIntrospector ci = new ClassIntrospector(SimpleTestObj.class);
+
+		Parser<SimpleTestObj> parser = new WoodStoxObjParserImpl<>(xmlInputFactory, SimpleTestObj.class, ci);
+
+		try (InputStream xml = this.getClass().getResourceAsStream("/xml/simpleTest.xml")) {
+			SimpleTestObj o = parser.parse(xml);
+
+			assertEquals("111", o.getElement1().trim());
+			assertEquals("222", o.getElement2().trim());
+		}
+	}
+
+	@Test
+	public void xmlSimpleReaderTest() throws Exception {
+
+		ClassIntrospector ci = new ClassIntrospector(SimpleTestObj.class);
+
+		Parser<SimpleTestObj> parser = new WoodStoxObjParserImpl<>(xmlInputFactory, SimpleTestObj.class, ci);
+
+		try (Reader xml = new InputStreamReader(this.getClass().getResourceAsStream("/xml/simpleTest.xml"), StandardCharsets.UTF_8)) {
+			SimpleTestObj o = parser.parse(xml);
+
+			assertEquals("111", o.getElement1().trim());
+			assertEquals("222", o.getElement2().trim());
+		}
+	}
+
+	@Test
+	public void xmlSimpleChannelTest() throws Exception {
+
+		ClassIntrospector ci = new ClassIntrospector(SimpleTestObj.class);
+
+		Parser<SimpleTestObj> parser = new WoodStoxObjParserImpl<>(xmlInputFactory, SimpleTestObj.class, ci);
+
+		try (ReadableByteChannel xml = Channels.newChannel(this.getClass().getResourceAsStream("/xml/simpleTest.xml"))) {
+			SimpleTestObj o = parser.parse(xml);
+
+			assertEquals("111", o.getElement1().trim());
+			assertEquals("222", o.getElement2().trim());
+		}
+	}
+
+	@Test(expected = NullPointerException.class)
+	public void invalidNullInputStreamTest() throws Exception {
+
+		ClassIntrospector ci = new ClassIntrospector(SimpleTestObj.class);
+
+		Parser<SimpleTestObj> parser = new WoodStoxObjParserImpl<>(xmlInputFactory, SimpleTestObj.class, ci);
+		parser.parse((InputStream) null);
+	}
+
+	@Test
+	public void xmlSimplePathTest() throws Exception {
+
+		ClassIntrospector ci = new ClassIntrospector(SimpleTestObj.class);
+
+		Parser<SimpleTestObj> parser = new WoodStoxObjParserImpl<>(xmlInputFactory, SimpleTestObj.class, ci);
+
+		SimpleTestObj o = parser.parse(Paths.get(this.getClass().getResource("/xml/simpleTest.xml").toURI()));
+
+		assertEquals("111", o.getElement1().trim());
+		assertEquals("222", o.getElement2().trim());
+	}
+
+	@Test
+	public void reuseParserTest() throws Exception {
+
+		ClassIntrospector ci = new ClassIntrospector(SimpleTestObj.class);
+
+		Parser<SimpleTestObj> parser = new WoodStoxObjParserImpl<>(xmlInputFactory, SimpleTestObj.class, ci);
+
+		SimpleTestObj o1 = parser.parse("<SimpleTestObj><element1>111</element1></SimpleTestObj>");
+		SimpleTestObj o2 = parser.parse("<SimpleTestObj><element2>222</element2></SimpleTestObj>");
+
+		assertNotSame(o1, o2);
+		assertEquals("111", o1.getElement1());
+		assertNull(o1.getElement2());
+		assertNull(o2.getElement1());
+		assertEquals("222", o2.getElement2());
+	}
+
+	@Test
+	public void reuseParserAfterIncompleteTest() throws Exception {
+
+		ClassIntrospector ci = new ClassIntrospector(SimpleTestObj.class);
+
+		Parser<SimpleTestObj> parser = new WoodStoxObjParserImpl<>(xmlInputFactory, SimpleTestObj.class, ci);
+
+		SimpleTestObj o1 = parser.parse("<SimpleTestObj><element1>111</element1><element2>22");
+		SimpleTestObj o2 = parser.parse("<SimpleTestObj><element1>333</element1></SimpleTestObj>");
+
+		assertTrue(o1.isIncomplete());
+		assertFalse(o2.isIncomplete());
+		assertEquals("333", o2.getElement1());
+		assertNull(o2.getElement2());
+	}
 }
@@ -6,6 +6,7 @@ import cat.altimiras.xml.pojo.NestedTestObj;
 import cat.altimiras.xml.pojo.NotXMLElement;
 import cat.altimiras.xml.pojo.SimpleAnnotationTestObj;
 import cat.altimiras.xml.pojo.SimpleTestObj;
+import cat.altimiras.xml.pojo.WideTestObj;
 import org.codehaus.stax2.XMLInputFactory2;
 import org.junit.Test;
 
@@ -13,6 +14,9 @@ import javax.xml.stream.XMLInputFactory;
 import java.util.List;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 
 public class ClassIntrospectorTest {
 
@@ -89,4 +93,49 @@ public class ClassIntrospectorTest {
 		int hashSimpleAnnotationTestObj = classIntrospector2.getClassHashCode(SimpleAnnotationTestObj.class);
 		assertEquals("wrapper".hashCode(), hashSimpleAnnotationTestObj);
 	}
+
+	@Test
+	public void testAccessor() throws Exception {
+
+		ClassIntrospector<ListTestObj> classIntrospector = new ClassIntrospector<>(ListTestObj.class);
+
+		FieldAccessor element1 = classIntrospector.getAccessor(SimpleTestObj.class, "element1");
+		assertTrue(element1.isPrimitive());
+		assertFalse(element1.isList());
+
+		SimpleTestObj o = new SimpleTestObj();
+		element1.set(o, "111");
+		assertEquals("111", o.getElement1());
+		assertEquals("111", element1.get(o));
+
+		FieldAccessor list = classIntrospector.getAccessor(ListTestObj.class, "list");
+		assertTrue(list.isList());
+		assertEquals(SimpleTestObj.class, list.getListElementClass());
+
+		assertNull(classIntrospector.getAccessor(SimpleTestObj.class, "notExist"));
+	}
+
+	@Test
+	public void testWideClass() throws Exception {
+
+		ClassIntrospector<WideTestObj> classIntrospector = new ClassIntrospector<>(WideTestObj.class);
+
+		for (int i = 0; i < 60; i++) {
+			assertEquals("field" + i, classIntrospector.getField(WideTestObj.class, "field" + i).getName());
+		}
+		assertFalse(classIntrospector.hasField(WideTestObj.class, "field60"));
+		assertFalse(classIntrospector.hasField(SimpleTestObj.class, "field1"));
+	}
+
+	@Test
+	public void testSameHashCodeFields() throws Exception {
+
+		assertEquals("Aa".hashCode(), "BB".hashCode());
+
+		ClassIntrospector<WideTestObj> classIntrospector = new ClassIntrospector<>(WideTestObj.class);
+
+		assertEquals("Aa", classIntrospector.getField(WideTestObj.class, "Aa").getName());
+		assertEquals("BB", classIntrospector.getField(WideTestObj.class, "BB").getName());
+		assertNull(classIntrospector.getField(WideTestObj.class, "C#"));
+	}
 }
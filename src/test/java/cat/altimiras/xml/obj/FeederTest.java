@@ -0,0 +1,185 @@
+package cat.altimiras.xml.obj;
+
+import cat.altimiras.Feeder;
+import cat.altimiras.Parser;
+import cat.altimiras.xml.map.WoodStoxMapParserImpl;
+import cat.altimiras.xml.pojo.ListTestObj;
+import cat.altimiras.xml.pojo.SimpleTestObj;
+import org.codehaus.stax2.XMLInputFactory2;
+import org.junit.After;
+import org.junit.Test;
+
+import javax.xml.stream.XMLInputFactory;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static cat.altimiras.xml.XMLFactory.DEFAULT_INCOMPLETE_KEY_NAME;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class FeederTest {
+
+	private XMLInputFactory2 xmlInputFactory = (XMLInputFactory2) XMLInputFactory.newInstance();
+
+	private ExecutorService executor = Executors.newSingleThreadExecutor();
+
+	@After
+	public void tearDown() {
+		executor.shutdownNow();
+	}
+
+	@Test
+	public void notifiedAsFed() throws Exception {
+
+		ClassIntrospector ci = new ClassIntrospector(ListTestObj.class);
+		Parser<ListTestObj> parser = new WoodStoxObjParserImpl<>(xmlInputFactory, ListTestObj.class, ci);
+
+		CountDownLatch first = new CountDownLatch(1);
+		parser.register("SimpleTestObj", (tag, value) -> {
+			first.countDown();
+			return false;
+		});
+
+		Feeder<ListTestObj> feeder = parser.feeder(executor);
+		feed(feeder, "<ListTestObj><list><SimpleTestObj><element1>1</element1></SimpleTestObj>");
+
+		//first element is notified while the rest of the document has not arrived
+		assertTrue(first.await(10, TimeUnit.SECONDS));
+
+		ByteBuffer chunk = ByteBuffer.wrap("<SimpleTestObj><element1>2</element1></SimpleTestObj></list></ListTestObj>".getBytes(StandardCharsets.UTF_8));
+		assertTrue(feeder.feed(chunk));
+		assertFalse(chunk.hasRemaining());
+		ListTestObj o = feeder.endOfInput();
+
+		assertFalse(o.isIncomplete());
+		assertEquals(2, o.getList().size());
+		assertEquals("2", o.getList().get(1).getElement1());
+	}
+
+	@Test
+	public void incomplete() throws Exception {
+
+		ClassIntrospector ci = new ClassIntrospector(ListTestObj.class);
+		Parser<ListTestObj> parser = new WoodStoxObjParserImpl<>(xmlInputFactory, ListTestObj.class, ci);
+
+		Feeder<ListTestObj> feeder = parser.feeder(executor);
+		feed(feeder, "<ListTestObj><list><SimpleTestObj><element1>1</element1></SimpleTestObj><Simple");
+		ListTestObj o = feeder.endOfInput();
+
+		assertTrue(o.isIncomplete());
+		assertEquals(1, o.getList().size());
+	}
+
+	@Test
+	public void stop() throws Exception {
+
+		ClassIntrospector ci = new ClassIntrospector(ListTestObj.class);
+		Parser<ListTestObj> parser = new WoodStoxObjParserImpl<>(xmlInputFactory, ListTestObj.class, ci);
+		parser.register("SimpleTestObj", (tag, value) -> true);
+
+		Feeder<ListTestObj> feeder = parser.feeder(executor);
+		feed(feeder, "<ListTestObj><list><SimpleTestObj><element1>1</element1></SimpleTestObj>");
+		ListTestObj o = feeder.endOfInput();
+
+		assertEquals(1, o.getList().size());
+	}
+
+	@Test
+	public void map() throws Exception {
+
+		WoodStoxMapParserImpl parser = new WoodStoxMapParserImpl(xmlInputFactory, DEFAULT_INCOMPLETE_KEY_NAME);
+
+		Feeder<Map> feeder = parser.feeder(executor);
+		byte[] xml = "<root><a>1</a><b>2</b></root>".getBytes(StandardCharsets.UTF_8);
+		for (byte b : xml) {
+			feeder.feed(ByteBuffer.wrap(new byte[]{b}));
+		}
+		Map result = feeder.endOfInput();
+
+		assertEquals(parser.parse(xml), result);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void sameThreadExecutor() throws Exception {
+
+		ClassIntrospector ci = new ClassIntrospector(ListTestObj.class);
+		Parser<ListTestObj> parser = new WoodStoxObjParserImpl<>(xmlInputFactory, ListTestObj.class, ci);
+
+		parser.feeder(Runnable::run);
+	}
+
+	@Test
+	public void feedingBlocksWhenFull() throws Exception {
+
+		ClassIntrospector ci = new ClassIntrospector(ListTestObj.class);
+		Parser<ListTestObj> parser = new WoodStoxObjParserImpl<>(xmlInputFactory, ListTestObj.class, ci);
+
+		CountDownLatch release = new CountDownLatch(1);
+		parser.register("SimpleTestObj", (tag, value) -> {
+			try {
+				release.await();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			return false;
+		});
+
+		Feeder<ListTestObj> feeder = parser.feeder(executor);
+		AtomicInteger fed = new AtomicInteger();
+		Thread feeding = new Thread(() -> {
+			try {
+				feed(feeder, "<ListTestObj><list>");
+				for (int i = 0; i < 100; i++) {
+					feeder.feed(ByteBuffer.wrap("<SimpleTestObj><element1>1</element1></SimpleTestObj>".getBytes(StandardCharsets.UTF_8)));
+					fed.incrementAndGet();
+				}
+				feed(feeder, "</list></ListTestObj>");
+			} catch (Exception e) {
+				//fails on assertions
+			}
+		});
+		feeding.start();
+
+		//parse is blocked on first element, queue fills
+		Thread.sleep(300);
+		assertTrue(feeding.isAlive());
+		assertTrue(fed.get() < 100);
+
+		release.countDown();
+		feeding.join(10000);
+		assertEquals(100, fed.get());
+		assertEquals(100, feeder.endOfInput().getList().size());
+	}
+
+	@Test
+	public void stoppedWhileFeeding() throws Exception {
+
+		ClassIntrospector ci = new ClassIntrospector(ListTestObj.class);
+		Parser<ListTestObj> parser = new WoodStoxObjParserImpl<>(xmlInputFactory, ListTestObj.class, ci);
+		parser.register("SimpleTestObj", (tag, value) -> true);
+
+		Feeder<ListTestObj> feeder = parser.feeder(executor);
+		feed(feeder, "<ListTestObj><list>");
+		boolean more = true;
+		for (int i = 0; i < 1000 && more; i++) {
+			more = feeder.feed(ByteBuffer.wrap("<SimpleTestObj><element1>1</element1></SimpleTestObj>".getBytes(StandardCharsets.UTF_8)));
+		}
+
+		assertFalse(more);
+		assertEquals(1, feeder.endOfInput().getList().size());
+	}
+
+	private static void feed(Feeder<?> feeder, String content) throws Exception {
+		byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
+		for (int i = 0; i < bytes.length; i += 7) {
+			feeder.feed(ByteBuffer.wrap(bytes, i, Math.min(7, bytes.length - i)));
+		}
+	}
+}
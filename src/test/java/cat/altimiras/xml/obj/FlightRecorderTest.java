@@ -0,0 +1,82 @@
+package cat.altimiras.xml.obj;
+
+import cat.altimiras.Parser;
+import cat.altimiras.json.JSONFactory;
+import cat.altimiras.xml.pojo.SimpleTestObj;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.apache.commons.io.IOUtils;
+import org.codehaus.stax2.XMLInputFactory2;
+import org.junit.Test;
+
+import javax.xml.stream.XMLInputFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class FlightRecorderTest {
+
+	private XMLInputFactory2 xmlInputFactory = (XMLInputFactory2) XMLInputFactory.newInstance();
+
+	@Test
+	public void events() throws Exception {
+
+		String xml = IOUtils.toString(this.getClass().getResourceAsStream("/xml/simpleTest.xml"), "UTF-8");
+		Parser<SimpleTestObj> parser = new WoodStoxObjParserImpl<>(xmlInputFactory, SimpleTestObj.class, new ClassIntrospector(SimpleTestObj.class));
+		parser.register("element2", (tag, value) -> true);
+
+		Parser<Map> jsonParser = JSONFactory.getParser();
+
+		List<RecordedEvent> events;
+		Path file = Files.createTempFile("sherlock", ".jfr");
+		try (Recording recording = new Recording()) {
+			recording.enable("cat.altimiras.Parse").withoutThreshold();
+			recording.enable("cat.altimiras.Listener").withoutThreshold();
+			recording.start();
+
+			parser.parse(xml);
+			jsonParser.parse("{\"k1\" : \"v1\", \"k2\" : ");
+
+			recording.stop();
+			recording.dump(file);
+			events = RecordingFile.readAllEvents(file);
+		} finally {
+			Files.delete(file);
+		}
+
+		List<RecordedEvent> parses = events.stream().filter(e -> e.getEventType().getName().equals("cat.altimiras.Parse")).collect(Collectors.toList());
+		assertEquals(2, parses.size());
+
+		RecordedEvent xmlParse = parses.stream().filter(e -> e.getString("parser").equals("WoodStoxObjParserImpl")).findFirst().get();
+		assertEquals(xml.length(), xmlParse.getLong("bytes"));
+		assertEquals(2, xmlParse.getLong("bound"));
+		assertTrue(xmlParse.getBoolean("stopped"));
+		assertFalse(xmlParse.getBoolean("incomplete"));
+
+		RecordedEvent jsonParse = parses.stream().filter(e -> e.getString("parser").equals("JSONMapParserImpl")).findFirst().get();
+		assertTrue(jsonParse.getBoolean("incomplete"));
+		assertFalse(jsonParse.getBoolean("stopped"));
+
+		List<RecordedEvent> listeners = events.stream().filter(e -> e.getEventType().getName().equals("cat.altimiras.Listener")).collect(Collectors.toList());
+		assertEquals(1, listeners.size());
+		assertEquals("element2", listeners.get(0).getString("tag"));
+		assertTrue(listeners.get(0).getBoolean("stop"));
+	}
+
+	@Test
+	public void notRecording() throws Exception {
+
+		String xml = IOUtils.toString(this.getClass().getResourceAsStream("/xml/simpleTest.xml"), "UTF-8");
+		Parser<SimpleTestObj> parser = new WoodStoxObjParserImpl<>(xmlInputFactory, SimpleTestObj.class, new ClassIntrospector(SimpleTestObj.class));
+		parser.register("element2", (tag, value) -> true);
+
+		assertEquals("222", parser.parse(xml).getElement2());
+	}
+}
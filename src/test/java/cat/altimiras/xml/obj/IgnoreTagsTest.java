@@ -2,14 +2,21 @@ package cat.altimiras.xml.obj;
 
 import cat.altimiras.Parser;
 import cat.altimiras.xml.pojo.Nested4TestObj;
+import cat.altimiras.xml.pojo.NestedTestObj;
 import cat.altimiras.xml.pojo.SimpleTestObj;
 import org.apache.commons.io.IOUtils;
 import org.codehaus.stax2.XMLInputFactory2;
 import org.junit.Test;
 
 import javax.xml.stream.XMLInputFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 
 public class IgnoreTagsTest {
 
@@ -77,4 +84,64 @@ public class IgnoreTagsTest {
 		assertEquals("222", o.getElement2().trim());
 	}
 
+	/**
+	 * Unmapped element inside a nested object is skipped with all its content, even if it contains known tags
+	 *
+	 * @throws Exception
+	 */
+	@Test
+	public void xmlIgnoreSubtreeTest() throws Exception {
+
+		ClassIntrospector ci = new ClassIntrospector(NestedTestObj.class);
+
+		String xml = IOUtils.toString(this.getClass().getResourceAsStream("/xml/ignoreSubtreeTest.xml"), "UTF-8");
+		Parser<NestedTestObj> parser = new WoodStoxObjParserImpl<>(xmlInputFactory, NestedTestObj.class, ci);
+
+		NestedTestObj o = parser.parse(xml);
+
+		assertEquals("111", o.getSimpleTestObj().getElement1().trim());
+		assertEquals("222", o.getSimpleTestObj().getElement2().trim());
+		assertEquals("title", o.getTitle());
+		assertFalse(o.isIncomplete());
+	}
+
+	/**
+	 * With listeners, unmapped element is walked as any tag could be below: listeners are notified as they were before
+	 * subtrees were skipped
+	 *
+	 * @throws Exception
+	 */
+	@Test
+	public void xmlIgnoreSubtreeListenedTest() throws Exception {
+
+		ClassIntrospector ci = new ClassIntrospector(NestedTestObj.class);
+
+		String xml = IOUtils.toString(this.getClass().getResourceAsStream("/xml/ignoreSubtreeTest.xml"), "UTF-8");
+		Parser<NestedTestObj> parser = new WoodStoxObjParserImpl<>(xmlInputFactory, NestedTestObj.class, ci);
+		List<String> tags = new ArrayList<>();
+		parser.register("nested", (tag, value) -> tags.add(tag) && false);
+		parser.register("ignoredTag", (tag, value) -> tags.add(tag) && false);
+
+		NestedTestObj o = parser.parse(xml);
+
+		assertEquals(Arrays.asList("nested", "nested", "ignoredTag"), tags);
+		assertEquals("111", o.getSimpleTestObj().getElement1().trim());
+		assertEquals("title", o.getTitle());
+		assertFalse(o.isIncomplete());
+	}
+
+	@Test
+	public void xmlIgnoreSubtreeIncompleteTest() throws Exception {
+
+		ClassIntrospector ci = new ClassIntrospector(NestedTestObj.class);
+
+		String xml = "<NestedTestObj><simpleTestObj><element1>111</element1><ignoredTag><a><b>lolo</b>";
+		Parser<NestedTestObj> parser = new WoodStoxObjParserImpl<>(xmlInputFactory, NestedTestObj.class, ci);
+
+		NestedTestObj o = parser.parse(xml);
+
+		assertEquals("111", o.getSimpleTestObj().getElement1());
+		assertNull(o.getTitle());
+		assertTrue(o.isIncomplete());
+	}
 }
@@ -0,0 +1,157 @@
+package cat.altimiras.xml.obj;
+
+import cat.altimiras.ParseStats;
+import cat.altimiras.Parser;
+import cat.altimiras.xml.XMLFactory;
+import cat.altimiras.xml.pojo.Nested3TestObj;
+import cat.altimiras.xml.pojo.NestedTestObj;
+import cat.altimiras.xml.pojo.SimpleTestObj;
+import org.apache.commons.io.IOUtils;
+import org.codehaus.stax2.XMLInputFactory2;
+import org.junit.After;
+import org.junit.Test;
+
+import javax.xml.stream.XMLInputFactory;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class MetricsTest {
+
+	private XMLInputFactory2 xmlInputFactory = (XMLInputFactory2) XMLInputFactory.newInstance();
+
+	private List<ParseStats> recorded = new ArrayList<>();
+
+	@After
+	public void tearDown() {
+		XMLFactory.setMetrics(null);
+	}
+
+	@Test
+	public void simple() throws Exception {
+
+		String xml = IOUtils.toString(this.getClass().getResourceAsStream("/xml/simpleTest.xml"), "UTF-8");
+		Parser<SimpleTestObj> parser = new WoodStoxObjParserImpl<>(xmlInputFactory, SimpleTestObj.class, new ClassIntrospector(SimpleTestObj.class));
+		parser.setMetrics(recorded::add);
+
+		parser.parse(new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8)));
+
+		assertEquals(1, recorded.size());
+		ParseStats stats = recorded.get(0);
+		assertEquals(xml.getBytes(StandardCharsets.UTF_8).length, stats.getBytes());
+		assertTrue(stats.getEvents() > 0);
+		assertEquals(2, stats.getBound());
+		assertEquals(0, stats.getSkipped());
+		assertFalse(stats.isIncomplete());
+		assertFalse(stats.isStopped());
+	}
+
+	@Test
+	public void skipped() throws Exception {
+
+		String xml = IOUtils.toString(this.getClass().getResourceAsStream("/xml/ignoreSubtreeTest.xml"), "UTF-8");
+		Parser<NestedTestObj> parser = new WoodStoxObjParserImpl<>(xmlInputFactory, NestedTestObj.class, new ClassIntrospector(NestedTestObj.class));
+		parser.setMetrics(recorded::add);
+
+		parser.parse(xml);
+
+		assertEquals(1, recorded.size());
+		assertEquals(1, recorded.get(0).getSkipped());
+	}
+
+	@Test
+	public void incomplete() throws Exception {
+
+		String xml = IOUtils.toString(this.getClass().getResourceAsStream("/xml/incompleteXMLTest.xml"), "UTF-8");
+		Parser<Nested3TestObj> parser = new WoodStoxObjParserImpl<>(xmlInputFactory, Nested3TestObj.class, new ClassIntrospector(Nested3TestObj.class));
+		parser.setMetrics(recorded::add);
+
+		parser.parse(xml);
+
+		assertEquals(1, recorded.size());
+		assertTrue(recorded.get(0).isIncomplete());
+	}
+
+	@Test
+	public void stopped() throws Exception {
+
+		String xml = IOUtils.toString(this.getClass().getResourceAsStream("/xml/simpleTest.xml"), "UTF-8");
+		Parser<SimpleTestObj> parser = new WoodStoxObjParserImpl<>(xmlInputFactory, SimpleTestObj.class, new ClassIntrospector(SimpleTestObj.class));
+		parser.setMetrics(recorded::add);
+		parser.register("element2", (tag, value) -> true);
+
+		parser.parse(xml);
+
+		assertEquals(1, recorded.size());
+		assertTrue(recorded.get(0).isStopped());
+	}
+
+	@Test
+	public void disabled() throws Exception {
+
+		String xml = IOUtils.toString(this.getClass().getResourceAsStream("/xml/simpleTest.xml"), "UTF-8");
+		Parser<SimpleTestObj> parser = new WoodStoxObjParserImpl<>(xmlInputFactory, SimpleTestObj.class, new ClassIntrospector(SimpleTestObj.class));
+		parser.setMetrics(recorded::add);
+		parser.setMetrics(null);
+
+		parser.parse(xml);
+
+		assertTrue(recorded.isEmpty());
+	}
+
+	@Test
+	public void factory() throws Exception {
+
+		XMLFactory.init(SimpleTestObj.class);
+		Parser<SimpleTestObj> before = XMLFactory.getParser(SimpleTestObj.class);
+		XMLFactory.setMetrics(recorded::add);
+
+		String xml = IOUtils.toString(this.getClass().getResourceAsStream("/xml/simpleTest.xml"), "UTF-8");
+		before.parse(xml);
+		assertTrue(recorded.isEmpty());
+
+		XMLFactory.getParser(SimpleTestObj.class).parse(xml);
+		Map map = XMLFactory.getParser().parse(xml);
+
+		assertEquals("222", ((Map) map.get("SimpleTestObj")).get("element2"));
+		assertEquals(2, recorded.size());
+		assertEquals(2, recorded.get(1).getBound());
+		assertTrue(recorded.get(1).getBytes() > 0);
+	}
+
+	@Test
+	public void unreadable() throws Exception {
+
+		Parser<SimpleTestObj> parser = new WoodStoxObjParserImpl<>(xmlInputFactory, SimpleTestObj.class, new ClassIntrospector(SimpleTestObj.class));
+		parser.setMetrics(recorded::add);
+
+		try {
+			parser.parse(new InputStream() {
+				@Override
+				public int read() throws IOException {
+					throw new IOException("unreadable");
+				}
+			});
+			fail();
+		} catch (CharacterCodingException e) {
+			//expected
+		}
+
+		assertEquals(1, recorded.size());
+		assertTrue(recorded.get(0).isIncomplete());
+
+		parser.parse(IOUtils.toString(this.getClass().getResourceAsStream("/xml/simpleTest.xml"), "UTF-8"));
+		assertEquals(2, recorded.size());
+		assertFalse(recorded.get(1).isIncomplete());
+	}
+}
@@ -0,0 +1,163 @@
+package cat.altimiras.xml.obj;
+
+import cat.altimiras.CloseableIterator;
+import cat.altimiras.ParseStats;
+import cat.altimiras.TagListener;
+import cat.altimiras.xml.pojo.ListTestObj;
+import cat.altimiras.xml.pojo.Nested5TestObj;
+import cat.altimiras.xml.pojo.Nested8TestObj;
+import cat.altimiras.xml.pojo.SimpleTestObj;
+import org.codehaus.stax2.XMLInputFactory2;
+import org.junit.Test;
+
+import javax.xml.stream.XMLInputFactory;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class StreamTest {
+
+	private XMLInputFactory2 xmlInputFactory = (XMLInputFactory2) XMLInputFactory.newInstance();
+
+	@Test
+	public void iterateListTest() throws Exception {
+
+		ClassIntrospector ci = new ClassIntrospector(ListTestObj.class);
+
+		WoodStoxObjParserImpl<ListTestObj> parser = new WoodStoxObjParserImpl<>(xmlInputFactory, ListTestObj.class, ci);
+
+		try (InputStream xml = this.getClass().getResourceAsStream("/xml/list2Test.xml")) {
+			Iterator<SimpleTestObj> it = parser.iterate(xml, SimpleTestObj.class);
+
+			assertTrue(it.hasNext());
+			SimpleTestObj o = it.next();
+			assertEquals("111", o.getElement1().trim());
+			assertNull(o.getElement2());
+
+			o = it.next();
+			assertNull(o.getElement1());
+			assertEquals("222", o.getElement2().trim());
+
+			o = it.next();
+			assertEquals("111", o.getElement1().trim());
+			assertEquals("222", o.getElement2().trim());
+
+			assertFalse(it.hasNext());
+		}
+	}
+
+	@Test
+	public void streamBigListTest() throws Exception {
+
+		ClassIntrospector ci = new ClassIntrospector(ListTestObj.class);
+
+		WoodStoxObjParserImpl<ListTestObj> parser = new WoodStoxObjParserImpl<>(xmlInputFactory, ListTestObj.class, ci);
+
+		try (InputStream xml = this.getClass().getResourceAsStream("/performance/bigListTest.xml")) {
+			assertEquals(2394, parser.stream(xml, SimpleTestObj.class).count());
+		}
+	}
+
+	@Test
+	public void streamNestedListTest() throws Exception {
+
+		ClassIntrospector ci = new ClassIntrospector(Nested8TestObj.class);
+
+		WoodStoxObjParserImpl<Nested8TestObj> parser = new WoodStoxObjParserImpl<>(xmlInputFactory, Nested8TestObj.class, ci);
+
+		try (InputStream xml = this.getClass().getResourceAsStream("/xml/listNoWrapper.xml")) {
+			List<String> titles = parser.stream(xml, Nested5TestObj.class).map(Nested5TestObj::getTitle).collect(Collectors.toList());
+
+			assertEquals(6, titles.size());
+			assertEquals("111", titles.get(0));
+			assertEquals("666", titles.get(5));
+		}
+	}
+
+	@Test
+	public void iterateIncompleteListTest() throws Exception {
+
+		ClassIntrospector ci = new ClassIntrospector(ListTestObj.class);
+
+		WoodStoxObjParserImpl<ListTestObj> parser = new WoodStoxObjParserImpl<>(xmlInputFactory, ListTestObj.class, ci);
+
+		try (InputStream xml = this.getClass().getResourceAsStream("/xml/incompleteListXMLTest.xml")) {
+			Iterator<SimpleTestObj> it = parser.iterate(xml, SimpleTestObj.class);
+
+			assertTrue(it.hasNext());
+			assertEquals("111", it.next().getElement1().trim());
+			assertFalse(it.hasNext());
+		}
+	}
+
+	@Test
+	public void iterateStopTest() throws Exception {
+
+		ClassIntrospector ci = new ClassIntrospector(ListTestObj.class);
+
+		WoodStoxObjParserImpl<ListTestObj> parser = new WoodStoxObjParserImpl<>(xmlInputFactory, ListTestObj.class, ci);
+
+		TagListener stopListener = mock(TagListener.class);
+		when(stopListener.notify(eq("SimpleTestObj"), any())).thenReturn(true);
+		parser.register("SimpleTestObj", stopListener);
+
+		try (InputStream xml = this.getClass().getResourceAsStream("/xml/list2Test.xml")) {
+			assertEquals(1, parser.stream(xml, SimpleTestObj.class).count());
+		}
+	}
+
+	@Test
+	public void closePartiallyConsumedStreamTest() throws Exception {
+
+		ClassIntrospector ci = new ClassIntrospector(ListTestObj.class);
+
+		WoodStoxObjParserImpl<ListTestObj> parser = new WoodStoxObjParserImpl<>(xmlInputFactory, ListTestObj.class, ci);
+		List<ParseStats> stats = new ArrayList<>();
+		parser.setMetrics(stats::add);
+
+		try (InputStream xml = this.getClass().getResourceAsStream("/performance/bigListTest.xml")) {
+			try (Stream<SimpleTestObj> stream = parser.stream(xml, SimpleTestObj.class)) {
+				assertEquals(10, stream.limit(10).count());
+				assertTrue(stats.isEmpty());
+			}
+		}
+
+		assertEquals(1, stats.size());
+		assertTrue(stats.get(0).isStopped());
+		assertTrue(stats.get(0).getBytes() > 0);
+	}
+
+	@Test
+	public void closeIteratorTwiceTest() throws Exception {
+
+		ClassIntrospector ci = new ClassIntrospector(ListTestObj.class);
+
+		WoodStoxObjParserImpl<ListTestObj> parser = new WoodStoxObjParserImpl<>(xmlInputFactory, ListTestObj.class, ci);
+		List<ParseStats> stats = new ArrayList<>();
+		parser.setMetrics(stats::add);
+
+		try (InputStream xml = this.getClass().getResourceAsStream("/xml/list2Test.xml")) {
+			CloseableIterator<SimpleTestObj> it = parser.iterate(xml, SimpleTestObj.class);
+			assertTrue(it.hasNext());
+			it.next();
+			it.close();
+			it.close();
+
+			assertFalse(it.hasNext());
+		}
+
+		assertEquals(1, stats.size());
+	}
+}
@@ -1,8 +1,10 @@
 package cat.altimiras.xml.obj;
 
 
+import cat.altimiras.BatchListener;
 import cat.altimiras.Parser;
 import cat.altimiras.TagListener;
+import cat.altimiras.xml.pojo.ListTestObj;
 import cat.altimiras.xml.pojo.Nested2TestObj;
 import cat.altimiras.xml.pojo.SimpleTestObj;
 import org.apache.commons.io.IOUtils;
@@ -10,10 +12,16 @@ import org.codehaus.stax2.XMLInputFactory2;
 import org.junit.Test;
 
 import javax.xml.stream.XMLInputFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.argThat;
 import static org.mockito.Mockito.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
@@ -102,4 +110,129 @@ public class TagListenerTest {
 		assertEquals("111", o.getSimpleTestObj1().getElement1().trim());
 		assertNull("title should not be matryoshka", o.getSimpleTestObj2());
 	}
+
+	@Test
+	public void listenerPathTest() throws Exception {
+
+		ClassIntrospector ci = new ClassIntrospector(Nested2TestObj.class);
+
+		String xml = IOUtils.toString(this.getClass().getResourceAsStream("/xml/nested2Test.xml"), "UTF-8");
+		Parser<Nested2TestObj> parser = new WoodStoxObjParserImpl<>(xmlInputFactory, Nested2TestObj.class, ci);
+
+		TagListener absolute = mock(TagListener.class);
+		TagListener relative = mock(TagListener.class);
+		TagListener notPresent = mock(TagListener.class);
+		TagListener obj = mock(TagListener.class);
+
+		parser.register("/Nested2TestObj/simpleTestObj2/element2", absolute);
+		parser.register("simpleTestObj1/element1", relative);
+		parser.register("/Nested2TestObj/simpleTestObj2/element1", notPresent);
+		parser.register("/Nested2TestObj/simpleTestObj1", obj);
+
+		parser.parse(xml);
+		verify(absolute, times(1)).notify(eq("/Nested2TestObj/simpleTestObj2/element2"), argThat(v -> "222".equals(((String) v).trim())));
+		verify(relative, times(1)).notify(eq("simpleTestObj1/element1"), argThat(v -> "111".equals(((String) v).trim())));
+		verify(notPresent, never()).notify(any(), any());
+		verify(obj, times(1)).notify(eq("/Nested2TestObj/simpleTestObj1"), any(SimpleTestObj.class));
+	}
+
+	@Test
+	public void listenerPathListTest() throws Exception {
+
+		ClassIntrospector ci = new ClassIntrospector(ListTestObj.class);
+
+		String xml = IOUtils.toString(this.getClass().getResourceAsStream("/xml/listTest.xml"), "UTF-8");
+		Parser<ListTestObj> parser = new WoodStoxObjParserImpl<>(xmlInputFactory, ListTestObj.class, ci);
+
+		TagListener items = mock(TagListener.class);
+		TagListener list = mock(TagListener.class);
+		parser.register("list/SimpleTestObj", items);
+		parser.register("/wrapperWeDontWant/ListTestObj/list", list);
+
+		ListTestObj o = parser.parse(xml);
+		verify(items, times(2)).notify(eq("list/SimpleTestObj"), any(SimpleTestObj.class));
+		verify(list, times(1)).notify("/wrapperWeDontWant/ListTestObj/list", o.getList());
+	}
+
+	@Test
+	public void listenerPathStopTest() throws Exception {
+
+		ClassIntrospector ci = new ClassIntrospector(Nested2TestObj.class);
+
+		String xml = IOUtils.toString(this.getClass().getResourceAsStream("/xml/nested2Test.xml"), "UTF-8");
+		Parser<Nested2TestObj> parser = new WoodStoxObjParserImpl<>(xmlInputFactory, Nested2TestObj.class, ci);
+
+		parser.register("/Nested2TestObj/simpleTestObj1", (tag, value) -> true);
+
+		Nested2TestObj o = parser.parse(xml);
+		assertEquals("111", o.getSimpleTestObj1().getElement1().trim());
+		assertNull(o.getTitle());
+	}
+
+	@Test
+	public void batchListenerTest() throws Exception {
+
+		ClassIntrospector ci = new ClassIntrospector(ListTestObj.class);
+		Parser<ListTestObj> parser = new WoodStoxObjParserImpl<>(xmlInputFactory, ListTestObj.class, ci);
+
+		List<List<Object>> items = new ArrayList<>();
+		List<List<Object>> elements = new ArrayList<>();
+		parser.register("SimpleTestObj", (tag, values) -> items.add(values) && false, 2);
+		parser.register("element1", (tag, values) -> elements.add(values) && false, 2);
+
+		ListTestObj o = parser.parse(list(5, true));
+
+		//flushed when full and when list is closed
+		assertEquals(3, items.size());
+		assertEquals(Arrays.asList(o.getList().get(0), o.getList().get(1)), items.get(0));
+		assertEquals(Arrays.asList(o.getList().get(2), o.getList().get(3)), items.get(1));
+		assertEquals(Collections.singletonList(o.getList().get(4)), items.get(2));
+
+		//every element1 has a different parent
+		assertEquals(5, elements.size());
+		assertEquals(Collections.singletonList("e4"), elements.get(4));
+	}
+
+	@Test
+	public void batchListenerIncompleteTest() throws Exception {
+
+		ClassIntrospector ci = new ClassIntrospector(ListTestObj.class);
+		Parser<ListTestObj> parser = new WoodStoxObjParserImpl<>(xmlInputFactory, ListTestObj.class, ci);
+
+		List<List<Object>> items = new ArrayList<>();
+		parser.register("SimpleTestObj", (tag, values) -> items.add(values) && false, 10);
+
+		ListTestObj o = parser.parse(list(5, false));
+
+		assertTrue(o.isIncomplete());
+		assertEquals(1, items.size());
+		assertEquals(o.getList(), items.get(0));
+	}
+
+	@Test
+	public void batchListenerStopTest() throws Exception {
+
+		ClassIntrospector ci = new ClassIntrospector(ListTestObj.class);
+		Parser<ListTestObj> parser = new WoodStoxObjParserImpl<>(xmlInputFactory, ListTestObj.class, ci);
+
+		BatchListener listener = mock(BatchListener.class);
+		when(listener.notify(eq("SimpleTestObj"), any())).thenReturn(true);
+		parser.register("SimpleTestObj", listener, 2);
+
+		ListTestObj o = parser.parse(list(5, true));
+
+		verify(listener, times(1)).notify(eq("SimpleTestObj"), any());
+		assertEquals(2, o.getList().size());
+	}
+
+	private static String list(int size, boolean closed) {
+		StringBuilder xml = new StringBuilder("<ListTestObj><list>");
+		for (int i = 0; i < size; i++) {
+			xml.append("<SimpleTestObj><element1>e").append(i).append("</element1></SimpleTestObj>");
+		}
+		if (closed) {
+			xml.append("</list></ListTestObj>");
+		}
+		return xml.toString();
+	}
 }
@@ -9,6 +9,7 @@ import org.junit.Test;
 import javax.xml.stream.XMLInputFactory;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
 
 public class TypesTest {
 
@@ -38,5 +39,42 @@ public class TypesTest {
 		assertEquals(true, o.isBooleanPrimitiveValue());
 	}
 
+	@Test
+	public void xmlTypeElementsTest() throws Exception {
+
+		ClassIntrospector ci = new ClassIntrospector(TypeTestObj.class);
+
+		String xml = IOUtils.toString(this.getClass().getResourceAsStream("/xml/typeElementsTest.xml"), "UTF-8");
+		Parser<TypeTestObj> parser = new WoodStoxObjParserImpl<>(xmlInputFactory, TypeTestObj.class, ci);
+
+		TypeTestObj o = parser.parse(xml);
+
+		assertEquals("text", o.getText());
+		assertEquals(new Integer(1), o.getIntegerNum());
+		assertEquals(new Double(1.1), o.getDoubleNum());
+		assertEquals(new Float(1.2), o.getFloatNum());
+		assertEquals(new Long(2), o.getLongNum());
+		assertEquals(true, o.getBooleanValue());
 
+		assertEquals(-1, o.getIntPrimitiveNum());
+		assertEquals(1.1d, o.getDoublePrimitiveNum(), 0.0d);
+		assertEquals(1.2f, o.getFloatPrimitiveNum(), 0.0f);
+		assertEquals(Long.MAX_VALUE, o.getLongPrimitiveNum());
+		assertEquals(true, o.isBooleanPrimitiveValue());
+	}
+
+	@Test
+	public void xmlInvalidTypeTest() throws Exception {
+
+		ClassIntrospector ci = new ClassIntrospector(TypeTestObj.class);
+
+		Parser<TypeTestObj> parser = new WoodStoxObjParserImpl<>(xmlInputFactory, TypeTestObj.class, ci);
+
+		TypeTestObj o = parser.parse("<TypeTestObj longNum=\"a\"><intPrimitiveNum>99999999999</intPrimitiveNum><integerNum>1a</integerNum><text>text</text></TypeTestObj>");
+
+		assertEquals("text", o.getText());
+		assertNull(o.getIntegerNum());
+		assertNull(o.getLongNum());
+		assertEquals(0, o.getIntPrimitiveNum());
+	}
 }
@@ -0,0 +1,95 @@
+package cat.altimiras.xml.obj;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ValueTypeTest {
+
+	@Test
+	public void parseIntTest() {
+		assertEquals(123, parseInt("123"));
+		assertEquals(-123, parseInt("-123"));
+		assertEquals(123, parseInt("+123"));
+		assertEquals(123, parseInt("\n  123 \t"));
+		assertEquals(Integer.MAX_VALUE, parseInt(String.valueOf(Integer.MAX_VALUE)));
+		assertEquals(Integer.MIN_VALUE, parseInt(String.valueOf(Integer.MIN_VALUE)));
+	}
+
+	@Test
+	public void parseTrimsAsStringTrimTest() {
+		String value = "\u0000\f\u000B 7 \u001F";
+		assertEquals(Integer.parseInt(value.trim()), parseInt(value));
+		assertEquals(7L, parseLong(value));
+		assertTrue(parseBoolean("\f true\u000B"));
+	}
+
+	@Test
+	public void parseIntOffsetTest() {
+		char[] buffer = "<a>42</a>".toCharArray();
+		assertEquals(42, ValueType.parseInt(buffer, 3, 2));
+	}
+
+	@Test(expected = NumberFormatException.class)
+	public void parseIntOverflowTest() {
+		parseInt("2147483648");
+	}
+
+	@Test(expected = NumberFormatException.class)
+	public void parseIntInvalidTest() {
+		parseInt("12a");
+	}
+
+	@Test(expected = NumberFormatException.class)
+	public void parseIntEmptyTest() {
+		parseInt("  ");
+	}
+
+	@Test(expected = NumberFormatException.class)
+	public void parseIntSignOnlyTest() {
+		parseInt("-");
+	}
+
+	@Test
+	public void parseLongTest() {
+		assertEquals(Long.MAX_VALUE, parseLong(String.valueOf(Long.MAX_VALUE)));
+		assertEquals(Long.MIN_VALUE, parseLong(String.valueOf(Long.MIN_VALUE)));
+		assertEquals(0L, parseLong("0"));
+	}
+
+	@Test(expected = NumberFormatException.class)
+	public void parseLongOverflowTest() {
+		parseLong("9223372036854775808");
+	}
+
+	@Test
+	public void parseBooleanTest() {
+		assertTrue(parseBoolean("true"));
+		assertTrue(parseBoolean(" TRUE\n"));
+		assertFalse(parseBoolean("false"));
+		assertFalse(parseBoolean("yes"));
+		assertFalse(parseBoolean(""));
+	}
+
+	@Test
+	public void ofTest() {
+		assertEquals(ValueType.INT, ValueType.of(Integer.TYPE));
+		assertEquals(ValueType.BOXED_INT, ValueType.of(Integer.class));
+		assertEquals(ValueType.STRING, ValueType.of(String.class));
+		assertEquals(ValueType.OBJECT, ValueType.of(Object.class));
+	}
+
+	private int parseInt(String s) {
+		return ValueType.parseInt(s.toCharArray(), 0, s.length());
+	}
+
+	private long parseLong(String s) {
+		return ValueType.parseLong(s.toCharArray(), 0, s.length());
+	}
+
+	private boolean parseBoolean(String s) {
+		return ValueType.parseBoolean(s.toCharArray(), 0, s.length());
+	}
+}
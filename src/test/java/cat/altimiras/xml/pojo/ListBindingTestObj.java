@@ -0,0 +1,18 @@
+package cat.altimiras.xml.pojo;
+
+import cat.altimiras.xml.XMLElement;
+import cat.altimiras.xml.bind.XMLBinding;
+
+import javax.xml.bind.annotation.XmlRootElement;
+import java.util.List;
+
+@XMLBinding
+@XmlRootElement(name = "ListTestObj")
+public class ListBindingTestObj extends XMLElement {
+
+	List<SimpleBindingTestObj> list;
+
+	public List<SimpleBindingTestObj> getList() {
+		return list;
+	}
+}
@@ -0,0 +1,33 @@
+package cat.altimiras.xml.pojo;
+
+import cat.altimiras.xml.XMLElement;
+import cat.altimiras.xml.bind.XMLBinding;
+
+import javax.xml.bind.annotation.XmlRootElement;
+import java.util.List;
+
+@XMLBinding
+@XmlRootElement(name = "Nested7TestObj")
+public class Nested7BindingTestObj extends XMLElement {
+
+	String field;
+	List<Integer> Values;
+	ListPrimitivesBindingObj aaa;
+	ListPrimitivesBindingObj bbb;
+
+	public String getField() {
+		return field;
+	}
+
+	public List<Integer> getValues() {
+		return Values;
+	}
+
+	public ListPrimitivesBindingObj getAaa() {
+		return aaa;
+	}
+
+	public ListPrimitivesBindingObj getBbb() {
+		return bbb;
+	}
+}
@@ -0,0 +1,25 @@
+package cat.altimiras.xml.pojo;
+
+import cat.altimiras.xml.XMLElement;
+import cat.altimiras.xml.bind.XMLBinding;
+
+import javax.xml.bind.annotation.XmlElement;
+import javax.xml.bind.annotation.XmlRootElement;
+
+@XMLBinding
+@XmlRootElement(name = "NestedTestObj")
+public class NestedBindingTestObj extends XMLElement {
+
+	String title;
+
+	@XmlElement(name = "simpleTestObj")
+	SimpleBindingTestObj simple;
+
+	public String getTitle() {
+		return title;
+	}
+
+	public SimpleBindingTestObj getSimple() {
+		return simple;
+	}
+}
@@ -0,0 +1,26 @@
+package cat.altimiras.xml.pojo;
+
+import cat.altimiras.xml.XMLElement;
+import cat.altimiras.xml.bind.XMLBinding;
+
+import javax.xml.bind.annotation.XmlRootElement;
+
+@XMLBinding
+@XmlRootElement(name = "SimpleTestObj")
+public class SimpleBindingTestObj extends XMLElement {
+
+	String element1;
+	private String element2;
+
+	public String getElement1() {
+		return element1;
+	}
+
+	public String getElement2() {
+		return element2;
+	}
+
+	public void setElement2(String element2) {
+		this.element2 = element2;
+	}
+}
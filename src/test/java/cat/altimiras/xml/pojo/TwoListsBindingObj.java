@@ -0,0 +1,23 @@
+package cat.altimiras.xml.pojo;
+
+import cat.altimiras.xml.XMLElement;
+import cat.altimiras.xml.bind.XMLBinding;
+
+import javax.xml.bind.annotation.XmlRootElement;
+import java.util.List;
+
+@XMLBinding
+@XmlRootElement(name = "TwoLists")
+public class TwoListsBindingObj extends XMLElement {
+
+	List<Integer> values;
+	List<String> anothervalues;
+
+	public List<Integer> getValues() {
+		return values;
+	}
+
+	public List<String> getAnothervalues() {
+		return anothervalues;
+	}
+}
@@ -0,0 +1,67 @@
+package cat.altimiras.xml.pojo;
+
+import cat.altimiras.xml.XMLElement;
+import cat.altimiras.xml.bind.XMLBinding;
+
+import javax.xml.bind.annotation.XmlRootElement;
+
+@XMLBinding
+@XmlRootElement(name = "TypeTestObj")
+public class TypeBindingTestObj extends XMLElement {
+
+	String text;
+	Integer integerNum;
+	Long longNum;
+	Double doubleNum;
+	Float floatNum;
+	Boolean booleanValue;
+	int intPrimitiveNum;
+	long longPrimitiveNum;
+	double doublePrimitiveNum;
+	float floatPrimitiveNum;
+	boolean booleanPrimitiveValue;
+
+	public String getText() {
+		return text;
+	}
+
+	public Integer getIntegerNum() {
+		return integerNum;
+	}
+
+	public Long getLongNum() {
+		return longNum;
+	}
+
+	public Double getDoubleNum() {
+		return doubleNum;
+	}
+
+	public Float getFloatNum() {
+		return floatNum;
+	}
+
+	public Boolean getBooleanValue() {
+		return booleanValue;
+	}
+
+	public int getIntPrimitiveNum() {
+		return intPrimitiveNum;
+	}
+
+	public long getLongPrimitiveNum() {
+		return longPrimitiveNum;
+	}
+
+	public double getDoublePrimitiveNum() {
+		return doublePrimitiveNum;
+	}
+
+	public float getFloatPrimitiveNum() {
+		return floatPrimitiveNum;
+	}
+
+	public boolean isBooleanPrimitiveValue() {
+		return booleanPrimitiveValue;
+	}
+}
@@ -0,0 +1,14 @@
+package cat.altimiras.xml.pojo;
+
+
+import cat.altimiras.xml.XMLElement;
+
+import java.util.List;
+
+public class TypeListTestObj extends XMLElement {
+	private List<TypeTestObj> TypeTestObj;
+
+	public List<TypeTestObj> getList() {
+		return TypeTestObj;
+	}
+}
@@ -0,0 +1,83 @@
+package cat.altimiras.xml.pojo;
+
+import cat.altimiras.xml.XMLElement;
+
+/**
+ * Class with many fields, "Aa" and "BB" have the same hash code
+ */
+public class WideTestObj extends XMLElement {
+	private String field0;
+	private String field1;
+	private String field2;
+	private String field3;
+	private String field4;
+	private String field5;
+	private String field6;
+	private String field7;
+	private String field8;
+	private String field9;
+	private String field10;
+	private String field11;
+	private String field12;
+	private String field13;
+	private String field14;
+	private String field15;
+	private String field16;
+	private String field17;
+	private String field18;
+	private String field19;
+	private String field20;
+	private String field21;
+	private String field22;
+	private String field23;
+	private String field24;
+	private String field25;
+	private String field26;
+	private String field27;
+	private String field28;
+	private String field29;
+	private String field30;
+	private String field31;
+	private String field32;
+	private String field33;
+	private String field34;
+	private String field35;
+	private String field36;
+	private String field37;
+	private String field38;
+	private String field39;
+	private String field40;
+	private String field41;
+	private String field42;
+	private String field43;
+	private String field44;
+	private String field45;
+	private String field46;
+	private String field47;
+	private String field48;
+	private String field49;
+	private String field50;
+	private String field51;
+	private String field52;
+	private String field53;
+	private String field54;
+	private String field55;
+	private String field56;
+	private String field57;
+	private String field58;
+	private String field59;
+	private int Aa;
+	private int BB;
+
+	public String getField(int i) throws Exception {
+		return (String) WideTestObj.class.getDeclaredField("field" + i).get(this);
+	}
+
+	public int getAa() {
+		return Aa;
+	}
+
+	public int getBB() {
+		return BB;
+	}
+}
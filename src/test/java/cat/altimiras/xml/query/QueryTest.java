@@ -0,0 +1,144 @@
+package cat.altimiras.xml.query;
+
+import cat.altimiras.ParseStats;
+import cat.altimiras.Parser;
+import cat.altimiras.PathQuery;
+import cat.altimiras.TagListener;
+import cat.altimiras.xml.XMLFactory;
+import org.apache.commons.io.IOUtils;
+import org.codehaus.stax2.XMLInputFactory2;
+import org.junit.Test;
+
+import javax.xml.stream.XMLInputFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static cat.altimiras.xml.XMLFactory.DEFAULT_INCOMPLETE_KEY_NAME;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class QueryTest {
+
+	@Test
+	public void simple() throws Exception {
+
+		String xml = IOUtils.toString(this.getClass().getResourceAsStream("/xml/nestedTest.xml"), "UTF-8");
+		Map result = XMLFactory.getQueryParser("/NestedTestObj/title", "/NestedTestObj/simpleTestObj/element2", "/NestedTestObj/none").parse(xml);
+
+		assertEquals(2, result.size());
+		assertEquals("title", result.get("/NestedTestObj/title"));
+		assertEquals("222", result.get("/NestedTestObj/simpleTestObj/element2"));
+		assertFalse(result.containsKey("/NestedTestObj/none"));
+		assertFalse(result.containsKey(DEFAULT_INCOMPLETE_KEY_NAME));
+	}
+
+	@Test
+	public void subtree() throws Exception {
+
+		String xml = IOUtils.toString(this.getClass().getResourceAsStream("/xml/listTest.xml"), "UTF-8");
+		Map result = XMLFactory.getQueryParser("/wrapperWeDontWant/ListTestObj/list", "/wrapperWeDontWant/ListTestObj/list/SimpleTestObj/@noway").parse(xml);
+
+		Map list = (Map) result.get("/wrapperWeDontWant/ListTestObj/list");
+		List<Map> items = (List) list.get("SimpleTestObj");
+		assertEquals(2, items.size());
+		assertEquals("lala", items.get(0).get("noway"));
+		assertEquals("111", items.get(0).get("element1"));
+		assertEquals("lala", result.get("/wrapperWeDontWant/ListTestObj/list/SimpleTestObj/@noway"));
+	}
+
+	@Test
+	public void attributesAndWildcard() throws Exception {
+
+		String xml = IOUtils.toString(this.getClass().getResourceAsStream("/xml/listNoWrapper.xml"), "UTF-8");
+		Map result = XMLFactory.getQueryParser("/*/Nested8TestObj/@field", "/*/*/list/Nested6TestObj/Nested5TestObj/@title", "/wrapperWeDontWant/Nested8TestObj/list/Nested6TestObj/title").parse(xml);
+
+		assertEquals("field", result.get("/*/Nested8TestObj/@field"));
+		assertEquals("111", result.get("/*/*/list/Nested6TestObj/Nested5TestObj/@title"));
+		//first Nested6TestObj has title as an attribute, first title element is on the second one
+		assertEquals("lala", result.get("/wrapperWeDontWant/Nested8TestObj/list/Nested6TestObj/title"));
+	}
+
+	@Test
+	public void earlyTermination() throws Exception {
+
+		List<ParseStats> stats = new ArrayList<>();
+		Parser<Map> parser = XMLFactory.getQueryParser("/root/a");
+		parser.setMetrics(s -> stats.add(s));
+
+		//content after the match is corrupted, but it is never read
+		Map result = parser.parse("<root><ignored><x>1</x><y>2</y></ignored><a>value</a><b>" + String.join("", Collections.nCopies(10000, "<c>")));
+
+		assertEquals("value", result.get("/root/a"));
+		assertFalse(result.containsKey(DEFAULT_INCOMPLETE_KEY_NAME));
+		assertEquals(1, stats.get(0).getSkipped());
+		assertEquals(1, stats.get(0).getBound());
+		assertTrue(stats.get(0).getBytes() < 10000);
+	}
+
+	@Test
+	public void incomplete() throws Exception {
+
+		Map result = XMLFactory.getQueryParser("/root/a", "/root/b").parse("<root><a>value</a><b>va");
+
+		assertEquals("value", result.get("/root/a"));
+		assertFalse(result.containsKey("/root/b"));
+		assertEquals(true, result.get(DEFAULT_INCOMPLETE_KEY_NAME));
+	}
+
+	@Test
+	public void emptyElement() throws Exception {
+
+		Map result = XMLFactory.getQueryParser("/root/a", "/root/b").parse("<root><a/><b>1</b></root>");
+
+		assertTrue(result.containsKey("/root/a"));
+		assertNull(result.get("/root/a"));
+		assertEquals("1", result.get("/root/b"));
+	}
+
+	@Test
+	public void listenerStops() throws Exception {
+
+		TagListener listener = mock(TagListener.class);
+		when(listener.notify("/root/a", "1")).thenReturn(true);
+
+		Parser<Map> parser = XMLFactory.getQueryParser("/root/a", "/root/b");
+		parser.register("/root/a", listener);
+		Map result = parser.parse("<root><a>1</a><b>2</b></root>");
+
+		verify(listener, times(1)).notify("/root/a", "1");
+		assertEquals(1, result.size());
+	}
+
+	@Test
+	public void reuse() throws Exception {
+
+		Parser<Map> parser = new WoodStoxQueryParserImpl((XMLInputFactory2) XMLInputFactory.newInstance(), PathQuery.compile("/r/a"), DEFAULT_INCOMPLETE_KEY_NAME);
+
+		assertEquals("1", parser.parse("<r><a>1</a></r>").get("/r/a"));
+		assertEquals("2", parser.parse("<r><a>2</a></r>").get("/r/a"));
+	}
+
+	@Test
+	public void invalidPaths() throws Exception {
+
+		for (String path : Arrays.asList("root/a", "/", "/root//a", "/root/@a/b", "/@a", "/root/@*")) {
+			try {
+				PathQuery.compile(path);
+				fail("Path should be invalid: " + path);
+			} catch (IllegalArgumentException e) {
+				//expected
+			}
+		}
+	}
+}